@@ -0,0 +1,54 @@
+package com.aichessgame.benchmark;
+
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.BitBoard;
+import com.aichessgame.model.Board;
+
+/**
+ * The fixed corpus of positions every benchmark runs on, so results stay comparable between builds.
+ * Benchmarks select a position by name through a @Param, which JMH reports with each score.
+ */
+final class BenchmarkPositions {
+    // Two Knights Defence after 4 moves: both sides developing, all castling rights
+    static final String OPENING = "r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4";
+    // The "Kiwipete" perft position: crowded, with castling, pins and many captures
+    static final String MIDDLEGAME = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    // A rook endgame with pawns on one wing
+    static final String ENDGAME = "8/5pk1/6p1/3R4/1r6/6P1/5PK1/8 w - - 0 40";
+    // Black in check after Bxf7+, so check detection and mate tests cannot stop early
+    static final String CHECK = "r1bqkbnr/pppp1Bpp/2n5/4p3/4P3/8/PPPP1PPP/RNBQK1NR b KQkq - 0 3";
+
+    private BenchmarkPositions() {
+    }
+
+    /**
+     * Gets the FEN of a corpus position.
+     *
+     * @param name "opening", "middlegame", "endgame" or "check".
+     * @return The position.
+     */
+    static String fen(String name) {
+        return switch (name) {
+            case "opening" -> OPENING;
+            case "middlegame" -> MIDDLEGAME;
+            case "endgame" -> ENDGAME;
+            case "check" -> CHECK;
+            default -> throw new IllegalArgumentException("Unknown benchmark position: " + name);
+        };
+    }
+
+    /**
+     * Sets up a corpus position on a board.
+     *
+     * @param name           The position's name, see fen.
+     * @param implementation "BitBoard" or "Board" (the map-backed board).
+     * @return The board.
+     */
+    static AbstractBoard board(String name, String implementation) {
+        return switch (implementation) {
+            case "BitBoard" -> new BitBoard(fen(name));
+            case "Board" -> new Board(fen(name));
+            default -> throw new IllegalArgumentException("Unknown board implementation: " + implementation);
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package com.aichessgame.benchmark;
+
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.BitBoard;
+import com.aichessgame.model.Board;
+import com.aichessgame.utils.Color;
+import com.aichessgame.utils.Position;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The board queries every move check relies on, and copying a board.
+ * isPositionUnderAttack is asked for all 64 squares per operation, so empty, defended and
+ * attacked squares are all in the mix; divide the score by 64 for one query.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class BoardBenchmark {
+    @Param({"opening", "middlegame", "endgame", "check"})
+    public String position;
+
+    @Param({"BitBoard", "Board"})
+    public String implementation;
+
+    private AbstractBoard board;
+    private Color sideToMove;
+    private Color attacker;  // The side not to move, whose attacks limit the side to move's king
+
+    @Setup
+    public void setUp() {
+        board = BenchmarkPositions.board(position, implementation);
+        sideToMove = board.getSideToMove();
+        attacker = sideToMove.opposite();
+    }
+
+    @Benchmark
+    public void isPositionUnderAttack(Blackhole blackhole) {
+        for (int square = 0; square < 64; square++) {
+            blackhole.consume(board.isPositionUnderAttack(Position.of(square), attacker));
+        }
+    }
+
+    @Benchmark
+    public boolean isKingInCheck() {
+        return board.isKingInCheck(sideToMove);
+    }
+
+    /**
+     * The Board(Board) copy constructor, or BitBoard(BitBoard) for the bitboard implementation.
+     */
+    @Benchmark
+    public AbstractBoard copy() {
+        return board instanceof Board ? new Board((Board) board) : new BitBoard((BitBoard) board);
+    }
+}
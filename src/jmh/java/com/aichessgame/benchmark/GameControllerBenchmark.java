@@ -0,0 +1,138 @@
+package com.aichessgame.benchmark;
+
+import com.aichessgame.controller.GameController;
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.BitBoard;
+import com.aichessgame.model.Move;
+import com.aichessgame.model.MoveList;
+import com.aichessgame.model.PieceType;
+import com.aichessgame.utils.ChessLogger;
+import com.aichessgame.utils.Position;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * GameController.processMove for a human move: validation, making the move and the check,
+ * mate and stalemate tests that follow it.
+ *
+ * A controller cannot take a move back, so each position gets a shuttle: a piece of each side
+ * moves out and back, which returns to the same position every four moves. The controller is
+ * rebuilt every iteration, so its move history, which processMove grows as the game does,
+ * stays short. Move events are logged at INFO, which the benchmark turns off so they are
+ * dropped before they reach the log queue; the score is the controller's, not the log's.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class GameControllerBenchmark {
+    @Param({"opening", "middlegame", "endgame"})
+    public String position;
+
+    private GameController controller;
+    private final Position[] from = new Position[4]; // The shuttle's moves, played in turn
+    private final Position[] to = new Position[4];
+    private int next;                                // Index of the next shuttle move
+
+    @Setup(Level.Trial)
+    public void findShuttle() {
+        ChessLogger.getInstance(); // Sets the log up, which would otherwise undo the lower level on first use
+        Logger.getLogger("ChessGameLogger").setLevel(java.util.logging.Level.WARNING);
+        AbstractBoard board = new BitBoard(BenchmarkPositions.fen(position));
+        MoveList first = new MoveList();
+        MoveList second = new MoveList();
+        board.generateLegalMoves(board.getSideToMove(), first);
+        for (int i = 0; i < first.size(); i++) {
+            int out = first.get(i);
+            if (!isShuttleMove(board, out)) {
+                continue;
+            }
+            board.makeMove(out);
+            second.clear();
+            board.generateLegalMoves(board.getSideToMove(), second);
+            for (int j = 0; j < second.size(); j++) {
+                int reply = second.get(j);
+                if (isShuttleMove(board, reply) && isBackAndForthLegal(board, out, reply)) {
+                    setShuttleMove(0, Move.getFrom(out), Move.getTo(out));
+                    setShuttleMove(1, Move.getFrom(reply), Move.getTo(reply));
+                    setShuttleMove(2, Move.getTo(out), Move.getFrom(out));
+                    setShuttleMove(3, Move.getTo(reply), Move.getFrom(reply));
+                    return;
+                }
+            }
+            board.unmakeMove();
+        }
+        throw new IllegalStateException("No shuttle moves in position " + position);
+    }
+
+    @Setup(Level.Iteration)
+    public void newGame() {
+        controller = new GameController(new BitBoard(BenchmarkPositions.fen(position)));
+        next = 0;
+    }
+
+    @Benchmark
+    public boolean processMove() {
+        int index = next;
+        next = (index + 1) & 3;
+        return controller.processMove(from[index], to[index]);
+    }
+
+    private void setShuttleMove(int index, int fromSquare, int toSquare) {
+        from[index] = Position.of(fromSquare);
+        to[index] = Position.of(toSquare);
+    }
+
+    /**
+     * Checks if a move can be taken back by moving the same piece back: a quiet move of a piece
+     * other than a pawn, and not a king move, which would give up castling rights.
+     */
+    private static boolean isShuttleMove(AbstractBoard board, int move) {
+        PieceType type = board.getPieceAt(Move.getFrom(move)).getPieceType();
+        return type != PieceType.PAWN && type != PieceType.KING
+                && !Move.hasFlag(move, Move.FLAG_CAPTURE) && !Move.hasFlag(move, Move.FLAG_CASTLING);
+    }
+
+    /**
+     * Checks if, after out and reply, both pieces can move back, in that order.
+     * Leaves the board as it was.
+     */
+    private static boolean isBackAndForthLegal(AbstractBoard board, int out, int reply) {
+        board.makeMove(reply);
+        boolean legal = false;
+        int back = findMove(board, Move.getTo(out), Move.getFrom(out));
+        if (back != Move.NONE) {
+            board.makeMove(back);
+            legal = findMove(board, Move.getTo(reply), Move.getFrom(reply)) != Move.NONE;
+            board.unmakeMove();
+        }
+        board.unmakeMove();
+        return legal;
+    }
+
+    private static int findMove(AbstractBoard board, int fromSquare, int toSquare) {
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(board.getSideToMove(), moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (Move.getFrom(moves.get(i)) == fromSquare && Move.getTo(moves.get(i)) == toSquare) {
+                return moves.get(i);
+            }
+        }
+        return Move.NONE;
+    }
+}
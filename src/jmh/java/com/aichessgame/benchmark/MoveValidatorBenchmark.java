@@ -0,0 +1,80 @@
+package com.aichessgame.benchmark;
+
+import com.aichessgame.controller.MoveValidator;
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.BitBoard;
+import com.aichessgame.model.Move;
+import com.aichessgame.model.MoveList;
+import com.aichessgame.model.Piece;
+import com.aichessgame.utils.Color;
+import com.aichessgame.utils.Position;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MoveValidator.isMoveValid and isCheckmate on the side to move.
+ *
+ * The validator answers from its LegalMoveCache, which only generates the legal moves again
+ * when the board changes. With cached = true every call asks about the same board, as the
+ * game does within one turn. With cached = false calls alternate between two copies of the
+ * position, so each call regenerates the legal moves, as the first question of a turn does.
+ * isCheckmate only asks for the legal moves when the side to move is in check, so the check
+ * position is the one where its cache matters.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MoveValidatorBenchmark {
+    @Param({"opening", "middlegame", "endgame", "check"})
+    public String position;
+
+    @Param({"true", "false"})
+    public boolean cached;
+
+    private final MoveValidator validator = new MoveValidator();
+    private final AbstractBoard[] boards = new AbstractBoard[2];
+    private final Piece[] pieces = new Piece[2]; // The piece making the legal move, on each board
+    private Position destination;                // Where it moves to
+    private Color sideToMove;
+    private int call;                            // Counts calls to pick the board
+
+    @Setup
+    public void setUp() {
+        boards[0] = new BitBoard(BenchmarkPositions.fen(position));
+        boards[1] = cached ? boards[0] : boards[0].copy();
+        sideToMove = boards[0].getSideToMove();
+
+        // Validate the last move the generator produces
+        MoveList moves = new MoveList();
+        boards[0].generateLegalMoves(sideToMove, moves);
+        int move = moves.get(moves.size() - 1);
+        pieces[0] = boards[0].getPieceAt(Move.getFrom(move));
+        pieces[1] = boards[1].getPieceAt(Move.getFrom(move));
+        destination = Position.of(Move.getTo(move));
+    }
+
+    @Benchmark
+    public boolean isMoveValid() {
+        int index = call++ & 1;
+        return validator.isMoveValid(pieces[index], destination, boards[index]);
+    }
+
+    @Benchmark
+    public boolean isCheckmate() {
+        return validator.isCheckmate(sideToMove, boards[call++ & 1]);
+    }
+}
@@ -0,0 +1,66 @@
+package com.aichessgame.benchmark;
+
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.Piece;
+import com.aichessgame.model.PieceType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Piece.getPossibleMoves, the pseudo-legal move list the view and the older rule checks use.
+ * One operation generates the moves of every piece of the chosen type, of both colors, so
+ * the score of a type the position lacks (no queens in the endgame) only shows the loop.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class PieceMovesBenchmark {
+    @Param({"opening", "middlegame", "endgame", "check"})
+    public String position;
+
+    @Param({"PAWN", "KNIGHT", "BISHOP", "ROOK", "QUEEN", "KING"})
+    public PieceType pieceType;
+
+    @Param({"BitBoard", "Board"})
+    public String implementation;
+
+    private AbstractBoard board;
+    private Piece[] pieces; // The pieces of the chosen type
+
+    @Setup
+    public void setUp() {
+        board = BenchmarkPositions.board(position, implementation);
+        List<Piece> found = new ArrayList<>();
+        for (int square = 0; square < 64; square++) {
+            Piece piece = board.getPieceAt(square);
+            if (piece != null && piece.getPieceType() == pieceType) {
+                found.add(piece);
+            }
+        }
+        pieces = found.toArray(new Piece[0]);
+    }
+
+    @Benchmark
+    public void getPossibleMoves(Blackhole blackhole) {
+        for (Piece piece : pieces) {
+            blackhole.consume(piece.getPossibleMoves(board));
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.aichessgame.book;
+
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.BitBoard;
+import com.aichessgame.model.San;
+import com.aichessgame.pgn.PgnGame;
+import com.aichessgame.pgn.PgnReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds Polyglot opening books from PGN game collections, offline.
+ * Every position of the first plies of every game is recorded with the move played in it.
+ * A move scores 2 when the side that played it went on to win, 1 for a draw or an unknown
+ * result and 0 for a loss; a move's book weight is the sum of its scores.
+ *
+ * Usage: BookBuilder output.bin games.pgn... [--plies N] [--min-weight N]
+ */
+public class BookBuilder {
+    private static final int DEFAULT_MAX_PLIES = 24;
+    private static final int MAX_WEIGHT = 0xFFFF;
+
+    private final PolyglotKeys keys;
+    private final int maxPlies;
+    private final Map<Long, Map<Integer, Integer>> weights = new HashMap<>(); // Polyglot key -> Polyglot move -> weight
+    private int gameCount;
+    private int skippedGameCount;
+
+    /**
+     * Constructor for the BookBuilder class.
+     *
+     * @param keys     The keys to build the book with.
+     * @param maxPlies The number of plies of each game to record.
+     */
+    public BookBuilder(PolyglotKeys keys, int maxPlies) {
+        if (maxPlies <= 0) {
+            throw new IllegalArgumentException("Ply count must be positive: " + maxPlies);
+        }
+        this.keys = keys;
+        this.maxPlies = maxPlies;
+    }
+
+    /**
+     * Records the games of a PGN file. Comments, variations and annotations are skipped;
+     * a game with a move that cannot be played is recorded up to that move, and games that
+     * do not start from the standard position are left out.
+     *
+     * @param path The PGN file.
+     * @throws IOException If the file cannot be read.
+     */
+    public void addPgn(Path path) throws IOException {
+        try (PgnReader reader = new PgnReader(path)) {
+            while (reader.hasNext()) {
+                PgnGame game;
+                try {
+                    game = reader.next();
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                if (!game.getStartFen().equals(PgnGame.START_FEN)) {
+                    continue;
+                }
+                addMoves(game.getMoves(), game.getResult());
+                if (game.getError() != null && game.getMoveCount() < maxPlies) {
+                    skippedGameCount++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Records one game.
+     *
+     * @param sanMoves The moves of the game in SAN.
+     * @param result   The result: "1-0", "0-1", "1/2-1/2" or "*".
+     */
+    public void addGame(List<String> sanMoves, String result) {
+        AbstractBoard board = new BitBoard();
+        int plies = Math.min(sanMoves.size(), maxPlies);
+        int[] moves = new int[plies];
+        int count = 0;
+        for (; count < plies; count++) {
+            try {
+                moves[count] = San.parse(board, sanMoves.get(count));
+            } catch (IllegalArgumentException e) {
+                skippedGameCount++;
+                break;
+            }
+            board.makeMove(moves[count]);
+        }
+        addMoves(Arrays.copyOf(moves, count), result);
+    }
+
+    /**
+     * Records the first plies of a game played from the standard starting position.
+     *
+     * @param moves  The packed moves of the game.
+     * @param result The result: "1-0", "0-1", "1/2-1/2" or "*".
+     */
+    private void addMoves(int[] moves, String result) {
+        AbstractBoard board = new BitBoard();
+        int plies = Math.min(moves.length, maxPlies);
+        for (int ply = 0; ply < plies; ply++) {
+            boolean whiteMoved = (ply & 1) == 0;
+            int score = result.equals("1-0") ? (whiteMoved ? 2 : 0)
+                    : result.equals("0-1") ? (whiteMoved ? 0 : 2) : 1;
+            weights.computeIfAbsent(keys.computeKey(board), key -> new HashMap<>())
+                    .merge(OpeningBook.toPolyglotMove(moves[ply]), score, Integer::sum);
+            board.makeMove(moves[ply]);
+        }
+        gameCount++;
+    }
+
+    /**
+     * Writes the book, sorted by key and, within a position, by descending weight.
+     * Weights of a position are scaled down together if the largest does not fit in 16 bits.
+     *
+     * @param path      The .bin file to create or replace.
+     * @param minWeight Moves with a lower weight are left out.
+     * @return The number of entries written.
+     * @throws IOException If the file cannot be written.
+     */
+    public int write(Path path, int minWeight) throws IOException {
+        List<long[]> entries = new ArrayList<>(); // {key, move, weight}
+        for (Map.Entry<Long, Map<Integer, Integer>> position : weights.entrySet()) {
+            int maxWeight = 0;
+            for (int weight : position.getValue().values()) {
+                maxWeight = Math.max(maxWeight, weight);
+            }
+            for (Map.Entry<Integer, Integer> move : position.getValue().entrySet()) {
+                int weight = move.getValue();
+                if (weight < minWeight || weight == 0) {
+                    continue;
+                }
+                if (maxWeight > MAX_WEIGHT) {
+                    weight = Math.max(1, (int) ((long) weight * MAX_WEIGHT / maxWeight));
+                }
+                entries.add(new long[]{position.getKey(), move.getKey(), weight});
+            }
+        }
+        entries.sort((a, b) -> a[0] != b[0] ? Long.compareUnsigned(a[0], b[0]) : Long.compare(b[2], a[2]));
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(4096 * OpeningBook.ENTRY_BYTES).order(ByteOrder.BIG_ENDIAN);
+            for (long[] entry : entries) {
+                if (!buffer.hasRemaining()) {
+                    flush(channel, buffer);
+                }
+                buffer.putLong(entry[0]).putShort((short) entry[1]).putShort((short) entry[2]).putInt(0);
+            }
+            flush(channel, buffer);
+        }
+        return entries.size();
+    }
+
+    /**
+     * Gets the number of games recorded so far.
+     *
+     * @return The game count.
+     */
+    public int getGameCount() {
+        return gameCount;
+    }
+
+    /**
+     * Gets the number of games recorded only in part because a move could not be played.
+     *
+     * @return The skipped game count.
+     */
+    public int getSkippedGameCount() {
+        return skippedGameCount;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<Path> inputs = new ArrayList<>();
+        Path output = null;
+        int plies = DEFAULT_MAX_PLIES;
+        int minWeight = 1;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--plies") && i + 1 < args.length) {
+                plies = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--min-weight") && i + 1 < args.length) {
+                minWeight = Integer.parseInt(args[++i]);
+            } else if (output == null) {
+                output = Paths.get(args[i]);
+            } else {
+                inputs.add(Paths.get(args[i]));
+            }
+        }
+        if (output == null || inputs.isEmpty()) {
+            System.out.println("Usage: BookBuilder output.bin games.pgn... [--plies N] [--min-weight N]");
+            return;
+        }
+
+        BookBuilder builder = new BookBuilder(PolyglotKeys.defaults(), plies);
+        for (Path input : inputs) {
+            builder.addPgn(input);
+        }
+        int entries = builder.write(output, minWeight);
+        System.out.println("Games: " + builder.getGameCount() + " (" + builder.getSkippedGameCount()
+                + " with unplayable moves), entries written: " + entries);
+    }
+}
@@ -0,0 +1,45 @@
+package com.aichessgame.book;
+
+import com.aichessgame.model.Move;
+
+/**
+ * A move found in an opening book, with the weight the book gives it.
+ */
+public class BookMove {
+    private final int move;   // The packed move
+    private final int weight; // Relative frequency; higher is played more often
+
+    /**
+     * Constructor for the BookMove class.
+     *
+     * @param move   The packed move.
+     * @param weight The book weight, 0 to 65535.
+     */
+    public BookMove(int move, int weight) {
+        this.move = move;
+        this.weight = weight;
+    }
+
+    /**
+     * Gets the move.
+     *
+     * @return The packed move.
+     */
+    public int getMove() {
+        return move;
+    }
+
+    /**
+     * Gets the weight of the move.
+     *
+     * @return The book weight.
+     */
+    public int getWeight() {
+        return weight;
+    }
+
+    @Override
+    public String toString() {
+        return Move.toString(move) + " (" + weight + ")";
+    }
+}
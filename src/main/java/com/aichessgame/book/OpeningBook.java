@@ -0,0 +1,194 @@
+package com.aichessgame.book;
+
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.Move;
+import com.aichessgame.model.MoveList;
+import com.aichessgame.model.PieceType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * An opening book in Polyglot .bin format, read through a read-only memory mapping so the
+ * file is never copied onto the heap; the operating system pages in what lookups touch.
+ * The file is a sorted array of 16-byte big-endian entries:
+ *   key (8 bytes) | move (2) | weight (2) | learn (4),
+ * so the entries of a position are found by binary search on its Polyglot key.
+ * Lookups only read the mapping, so one book can be shared by any number of threads.
+ */
+public class OpeningBook implements Closeable {
+    static final int ENTRY_BYTES = 16;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer entries;
+    private final int entryCount;
+    private final PolyglotKeys keys;
+
+    /**
+     * Opens a book keyed with the default Polyglot keys.
+     *
+     * @param path The .bin file.
+     * @throws IOException If the file cannot be opened or mapped, or the key table cannot be read.
+     */
+    public OpeningBook(Path path) throws IOException {
+        this(path, PolyglotKeys.defaults());
+    }
+
+    /**
+     * Opens a book.
+     *
+     * @param path The .bin file.
+     * @param keys The keys the book was built with.
+     * @throws IOException If the file cannot be opened or mapped.
+     */
+    public OpeningBook(Path path, PolyglotKeys keys) throws IOException {
+        this.keys = keys;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size % ENTRY_BYTES != 0) {
+                throw new IOException("Not a Polyglot book, size is not a multiple of " + ENTRY_BYTES + ": " + path);
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Book too large to map: " + path);
+            }
+            entries = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            entries.order(ByteOrder.BIG_ENDIAN);
+            entryCount = (int) (size / ENTRY_BYTES);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the number of entries in the book.
+     *
+     * @return The entry count.
+     */
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Finds the book moves of a position. Entries that are not legal in the position,
+     * which can only come from key collisions or broken books, are left out.
+     *
+     * @param board The position.
+     * @return The moves with their weights, in book order; empty if the position is not in the book.
+     */
+    public List<BookMove> getMoves(AbstractBoard board) {
+        long key = keys.computeKey(board);
+        List<BookMove> moves = new ArrayList<>();
+        MoveList legalMoves = null;
+        for (int i = findFirst(key); i < entryCount && entries.getLong(i * ENTRY_BYTES) == key; i++) {
+            if (legalMoves == null) {
+                legalMoves = new MoveList();
+                board.generateLegalMoves(board.getSideToMove(), legalMoves);
+            }
+            int move = fromPolyglotMove(entries.getShort(i * ENTRY_BYTES + 8), legalMoves);
+            int weight = Short.toUnsignedInt(entries.getShort(i * ENTRY_BYTES + 10));
+            if (move != Move.NONE) {
+                moves.add(new BookMove(move, weight));
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Picks a book move at random, each move with a probability proportional to its weight.
+     *
+     * @param board  The position.
+     * @param random The source of randomness.
+     * @return The packed move, or Move.NONE if the position is not in the book or all its weights are 0.
+     */
+    public int pickMove(AbstractBoard board, Random random) {
+        List<BookMove> moves = getMoves(board);
+        int total = 0;
+        for (BookMove move : moves) {
+            total += move.getWeight();
+        }
+        if (total == 0) {
+            return Move.NONE;
+        }
+        int choice = random.nextInt(total);
+        for (BookMove move : moves) {
+            choice -= move.getWeight();
+            if (choice < 0) {
+                return move.getMove();
+            }
+        }
+        return Move.NONE;
+    }
+
+    /**
+     * Closes the file. The mapping itself is released when it is garbage collected.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Finds the index of the first entry whose key is not below a key, comparing keys as unsigned numbers.
+     */
+    private int findFirst(long key) {
+        int low = 0;
+        int high = entryCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(entries.getLong(middle * ENTRY_BYTES), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Encodes a move the Polyglot way:
+     *   to column (bits 0-2) | to row (3-5) | from column (6-8) | from row (9-11) | promotion (12-14, 1 = knight .. 4 = queen).
+     * Castling is written as the king capturing its own rook.
+     *
+     * @param move The packed move.
+     * @return The Polyglot move.
+     */
+    static int toPolyglotMove(int move) {
+        int from = Move.getFrom(move);
+        int to = Move.getTo(move);
+        if (Move.hasFlag(move, Move.FLAG_CASTLING)) {
+            to = (to & ~7) | (to > from ? 7 : 0);
+        }
+        int polyglot = (to & 7) | (to >>> 3) << 3 | (from & 7) << 6 | (from >>> 3) << 9;
+        PieceType promotion = Move.getPromotion(move);
+        if (promotion != null) {
+            polyglot |= promotion.ordinal() << 12; // Knight is ordinal 1 through queen 4, as in Polyglot
+        }
+        return polyglot;
+    }
+
+    /**
+     * Finds the legal move a Polyglot move stands for.
+     *
+     * @return The packed move, or Move.NONE if none of the legal moves matches.
+     */
+    private static int fromPolyglotMove(short polyglot, MoveList legalMoves) {
+        int bits = Short.toUnsignedInt(polyglot);
+        for (int i = 0; i < legalMoves.size(); i++) {
+            int move = legalMoves.get(i);
+            if (toPolyglotMove(move) == bits) {
+                return move;
+            }
+        }
+        return Move.NONE;
+    }
+}
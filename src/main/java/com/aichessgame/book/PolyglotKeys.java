@@ -0,0 +1,160 @@
+package com.aichessgame.book;
+
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.Piece;
+import com.aichessgame.model.PieceType;
+import com.aichessgame.utils.Color;
+import com.aichessgame.utils.Position;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The 781 random numbers Polyglot opening books are keyed with, and the Polyglot way of combining them
+ * into a position key. They are separate from the engine's Zobrist keys, since a book file fixes both the
+ * numbers and the rules: 768 piece keys indexed by 64 * (2 * piece type + 1 for white) + square, four
+ * castling keys from 768, eight en passant column keys from 772, and a white-to-move key at 780.
+ *
+ * The default table is the Random64 array published with Polyglot, which every Polyglot book is keyed with.
+ * It is read from the polyglot-random64.txt resource next to this class, in the format load(Path) accepts;
+ * load(Path) reads another table for books keyed differently.
+ */
+public final class PolyglotKeys {
+    public static final int KEY_COUNT = 781;
+    private static final int CASTLING_OFFSET = 768;
+    private static final int EN_PASSANT_OFFSET = 772;
+    private static final int TURN_OFFSET = 780;
+    private static final String DEFAULT_RESOURCE = "polyglot-random64.txt";
+
+    private static volatile PolyglotKeys defaultKeys; // Read from the resource on first use
+
+    private final long[] random;
+
+    /**
+     * Constructor for the PolyglotKeys class.
+     *
+     * @param random The 781 random numbers in Polyglot order.
+     */
+    public PolyglotKeys(long[] random) {
+        if (random.length != KEY_COUNT) {
+            throw new IllegalArgumentException("Expected " + KEY_COUNT + " keys, got " + random.length);
+        }
+        this.random = random.clone();
+    }
+
+    /**
+     * Gets Polyglot's published key table, read from the bundled resource on first use.
+     *
+     * @return The default keys.
+     * @throws IOException If the resource is missing or does not hold 781 hexadecimal numbers.
+     */
+    public static PolyglotKeys defaults() throws IOException {
+        PolyglotKeys keys = defaultKeys;
+        if (keys == null) {
+            try (InputStream input = PolyglotKeys.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+                if (input == null) {
+                    throw new IOException("Polyglot key table not found on the class path: " + DEFAULT_RESOURCE);
+                }
+                keys = parse(new String(input.readAllBytes(), StandardCharsets.US_ASCII));
+            }
+            defaultKeys = keys;
+        }
+        return keys;
+    }
+
+    /**
+     * Reads a key table from a text file of 781 hexadecimal numbers, as found in Polyglot's source.
+     * Numbers may be separated by whitespace or commas and may carry a "0x" prefix and "U"/"L" suffixes.
+     *
+     * @param path The text file.
+     * @return The keys.
+     * @throws IOException If the file cannot be read or does not hold 781 hexadecimal numbers.
+     */
+    public static PolyglotKeys load(Path path) throws IOException {
+        return parse(Files.readString(path));
+    }
+
+    /**
+     * Reads a key table from text in the format load(Path) accepts.
+     */
+    private static PolyglotKeys parse(String text) throws IOException {
+        List<Long> values = new ArrayList<>();
+        for (String token : text.split("[\\s,]+")) {
+            String hex = token.replaceFirst("^0[xX]", "").replaceFirst("[uUlL]+$", "");
+            if (!hex.isEmpty()) {
+                try {
+                    values.add(Long.parseUnsignedLong(hex, 16));
+                } catch (NumberFormatException e) {
+                    throw new IOException("Not a hexadecimal key: " + token);
+                }
+            }
+        }
+        if (values.size() != KEY_COUNT) {
+            throw new IOException("Expected " + KEY_COUNT + " keys, got " + values.size());
+        }
+        long[] random = new long[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            random[i] = values.get(i);
+        }
+        return new PolyglotKeys(random);
+    }
+
+    /**
+     * Computes the Polyglot key of a position.
+     * As in Polyglot, the en passant column only counts if a pawn of the side to move stands next to the pawn
+     * that just moved two squares.
+     *
+     * @param board The position.
+     * @return The 64-bit book key.
+     */
+    public long computeKey(AbstractBoard board) {
+        long key = 0;
+        for (int square = 0; square < 64; square++) {
+            Piece piece = board.getPieceAt(square);
+            if (piece != null) {
+                int kind = 2 * piece.getPieceType().ordinal() + (piece.getColor() == Color.WHITE ? 1 : 0);
+                key ^= random[64 * kind + square];
+            }
+        }
+
+        // Polyglot orders the castling keys white kingside, white queenside, black kingside, black queenside
+        int castlingRights = board.getCastlingRights();
+        for (int i = 0; i < 4; i++) {
+            if ((castlingRights & (1 << i)) != 0) {
+                key ^= random[CASTLING_OFFSET + i];
+            }
+        }
+
+        Position target = board.getEnPassantTarget();
+        if (target != null && canCaptureEnPassant(board, target)) {
+            key ^= random[EN_PASSANT_OFFSET + target.getColumn()];
+        }
+
+        if (board.getSideToMove() == Color.WHITE) {
+            key ^= random[TURN_OFFSET];
+        }
+        return key;
+    }
+
+    /**
+     * Checks if a pawn of the side to move stands beside the pawn that passed over the en passant target.
+     */
+    private static boolean canCaptureEnPassant(AbstractBoard board, Position target) {
+        Color color = board.getSideToMove();
+        int row = target.getRow() + (color == Color.WHITE ? -1 : 1);
+        for (int column = target.getColumn() - 1; column <= target.getColumn() + 1; column += 2) {
+            if (Position.isValidCoordinate(column)) {
+                Piece piece = board.getPieceAt(row * 8 + column);
+                if (piece != null && piece.getColor() == color && piece.getPieceType() == PieceType.PAWN) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
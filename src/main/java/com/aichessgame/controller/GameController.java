@@ -1,101 +1,306 @@
 package com.aichessgame.controller;
+import com.aichessgame.book.OpeningBook;
+import com.aichessgame.engine.Engine;
+import com.aichessgame.engine.SearchLimits;
+import com.aichessgame.journal.GameJournal;
+import com.aichessgame.journal.GameJournalWriter;
 import com.aichessgame.model.*;
+import com.aichessgame.tablebase.Tablebase;
 import com.aichessgame.utils.*;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
 
 
 /**
  * Controller class that manages game flow and rules.
  */
 public class GameController {
-    private Board board;                 // The game board
+    private AbstractBoard board;         // The game board
     private Player whitePlayer;          // White player
     private Player blackPlayer;          // Black player
-    private Player currentPlayer;        // The player whose turn it is
+    private volatile Player currentPlayer; // The player whose turn it is
     private GameState gameState;         // The current state of the game
     private MoveValidator moveValidator; // Validates moves according to game rules
+    private final LegalMoveCache legalMoves = new LegalMoveCache(); // The legal moves of the current turn
+    private Engine engine;                              // Chooses the moves of AI players, created on the first one
+    private SearchLimits aiLimits = SearchLimits.time(1000); // How long the AI may think per move
+    private OpeningBook openingBook;                    // Consulted before searching, or null
+    private final Random bookRandom = new Random();     // Picks among the book moves by weight
+    private Tablebase tablebase;                        // Scores and adjudicates covered endgames, or null
+    private final MoveList playedMoves = new MoveList(); // Every move of the game so far
+    private GameJournalWriter journal;                  // Records the game when it ends, or null
+    private String startFen;                            // The position the game started from
+    private Executor aiExecutor = Runnable::run;        // Runs the AI's moves, on the calling thread by default
 
     /**
      * Constructor for the GameController class.
      */
     public GameController() {
-        initializeGame();
+        this(new BitBoard());
+    }
+
+    /**
+     * Constructor for the GameController class using a specific board implementation.
+     *
+     * @param board The board to play on, set up in the starting position or any position loaded from a FEN.
+     */
+    public GameController(AbstractBoard board) {
+        this(board, true, true);
+    }
+
+    /**
+     * Constructor for the GameController class with human or AI players.
+     * If the side to move is played by the AI, its first move is made right away.
+     *
+     * @param board        The board to play on, set up in the starting position or any position loaded from a FEN.
+     * @param whiteIsHuman True if white is played by a human, false for the AI.
+     * @param blackIsHuman True if black is played by a human, false for the AI.
+     */
+    public GameController(AbstractBoard board, boolean whiteIsHuman, boolean blackIsHuman) {
+        initializeGame(board, whiteIsHuman, blackIsHuman);
     }
 
     /**
      * Initializes the game by setting up the board and players.
+     *
+     * @param board        The board to play on.
+     * @param whiteIsHuman True if white is played by a human.
+     * @param blackIsHuman True if black is played by a human.
      */
-    private void initializeGame() {
-        board = new Board();
-        whitePlayer = new Player(Color.WHITE, true);
-        blackPlayer = new Player(Color.BLACK, true); // Change to false if AI
-        currentPlayer = whitePlayer;
+    private void initializeGame(AbstractBoard board, boolean whiteIsHuman, boolean blackIsHuman) {
+        this.board = board;
+        whitePlayer = new Player(Color.WHITE, whiteIsHuman);
+        blackPlayer = new Player(Color.BLACK, blackIsHuman);
+        currentPlayer = board.getSideToMove() == Color.WHITE ? whitePlayer : blackPlayer;
         gameState = GameState.ONGOING;
-        moveValidator = new MoveValidator();
+        startFen = board.toFen();
+        moveValidator = new MoveValidator(legalMoves);
+        requestAiMove();
     }
 
     /**
-     * Processes a move from one position to another.
+     * Processes a human player's move from one position to another.
+     * If the AI plays the other side, its reply is requested from the AI executor.
      *
      * @param fromPosition The starting position.
      * @param toPosition   The ending position.
      * @return True if the move was successful, false otherwise.
      */
     public boolean processMove(Position fromPosition, Position toPosition) {
+        if (!currentPlayer.isHuman()) {
+            // The AI moves for this player
+            ChessLogger.getInstance().log(ChessLogger.EventType.AI_TURN, currentPlayer.getColor(),
+                    Move.encode(fromPosition.index(), toPosition.index(), 0));
+            return false;
+        }
+
         Piece piece = board.getPieceAt(fromPosition);
 
         if (piece == null) {
             // No piece at the starting position
-            ChessLogger.getInstance().logError("No piece at starting position: " + fromPosition);
+            ChessLogger.getInstance().log(ChessLogger.EventType.NO_PIECE, null,
+                    Move.encode(fromPosition.index(), fromPosition.index(), 0));
             return false;
         }
 
         if (piece.getColor() != currentPlayer.getColor()) {
             // The piece does not belong to the current player
-            ChessLogger.getInstance().logError("Attempted to move opponent's piece from: " + fromPosition);
+            ChessLogger.getInstance().log(ChessLogger.EventType.OPPONENT_PIECE, piece.getColor(),
+                    Move.encode(fromPosition.index(), fromPosition.index(), 0));
             return false;
         }
 
         if (moveValidator.isMoveValid(piece, toPosition, board)) {
             // Move is valid
+            playedMoves.add(legalMoves.findMove(board, piece.getColor(), fromPosition.index(), toPosition.index()));
             board.movePiece(fromPosition, toPosition);
-            ChessLogger.getInstance().logMove(currentPlayer.getColor() + " moved from " + fromPosition + " to " + toPosition);
+            ChessLogger.getInstance().log(ChessLogger.EventType.MOVE, currentPlayer.getColor(),
+                    Move.encode(fromPosition.index(), toPosition.index(), 0));
 
             // Update game state (e.g., check for check, checkmate)
             updateGameState();
 
             // Switch to the next player
             switchPlayer();
+
+            // Let the AI answer if it plays the other side
+            requestAiMove();
             return true;
         } else {
             // Move is invalid
-            ChessLogger.getInstance().logError("Invalid move from " + fromPosition + " to " + toPosition);
+            ChessLogger.getInstance().log(ChessLogger.EventType.INVALID_MOVE, currentPlayer.getColor(),
+                    Move.encode(fromPosition.index(), toPosition.index(), 0));
+            return false;
+        }
+    }
+
+    /**
+     * Makes the AI's move if it is an AI player's turn and the game is not over.
+     * Only one move is made, so a game between two AI players advances one move per call.
+     * The controller calls this through the AI executor when a human move or the start of the game
+     * hands the turn to the AI; the search runs within the AI limits.
+     *
+     * @return True if the AI made a move, false otherwise.
+     */
+    public boolean playAiMove() {
+        if (currentPlayer.isHuman() || gameState == GameState.CHECKMATE || gameState == GameState.STALEMATE
+                || gameState == GameState.DRAW) {
+            return false;
+        }
+
+        // Known opening positions are played from the book without searching
+        int move = openingBook != null ? openingBook.pickMove(board, bookRandom) : Move.NONE;
+        boolean fromBook = move != Move.NONE;
+        if (!fromBook) {
+            if (engine == null) {
+                engine = new Engine();
+                engine.setTablebase(tablebase);
+            }
+            move = engine.findBestMove(board, currentPlayer.getColor(), aiLimits);
+        }
+        if (move == Move.NONE) {
             return false;
         }
+
+        board.makeMove(move);
+        playedMoves.add(move);
+        ChessLogger.getInstance().log(fromBook ? ChessLogger.EventType.BOOK_MOVE : ChessLogger.EventType.AI_MOVE,
+                currentPlayer.getColor(), move);
+
+        updateGameState();
+        switchPlayer();
+        return true;
+    }
+
+    /**
+     * Sets what runs the AI's moves. By default they run on the thread that made the human move;
+     * an executor with its own thread keeps the search off a UI thread. Human moves are rejected
+     * while the AI is to move, so the board only changes on the executor's thread meanwhile.
+     *
+     * @param aiExecutor Runs each requested AI move.
+     */
+    public void setAiExecutor(Executor aiExecutor) {
+        this.aiExecutor = aiExecutor;
+    }
+
+    /**
+     * Sets how long the AI may search for each move.
+     *
+     * @param aiLimits The depth, node and time limits of the AI's search.
+     */
+    public void setAiLimits(SearchLimits aiLimits) {
+        this.aiLimits = aiLimits;
+    }
+
+    /**
+     * Sets the opening book the AI plays from while the position is in it.
+     *
+     * @param openingBook The book, or null to always search.
+     */
+    public void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    /**
+     * Sets the endgame tables the AI searches with and games are adjudicated by:
+     * once the tables show neither side can win, the game ends in a draw.
+     *
+     * @param tablebase The tablebase, or null for none.
+     */
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+        if (engine != null) {
+            engine.setTablebase(tablebase);
+        }
+    }
+
+    /**
+     * Sets the journal finished games are recorded in. The controller does not close it.
+     *
+     * @param journal The journal, or null to record nothing.
+     */
+    public void setGameJournal(GameJournalWriter journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Gets the moves played so far.
+     *
+     * @return The packed moves in the order they were played.
+     */
+    public int[] getMoveHistory() {
+        int[] moves = new int[playedMoves.size()];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = playedMoves.get(i);
+        }
+        return moves;
     }
 
     /**
      * Updates the game state after a move.
      */
     private void updateGameState() {
-        if (board.isKingInCheck(currentPlayer.getColor().opposite())) {
-            if (moveValidator.isCheckmate(currentPlayer.getColor().opposite(), board)) {
+        Color opponent = currentPlayer.getColor().opposite();
+
+        // The opponent's legal moves are generated once here and reused to validate their move
+        boolean hasMoves = legalMoves.hasLegalMoves(board, opponent);
+
+        if (board.isKingInCheck(opponent)) {
+            if (!hasMoves) {
                 gameState = GameState.CHECKMATE;
-                ChessLogger.getInstance().logEvent("Checkmate! " + currentPlayer.getColor() + " wins.");
+                ChessLogger.getInstance().log(ChessLogger.EventType.CHECKMATE, currentPlayer.getColor(), Move.NONE);
             } else {
                 gameState = GameState.CHECK;
-                ChessLogger.getInstance().logEvent(currentPlayer.getColor().opposite() + " is in check.");
+                ChessLogger.getInstance().log(ChessLogger.EventType.CHECK, opponent, Move.NONE);
             }
-        } else if (moveValidator.isStalemate(currentPlayer.getColor().opposite(), board)) {
+        } else if (!hasMoves) {
             gameState = GameState.STALEMATE;
-            ChessLogger.getInstance().logEvent("Stalemate! The game is a draw.");
+            ChessLogger.getInstance().log(ChessLogger.EventType.STALEMATE, null, Move.NONE);
         } else {
             gameState = GameState.ONGOING;
         }
+
+        if (gameState != GameState.CHECKMATE && gameState != GameState.STALEMATE
+                && moveValidator.isTablebaseDraw(board, tablebase)) {
+            gameState = GameState.DRAW;
+            ChessLogger.getInstance().log(ChessLogger.EventType.TABLEBASE_DRAW, null, Move.NONE);
+        }
+
+        if (journal != null && (gameState == GameState.CHECKMATE || gameState == GameState.STALEMATE
+                || gameState == GameState.DRAW)) {
+            recordGame();
+        }
+    }
+
+    /**
+     * Appends the finished game to the journal.
+     */
+    private void recordGame() {
+        int result = gameState != GameState.CHECKMATE ? GameJournal.RESULT_DRAW
+                : currentPlayer.getColor() == Color.WHITE ? GameJournal.RESULT_WHITE_WINS : GameJournal.RESULT_BLACK_WINS;
+        try {
+            journal.append(startFen, getMoveHistory(), result);
+        } catch (IOException e) {
+            ChessLogger.getInstance().logError("Could not record the game: " + e.getMessage());
+        }
     }
 
     /**
      * Switches the current player to the next player.
      */
+    /**
+     * Hands the turn to the AI executor if an AI player is to move and the game is not over.
+     */
+    private void requestAiMove() {
+        if (!currentPlayer.isHuman() && gameState != GameState.CHECKMATE && gameState != GameState.STALEMATE
+                && gameState != GameState.DRAW) {
+            aiExecutor.execute(this::playAiMove);
+        }
+    }
+
     private void switchPlayer() {
         currentPlayer = (currentPlayer == whitePlayer) ? blackPlayer : whitePlayer;
     }
@@ -105,10 +310,25 @@ public class GameController {
      *
      * @return The current board.
      */
-    public Board getBoard() {
+    public AbstractBoard getBoard() {
         return board;
     }
 
+    /**
+     * Gets the squares the current player's piece on a position can legally move to, for highlighting.
+     *
+     * @param fromPosition The position of the piece.
+     * @return The destination positions; empty if there is no piece of the current player there or it cannot move.
+     */
+    public List<Position> getLegalDestinations(Position fromPosition) {
+        List<Position> destinations = new ArrayList<>();
+        long targets = legalMoves.getTargets(board, currentPlayer.getColor(), fromPosition.index());
+        for (; targets != 0; targets &= targets - 1) {
+            destinations.add(Position.of(Long.numberOfTrailingZeros(targets)));
+        }
+        return destinations;
+    }
+
     /**
      * Gets the current player.
      *
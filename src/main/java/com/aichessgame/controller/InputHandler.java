@@ -2,12 +2,16 @@ package com.aichessgame.controller;
 import com.aichessgame.utils.Position;
 import javafx.scene.input.MouseEvent;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Class responsible for handling player input.
  */
 public class InputHandler {
 
     private Position selectedPosition; // The currently selected position
+    private List<Position> highlightedPositions = new ArrayList<>(); // Where the selected piece can move
     private GameController gameController;
 
     /**
@@ -28,26 +32,33 @@ public class InputHandler {
         // Determine the position clicked based on event coordinates
         Position clickedPosition = getPositionFromMouseEvent(event);
 
-        if (selectedPosition == null) {
-            // No piece selected yet, select the piece at the clicked position
+        if (selectedPosition == null || !highlightedPositions.contains(clickedPosition)) {
+            // Select the piece at the clicked position, or deselect if it is not the current player's
+            selectedPosition = null;
+            highlightedPositions = new ArrayList<>();
             if (gameController.getBoard().getPieceAt(clickedPosition) != null &&
                     gameController.getBoard().getPieceAt(clickedPosition).getColor() == gameController.getCurrentPlayer().getColor()) {
                 selectedPosition = clickedPosition;
+                // Read from the legal moves generated once for this turn
+                highlightedPositions = gameController.getLegalDestinations(clickedPosition);
             }
         } else {
-            // Attempt to move the selected piece to the clicked position
-            boolean moveSuccessful = gameController.processMove(selectedPosition, clickedPosition);
-            if (moveSuccessful) {
-                // Move was successful, reset selected position
-                selectedPosition = null;
-            } else {
-                // Move failed, keep the selected position
-                // Optionally, provide feedback to the player
-                selectedPosition = null; // Deselect after invalid move
-            }
+            // Move the selected piece; the destination is already known to be legal
+            gameController.processMove(selectedPosition, clickedPosition);
+            selectedPosition = null;
+            highlightedPositions = new ArrayList<>();
         }
     }
 
+    /**
+     * Gets the positions the selected piece can move to, for the view to highlight.
+     *
+     * @return The destination positions; empty if no piece is selected.
+     */
+    public List<Position> getHighlightedPositions() {
+        return highlightedPositions;
+    }
+
     /**
      * Converts mouse event coordinates to a board position.
      *
@@ -59,7 +70,7 @@ public class InputHandler {
         // This depends on your UI layout and scaling
         int column = (int) (event.getX() / tileSize);
         int row = 7 - (int) (event.getY() / tileSize); // Adjust for coordinate system
-        return new Position(row, column);
+        return Position.of(row, column);
     }
 
     // Define tileSize based on your board view dimensions
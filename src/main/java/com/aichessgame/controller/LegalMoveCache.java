@@ -0,0 +1,105 @@
+package com.aichessgame.controller;
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.Move;
+import com.aichessgame.model.MoveList;
+import com.aichessgame.model.PieceType;
+import com.aichessgame.utils.Color;
+
+import java.util.Arrays;
+
+/**
+ * The legal moves of one side in the current position, generated once per turn and shared
+ * by everything that asks about them during the turn: mate and stalemate detection after a
+ * move, validating the player's next move and highlighting where a selected piece can go.
+ * The moves are indexed by starting square as a bitboard of destinations, so checking one
+ * move is a bit test. The cache is refreshed when the board's Zobrist key, which changes
+ * with every move made or taken back, or the side asked about differs from the last request.
+ */
+public class LegalMoveCache {
+    private final MoveList moves = new MoveList();   // The legal moves of the cached position
+    private final long[] targets = new long[64];     // Destination squares indexed by starting square
+    private AbstractBoard board;                     // The board the moves were generated on, or null
+    private long key;                                // The board's Zobrist key when they were generated
+    private Color color;                             // The side they were generated for
+
+    /**
+     * Checks if a move is legal.
+     *
+     * @param board The current state of the board.
+     * @param color The side making the move.
+     * @param from  The starting square (row * 8 + column).
+     * @param to    The destination square.
+     * @return True if the move is legal, false otherwise.
+     */
+    public boolean isLegal(AbstractBoard board, Color color, int from, int to) {
+        refresh(board, color);
+        return (targets[from] & 1L << to) != 0;
+    }
+
+    /**
+     * Finds the legal move from one square to another, promoting to a queen if it is a promotion.
+     *
+     * @param board The current state of the board.
+     * @param color The side making the move.
+     * @param from  The starting square (row * 8 + column).
+     * @param to    The destination square.
+     * @return The packed move, or Move.NONE if it is not legal.
+     */
+    public int findMove(AbstractBoard board, Color color, int from, int to) {
+        if (!isLegal(board, color, from, to)) {
+            return Move.NONE;
+        }
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (Move.getFrom(move) == from && Move.getTo(move) == to
+                    && (!Move.isPromotion(move) || Move.getPromotion(move) == PieceType.QUEEN)) {
+                return move;
+            }
+        }
+        return Move.NONE;
+    }
+
+    /**
+     * Gets the squares a piece can legally move to.
+     *
+     * @param board The current state of the board.
+     * @param color The side to move.
+     * @param from  The square of the piece.
+     * @return A bitboard with one bit set per destination square; 0 if the piece cannot move.
+     */
+    public long getTargets(AbstractBoard board, Color color, int from) {
+        refresh(board, color);
+        return targets[from];
+    }
+
+    /**
+     * Checks if a side has any legal move.
+     *
+     * @param board The current state of the board.
+     * @param color The side to check.
+     * @return True if the side can move, false otherwise.
+     */
+    public boolean hasLegalMoves(AbstractBoard board, Color color) {
+        refresh(board, color);
+        return !moves.isEmpty();
+    }
+
+    /**
+     * Generates the moves again if the position or the side differs from the cached ones.
+     */
+    private void refresh(AbstractBoard board, Color color) {
+        if (board == this.board && board.getZobristKey() == key && color == this.color) {
+            return;
+        }
+        moves.clear();
+        board.generateLegalMoves(color, moves);
+        Arrays.fill(targets, 0L);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            targets[Move.getFrom(move)] |= 1L << Move.getTo(move);
+        }
+        this.board = board;
+        this.key = board.getZobristKey();
+        this.color = color;
+    }
+}
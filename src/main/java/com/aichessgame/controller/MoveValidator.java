@@ -1,54 +1,43 @@
 package com.aichessgame.controller;
-import com.aichessgame.model.Board;
+import com.aichessgame.model.AbstractBoard;
 import com.aichessgame.model.Piece;
+import com.aichessgame.tablebase.Tablebase;
 import com.aichessgame.utils.Color;
 import com.aichessgame.utils.Position;
-import java.util.List;
 
 /**
  * Class responsible for validating moves according to chess rules.
  */
 public class MoveValidator {
+    private final LegalMoveCache legalMoves; // The legal moves of the current turn
 
     /**
-     * Checks if a move is valid for a given piece.
-     *
-     * @param piece       The piece to move.
-     * @param toPosition  The destination position.
-     * @param board       The current state of the board.
-     * @return True if the move is valid, false otherwise.
+     * Constructor for the MoveValidator class with its own legal move cache.
      */
-    public boolean isMoveValid(Piece piece, Position toPosition, Board board) {
-        // Get all possible moves for the piece
-        List<Position> possibleMoves = piece.getPossibleMoves(board);
-
-        // Check if the destination position is among the possible moves
-        if (!possibleMoves.contains(toPosition)) {
-            return false;
-        }
-
-        // Simulate the move to check for checks
-        Board simulatedBoard = simulateMove(piece.getPosition(), toPosition, board);
-        if (simulatedBoard.isKingInCheck(piece.getColor())) {
-            // The move would leave the king in check
-            return false;
-        }
+    public MoveValidator() {
+        this(new LegalMoveCache());
+    }
 
-        return true;
+    /**
+     * Constructor for the MoveValidator class.
+     *
+     * @param legalMoves The legal move cache shared with the rest of the game.
+     */
+    public MoveValidator(LegalMoveCache legalMoves) {
+        this.legalMoves = legalMoves;
     }
 
     /**
-     * Simulates the move on a copy of the board to check for checks.
+     * Checks if a move is valid for a given piece.
      *
-     * @param fromPosition The starting position.
-     * @param toPosition   The destination position.
-     * @param board        The current state of the board.
-     * @return A new Board object representing the state after the move.
+     * @param piece       The piece to move.
+     * @param toPosition  The destination position.
+     * @param board       The current state of the board.
+     * @return True if the move is valid, false otherwise.
      */
-    private Board simulateMove(Position fromPosition, Position toPosition, Board board) {
-        Board simulatedBoard = new Board(board); // Implement a copy constructor in Board
-        simulatedBoard.movePiece(fromPosition, toPosition);
-        return simulatedBoard;
+    public boolean isMoveValid(Piece piece, Position toPosition, AbstractBoard board) {
+        // Look the move up among the legal moves of the piece's side, generated once per turn
+        return legalMoves.isLegal(board, piece.getColor(), piece.getSquare(), toPosition.index());
     }
 
     /**
@@ -58,7 +47,7 @@ public class MoveValidator {
      * @param board The current state of the board.
      * @return True if in checkmate, false otherwise.
      */
-    public boolean isCheckmate(Color color, Board board) {
+    public boolean isCheckmate(Color color, AbstractBoard board) {
         // If the king is in check and the player has no legal moves, it's checkmate
         if (!board.isKingInCheck(color)) {
             return false;
@@ -73,7 +62,7 @@ public class MoveValidator {
      * @param board The current state of the board.
      * @return True if in stalemate, false otherwise.
      */
-    public boolean isStalemate(Color color, Board board) {
+    public boolean isStalemate(Color color, AbstractBoard board) {
         // If the king is not in check but the player has no legal moves, it's stalemate
         if (board.isKingInCheck(color)) {
             return false;
@@ -81,6 +70,21 @@ public class MoveValidator {
         return !hasLegalMoves(color, board);
     }
 
+    /**
+     * Checks if the endgame tables show that neither player can win from the position,
+     * for example a rook that can be taken or a pawn the defending king stops.
+     *
+     * @param board     The current state of the board.
+     * @param tablebase The endgame tables, or null.
+     * @return True if the position is a table draw, false if it is not or the tables do not cover it.
+     */
+    public boolean isTablebaseDraw(AbstractBoard board, Tablebase tablebase) {
+        if (tablebase == null || board.getPieceCount() > Tablebase.MAX_PIECES) {
+            return false;
+        }
+        return tablebase.probeResult(board) == 0;
+    }
+
     /**
      * Checks if a player has any legal moves.
      *
@@ -88,21 +92,7 @@ public class MoveValidator {
      * @param board The current state of the board.
      * @return True if the player has legal moves, false otherwise.
      */
-    private boolean hasLegalMoves(Color color, Board board) {
-        for (Piece piece : board.getBoardMap().values()) {
-            if (piece.getColor() == color) {
-                List<Position> moves = piece.getPossibleMoves(board);
-                for (Position move : moves) {
-                    boolean moveIsValid = isMoveValid(piece, move, board);
-
-                    // Debugging statement
-                    System.out.println("Checking move for " + piece.getType() + " at " + piece.getPosition() + " to " + move + ": " + (moveIsValid ? "Valid" : "Invalid"));
-                    if (isMoveValid(piece, move, board)) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
+    private boolean hasLegalMoves(Color color, AbstractBoard board) {
+        return legalMoves.hasLegalMoves(board, color);
     }
 }
@@ -0,0 +1,366 @@
+package com.aichessgame.engine;
+
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.Move;
+import com.aichessgame.model.MoveList;
+import com.aichessgame.tablebase.Tablebase;
+import com.aichessgame.utils.Color;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chess engine that picks a move with an iterative-deepening negamax alpha-beta search.
+ * Each iteration searches one ply deeper and starts with the best move of the previous one,
+ * so the search can be stopped at any time and still return the best move found so far.
+ *
+ * With more than one thread the engine uses Lazy SMP: helper threads search the same root
+ * on their own boards with slightly different depths and move ordering, sharing only the
+ * transposition table. The calling thread runs the main search, stops the helpers when it
+ * is done and reports the result of the deepest completed search.
+ */
+public class Engine {
+    public static final int MATE_SCORE = 100_000;
+    static final int MAX_PLY = 128;
+
+    private final TranspositionTable transpositionTable; // Results of earlier searches, shared by all threads
+    private Searcher[] searchers;                         // Index 0 runs on the calling thread
+    private ExecutorService helperPool;                   // Runs the helper searchers, null with one thread
+
+    private long nodeLimit;                  // Node limit of the current search, or 0
+    private volatile long deadline;          // System.nanoTime() at which to stop, or 0
+    private volatile boolean stopRequested;  // Set to stop every searcher
+    private volatile boolean searching;      // True from the start of findBestMove until it returns
+    private long startTime;                  // System.nanoTime() at which the current search started
+    private SearchListener listener;         // Receives a report after every iteration, or null
+    private Tablebase tablebase;             // Endgame tables probed by every searcher, or null
+    private int[] principalVariation = new int[0]; // Expected line of the last completed main iteration
+
+    private int bestScore;                   // Score of the reported best move
+    private int completedDepth;              // Depth of the search the best move came from
+    private long nodes;                      // Nodes searched by all threads in the last search
+
+    /**
+     * Constructor for the Engine class with its own 16 MB transposition table and one thread.
+     */
+    public Engine() {
+        this(new TranspositionTable(16));
+    }
+
+    /**
+     * Constructor for the Engine class with one thread.
+     *
+     * @param transpositionTable The transposition table to use, which may be shared with other engines.
+     */
+    public Engine(TranspositionTable transpositionTable) {
+        this(transpositionTable, 1);
+    }
+
+    /**
+     * Constructor for the Engine class.
+     *
+     * @param transpositionTable The transposition table to use, which may be shared with other engines.
+     * @param threads            The number of search threads, including the calling thread.
+     */
+    public Engine(TranspositionTable transpositionTable, int threads) {
+        this.transpositionTable = transpositionTable;
+        setThreads(threads);
+    }
+
+    /**
+     * Changes the number of search threads. Must not be called during a search.
+     *
+     * @param threads The number of search threads, including the calling thread.
+     */
+    public void setThreads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        shutdown();
+        searchers = new Searcher[threads];
+        for (int i = 0; i < threads; i++) {
+            searchers[i] = new Searcher(this, i);
+        }
+        if (threads > 1) {
+            AtomicInteger helperCount = new AtomicInteger();
+            helperPool = Executors.newFixedThreadPool(threads - 1, runnable -> {
+                Thread thread = new Thread(runnable, "search-helper-" + helperCount.incrementAndGet());
+                thread.setDaemon(true); // Never keep the application alive
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Gets the number of search threads.
+     *
+     * @return The thread count, including the calling thread.
+     */
+    public int getThreads() {
+        return searchers.length;
+    }
+
+    /**
+     * Stops the helper threads, leaving only the calling thread to search.
+     */
+    public void shutdown() {
+        if (helperPool != null) {
+            helperPool.shutdownNow();
+            helperPool = null;
+        }
+        if (searchers != null && searchers.length > 1) {
+            searchers = new Searcher[]{searchers[0]};
+        }
+    }
+
+    /**
+     * Searches for the best move of a position.
+     *
+     * @param board  The position to search. It is copied, not modified.
+     * @param color  The color to move, which must be the board's side to move.
+     * @param limits The depth, node and time limits of the search.
+     * @return The best move found, or Move.NONE if the position has no legal moves.
+     */
+    public int findBestMove(AbstractBoard board, Color color, SearchLimits limits) {
+        if (color != board.getSideToMove()) {
+            throw new IllegalArgumentException("It is not " + color + "'s turn to move");
+        }
+        nodeLimit = limits.getNodes();
+        startTime = System.nanoTime();
+        deadline = limits.getTimeMillis() > 0 ? startTime + limits.getTimeMillis() * 1_000_000 : 0;
+        stopRequested = false;
+        principalVariation = new int[0];
+        searching = true;
+        try {
+            return search(board, color, limits);
+        } finally {
+            searching = false;
+        }
+    }
+
+    /**
+     * Runs the search of findBestMove once its state is reset.
+     */
+    private int search(AbstractBoard board, Color color, SearchLimits limits) {
+        bestScore = 0;
+        completedDepth = 0;
+        nodes = 0;
+        transpositionTable.newSearch();
+
+        MoveList rootMoves = new MoveList();
+        board.generateLegalMoves(color, rootMoves);
+        if (rootMoves.size() <= 1) {
+            return rootMoves.isEmpty() ? Move.NONE : rootMoves.get(0);
+        }
+
+        // Clear the previous search's node counts before any thread starts, so the node limit sees only this search
+        for (Searcher searcher : searchers) {
+            searcher.resetNodes();
+        }
+
+        // Every searcher gets its own copy, made here before any thread starts
+        List<Future<?>> helpers = new ArrayList<>();
+        for (int i = 1; i < searchers.length; i++) {
+            Searcher helper = searchers[i];
+            AbstractBoard helperBoard = board.copy();
+            helpers.add(helperPool.submit(() -> helper.search(helperBoard, limits)));
+        }
+        searchers[0].search(board.copy(), limits);
+
+        // The main search is done, so the helpers are no longer needed
+        stop();
+        for (Future<?> helper : helpers) {
+            try {
+                helper.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Helper search failed", e.getCause());
+            }
+        }
+
+        // Report the deepest completed search, preferring the main searcher on ties
+        Searcher best = searchers[0];
+        for (Searcher searcher : searchers) {
+            nodes += searcher.getNodes();
+            if (searcher.getCompletedDepth() > best.getCompletedDepth() && searcher.getBestMove() != Move.NONE) {
+                best = searcher;
+            }
+        }
+        bestScore = best.getBestScore();
+        completedDepth = best.getCompletedDepth();
+        return best.getBestMove();
+    }
+
+    /**
+     * Checks if a search is running. Once this returns true, a call to stop is sure to reach the search.
+     *
+     * @return True while findBestMove is running.
+     */
+    public boolean isSearching() {
+        return searching;
+    }
+
+    /**
+     * Sets or replaces the time limit of a running search, counted from now, for example
+     * when a search without a time limit should start managing its time. Safe to call from another thread.
+     *
+     * @param timeMillis The time the search may still run in milliseconds.
+     */
+    public void setTimeLimit(long timeMillis) {
+        deadline = System.nanoTime() + timeMillis * 1_000_000;
+    }
+
+    /**
+     * Sets the listener that is told about every completed iteration of the main search.
+     *
+     * @param listener The listener, or null for none.
+     */
+    public void setSearchListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Sets the endgame tables the search uses for exact scores of positions they cover.
+     * Takes effect from the next search.
+     *
+     * @param tablebase The tablebase, or null for none.
+     */
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Gets the endgame tables the search uses.
+     *
+     * @return The tablebase, or null if none is set.
+     */
+    public Tablebase getTablebase() {
+        return tablebase;
+    }
+
+    /**
+     * Gets the expected line of play found by the last completed iteration of the main searcher.
+     *
+     * @return The packed moves, starting with the main searcher's best move; empty if no iteration completed.
+     */
+    public int[] getPrincipalVariation() {
+        return principalVariation.clone();
+    }
+
+    /**
+     * Asks a running search to stop as soon as possible. Safe to call from another thread.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Gets the number of nodes searched by all threads in the last search.
+     *
+     * @return The node count.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Gets the score of the best move of the last search.
+     *
+     * @return The score in centipawns from the side to move's point of view.
+     */
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    /**
+     * Gets the depth of the completed iteration the best move of the last search came from.
+     *
+     * @return The depth in plies.
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * Gets the transposition table this engine reads and writes.
+     *
+     * @return The transposition table.
+     */
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    /**
+     * Records a completed iteration of the main searcher and tells the listener.
+     * The principal variation is read from the transposition table by following the stored best moves.
+     *
+     * @param board    The main searcher's board at the root; returned unchanged.
+     * @param depth    The depth of the completed iteration.
+     * @param score    The score of the iteration.
+     * @param bestMove The best move of the iteration.
+     */
+    void iterationCompleted(AbstractBoard board, int depth, int score, int bestMove) {
+        int[] line = new int[depth];
+        int length = 0;
+        int move = bestMove;
+        while (length < depth && move != Move.NONE && board.isLegalMove(move)) {
+            line[length++] = move;
+            board.makeMove(move);
+            if (board.isRepetition()) {
+                break;
+            }
+            move = TranspositionTable.getMove(transpositionTable.probe(board.getZobristKey()));
+        }
+        for (int i = 0; i < length; i++) {
+            board.unmakeMove();
+        }
+        principalVariation = Arrays.copyOf(line, length);
+
+        if (listener != null) {
+            long searched = 0;
+            for (Searcher searcher : searchers) {
+                searched += searcher.getNodes();
+            }
+            listener.iterationCompleted(depth, score, searched, (System.nanoTime() - startTime) / 1_000_000,
+                    principalVariation.clone());
+        }
+    }
+
+    /**
+     * Checks if the search was asked to stop.
+     */
+    boolean isStopRequested() {
+        return stopRequested;
+    }
+
+    /**
+     * Gets the node limit of the current search.
+     */
+    long getNodeLimit() {
+        return nodeLimit;
+    }
+
+    /**
+     * Checks if the node or time limit of the current search was reached, counting the nodes of all threads.
+     */
+    boolean isLimitReached() {
+        if (deadline > 0 && System.nanoTime() >= deadline) {
+            return true;
+        }
+        if (nodeLimit > 0) {
+            long total = 0;
+            for (Searcher searcher : searchers) {
+                total += searcher.getNodes();
+            }
+            return total >= nodeLimit;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,54 @@
+package com.aichessgame.engine;
+
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.PieceSquareTables;
+import com.aichessgame.utils.Color;
+
+/**
+ * Static evaluation of a position: material, piece-square tables and pawn structure, tapered
+ * between middlegame and endgame values by the material left on the board.
+ * Scores are in centipawns from the point of view of the side to move.
+ */
+public final class Evaluator {
+    // Material values for exchanges and move ordering, indexed by PieceType ordinal
+    public static final int[] PIECE_VALUES = {100, 320, 330, 500, 900, 0};
+
+    private Evaluator() {
+        // Static helpers only
+    }
+
+    /**
+     * Evaluates a position, computing its pawn structure without a cache.
+     *
+     * @param board The position to evaluate.
+     * @return The score in centipawns, positive when the side to move is better.
+     */
+    public static int evaluate(AbstractBoard board) {
+        return evaluate(board, PawnStructure.evaluate(board.getPawns(Color.WHITE), board.getPawns(Color.BLACK)));
+    }
+
+    /**
+     * Evaluates a position, looking its pawn structure up in a cache.
+     *
+     * @param board     The position to evaluate.
+     * @param pawnCache The pawn structure cache of the calling thread.
+     * @return The score in centipawns, positive when the side to move is better.
+     */
+    public static int evaluate(AbstractBoard board, PawnCache pawnCache) {
+        return evaluate(board, pawnCache.probe(board));
+    }
+
+    /**
+     * Blends the board's incrementally kept middlegame and endgame scores, plus the pawn structure,
+     * by the game phase, so no pieces are visited.
+     */
+    private static int evaluate(AbstractBoard board, long pawnEntry) {
+        int middlegame = board.getMiddlegameScore() + PawnStructure.getMiddlegameScore(pawnEntry)
+                + PawnStructure.getShelterBonus(pawnEntry, Color.WHITE, board.getKingSquare(Color.WHITE))
+                - PawnStructure.getShelterBonus(pawnEntry, Color.BLACK, board.getKingSquare(Color.BLACK));
+        int endgame = board.getEndgameScore() + PawnStructure.getEndgameScore(pawnEntry);
+        int phase = Math.min(board.getPhase(), PieceSquareTables.MAX_PHASE);
+        int score = (middlegame * phase + endgame * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+        return board.getSideToMove() == Color.WHITE ? score : -score;
+    }
+}
@@ -0,0 +1,265 @@
+package com.aichessgame.engine;
+
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.Move;
+import com.aichessgame.model.MoveList;
+import com.aichessgame.model.Piece;
+
+/**
+ * Hands out the moves of a position one at a time in the order most likely to cause a cutoff:
+ * the hash move, captures and promotions by most valuable victim and least valuable attacker,
+ * the killer moves, quiet moves by history score with a bonus for the counter move, and last
+ * the captures that lose material by static exchange.
+ * Each stage is only generated and sorted when the previous one runs out, so a cutoff
+ * early in the list skips the rest of the work.
+ */
+final class MovePicker {
+    // Stages, in the order they are visited
+    private static final int STAGE_HASH = 0;
+    private static final int STAGE_GENERATE_CAPTURES = 1;
+    private static final int STAGE_CAPTURES = 2;
+    private static final int STAGE_FIRST_KILLER = 3;
+    private static final int STAGE_SECOND_KILLER = 4;
+    private static final int STAGE_GENERATE_QUIETS = 5;
+    private static final int STAGE_QUIETS = 6;
+    private static final int STAGE_BAD_CAPTURES = 7;
+    private static final int STAGE_DONE = 8;
+
+    private static final int COUNTER_MOVE_BONUS = 1 << 16;
+
+    private final MoveList moves = new MoveList(); // Generated moves of the current stage
+    private final int[] scores = new int[256];     // Ordering score of each generated move
+    private final int[] badCaptures = new int[256]; // Captures deferred because they lose material
+    private int badCaptureCount;
+    private int index;                             // Next move of the current stage to hand out
+    private int stage;
+
+    private AbstractBoard board;
+    private int hashMove;
+    private int firstKiller;
+    private int secondKiller;
+    private int counterMove;
+    private int[] history;      // Quiet move scores of the side to move, indexed by from * 64 + to
+    private boolean capturesOnly;
+    private boolean addNoise;   // True to perturb the quiet move order
+    private long random;        // Ordering noise state
+    private final StaticExchange staticExchange; // Scratch space for exchange evaluation, shared by the searcher's pickers
+
+    /**
+     * Constructor for the MovePicker class.
+     *
+     * @param seed           A nonzero seed for the noise added to quiet move ordering when requested.
+     * @param staticExchange The exchange evaluator of the searcher that owns the picker.
+     */
+    MovePicker(long seed, StaticExchange staticExchange) {
+        this.random = seed;
+        this.staticExchange = staticExchange;
+    }
+
+    /**
+     * Prepares the picker for a position.
+     *
+     * @param board        The position; must not change while moves are being picked, except by make/unmake pairs.
+     * @param hashMove     The best move from the transposition table, or Move.NONE.
+     * @param firstKiller  A quiet move that caused a cutoff at this ply, or Move.NONE.
+     * @param secondKiller Another such move, or Move.NONE.
+     * @param counterMove  The quiet move that last refuted the opponent's previous move, or Move.NONE.
+     * @param history      The history scores of the side to move.
+     * @param addNoise     True to add a little noise to the quiet move order.
+     */
+    void init(AbstractBoard board, int hashMove, int firstKiller, int secondKiller, int counterMove,
+              int[] history, boolean addNoise) {
+        this.board = board;
+        this.hashMove = board.isLegalMove(hashMove) ? hashMove : Move.NONE;
+        this.firstKiller = firstKiller;
+        this.secondKiller = secondKiller;
+        this.counterMove = counterMove;
+        this.history = history;
+        this.addNoise = addNoise;
+        this.capturesOnly = false;
+        this.badCaptureCount = 0;
+        this.stage = STAGE_HASH;
+    }
+
+    /**
+     * Prepares the picker to hand out only the captures and promotions of a position
+     * that do not lose material by static exchange.
+     *
+     * @param board The position.
+     */
+    void initCaptures(AbstractBoard board) {
+        this.board = board;
+        this.hashMove = Move.NONE;
+        this.firstKiller = Move.NONE;
+        this.secondKiller = Move.NONE;
+        this.capturesOnly = true;
+        this.badCaptureCount = 0;
+        this.stage = STAGE_GENERATE_CAPTURES;
+    }
+
+    /**
+     * Gets the next move to try.
+     *
+     * @return The packed move, or Move.NONE when there are no more moves.
+     */
+    int next() {
+        while (true) {
+            switch (stage) {
+                case STAGE_HASH -> {
+                    stage = STAGE_GENERATE_CAPTURES;
+                    if (hashMove != Move.NONE) {
+                        return hashMove;
+                    }
+                }
+                case STAGE_GENERATE_CAPTURES -> {
+                    moves.clear();
+                    board.generateLegalCaptures(board.getSideToMove(), moves);
+                    scoreCaptures();
+                    index = 0;
+                    stage = STAGE_CAPTURES;
+                }
+                case STAGE_CAPTURES -> {
+                    int move = pickBest();
+                    if (move != Move.NONE) {
+                        if (move == hashMove) {
+                            continue;
+                        }
+                        if (!losesMaterial(move)) {
+                            return move;
+                        }
+                        if (!capturesOnly) {
+                            badCaptures[badCaptureCount++] = move;
+                        }
+                    } else {
+                        stage = capturesOnly ? STAGE_DONE : STAGE_FIRST_KILLER;
+                    }
+                }
+                case STAGE_FIRST_KILLER -> {
+                    stage = STAGE_SECOND_KILLER;
+                    if (isUsableKiller(firstKiller)) {
+                        return firstKiller;
+                    }
+                }
+                case STAGE_SECOND_KILLER -> {
+                    stage = STAGE_GENERATE_QUIETS;
+                    if (secondKiller != firstKiller && isUsableKiller(secondKiller)) {
+                        return secondKiller;
+                    }
+                }
+                case STAGE_GENERATE_QUIETS -> {
+                    moves.clear();
+                    board.generateLegalQuietMoves(board.getSideToMove(), moves);
+                    scoreQuiets();
+                    index = 0;
+                    stage = STAGE_QUIETS;
+                }
+                case STAGE_QUIETS -> {
+                    int move = pickBest();
+                    if (move == Move.NONE) {
+                        index = 0;
+                        stage = STAGE_BAD_CAPTURES;
+                    } else if (move != hashMove && move != firstKiller && move != secondKiller) {
+                        return move;
+                    }
+                }
+                case STAGE_BAD_CAPTURES -> {
+                    if (index < badCaptureCount) {
+                        return badCaptures[index++];
+                    }
+                    stage = STAGE_DONE;
+                }
+                default -> {
+                    return Move.NONE;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if a killer can be tried before the quiet moves are generated.
+     * Killers come from sibling positions, so they must be checked for legality here.
+     */
+    private boolean isUsableKiller(int killer) {
+        return killer != Move.NONE && killer != hashMove && !Move.isCapture(killer) && !Move.isPromotion(killer)
+                && board.isLegalMove(killer);
+    }
+
+    /**
+     * Checks if a capture or promotion loses material by static exchange. A capture of a piece
+     * worth at least the capturer cannot lose material, so the exchange is only played out otherwise.
+     */
+    private boolean losesMaterial(int move) {
+        Piece victim = board.getPieceAt(Move.getTo(move));
+        Piece attacker = board.getPieceAt(Move.getFrom(move));
+        if (victim != null && !Move.isPromotion(move)
+                && Evaluator.PIECE_VALUES[victim.getPieceType().ordinal()]
+                >= Evaluator.PIECE_VALUES[attacker.getPieceType().ordinal()]) {
+            return false;
+        }
+        return staticExchange.isLosing(board, move);
+    }
+
+    /**
+     * Scores captures by most valuable victim, then least valuable attacker, with promotions by the new piece.
+     */
+    private void scoreCaptures() {
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            Piece victim = board.getPieceAt(Move.getTo(move));
+            Piece attacker = board.getPieceAt(Move.getFrom(move));
+            int victimValue = victim != null ? Evaluator.PIECE_VALUES[victim.getPieceType().ordinal()]
+                    : Move.hasFlag(move, Move.FLAG_EN_PASSANT) ? Evaluator.PIECE_VALUES[0] : 0;
+            int score = victimValue * 16 - Evaluator.PIECE_VALUES[attacker.getPieceType().ordinal()] / 100;
+            if (Move.isPromotion(move)) {
+                score += Evaluator.PIECE_VALUES[Move.getPromotion(move).ordinal()];
+            }
+            scores[i] = score;
+        }
+    }
+
+    /**
+     * Scores quiet moves by history, with a bonus for the counter move and noise if requested.
+     */
+    private void scoreQuiets() {
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int score = history[Move.getFrom(move) * 64 + Move.getTo(move)];
+            if (move == counterMove) {
+                score += COUNTER_MOVE_BONUS;
+            }
+            if (addNoise) {
+                random ^= random << 13;
+                random ^= random >>> 7;
+                random ^= random << 17;
+                score += (int) (random & 63);
+            }
+            scores[i] = score;
+        }
+    }
+
+    /**
+     * Swaps the best scored remaining move to the front of the remaining moves and returns it.
+     * Sorting one move at a time means moves after a cutoff are never sorted.
+     *
+     * @return The best remaining move, or Move.NONE if the stage is exhausted.
+     */
+    private int pickBest() {
+        int size = moves.size();
+        if (index >= size) {
+            return Move.NONE;
+        }
+        int best = index;
+        for (int i = index + 1; i < size; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            moves.swap(index, best);
+            int score = scores[index];
+            scores[index] = scores[best];
+            scores[best] = score;
+        }
+        return moves.get(index++);
+    }
+}
@@ -0,0 +1,78 @@
+package com.aichessgame.engine;
+
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.utils.Color;
+
+import java.util.Arrays;
+
+/**
+ * A direct-mapped cache of pawn structure results keyed by the board's pawn key.
+ * The pawns change far less often than the rest of the position, so most lookups hit
+ * and pawn structure evaluation costs an array read. Each pawn key maps to exactly one
+ * slot, and a new result simply overwrites the old one.
+ * Not thread safe: every search thread owns its own cache.
+ */
+public class PawnCache {
+    private static final int ENTRY_BYTES = 16;
+
+    private final long[] keys;  // Pawn key per slot
+    private final long[] data;  // Packed PawnStructure result per slot, 0 if empty
+    private final int mask;
+    private long hits;
+    private long misses;
+
+    /**
+     * Constructor for the PawnCache class.
+     *
+     * @param sizeInKb The memory to use in kilobytes, rounded down to a power of two number of entries.
+     */
+    public PawnCache(int sizeInKb) {
+        if (sizeInKb <= 0) {
+            throw new IllegalArgumentException("Pawn cache size must be positive: " + sizeInKb);
+        }
+        int size = (int) Math.max(1, Long.highestOneBit(sizeInKb * 1024L / ENTRY_BYTES));
+        keys = new long[size];
+        data = new long[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Gets the pawn structure result of a position, computing and storing it on a miss.
+     *
+     * @param board The position.
+     * @return The packed PawnStructure result.
+     */
+    public long probe(AbstractBoard board) {
+        long key = board.getPawnKey();
+        int index = (int) (key ^ (key >>> 32)) & mask;
+        // Results are never 0, since the scores are stored with an offset
+        if (data[index] != 0 && keys[index] == key) {
+            hits++;
+            return data[index];
+        }
+        misses++;
+        long entry = PawnStructure.evaluate(board.getPawns(Color.WHITE), board.getPawns(Color.BLACK));
+        keys[index] = key;
+        data[index] = entry;
+        return entry;
+    }
+
+    /**
+     * Gets the share of lookups answered from the cache since it was created or last cleared.
+     *
+     * @return The hit rate from 0 to 1.
+     */
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Removes all results and resets the hit rate.
+     */
+    public void clear() {
+        Arrays.fill(data, 0L);
+        hits = 0;
+        misses = 0;
+    }
+}
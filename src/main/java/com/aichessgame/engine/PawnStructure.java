@@ -0,0 +1,176 @@
+package com.aichessgame.engine;
+
+import com.aichessgame.model.Attacks;
+import com.aichessgame.utils.Color;
+
+/**
+ * Pawn structure evaluation: doubled, isolated, backward and passed pawns, and the pawn
+ * shelter in front of each of the three places a king usually stands.
+ * The result depends only on the pawns, so it is computed once per pawn placement and
+ * kept in a PawnCache. It is packed into a long:
+ *   middlegame score + SCORE_OFFSET (bits 0-15) | endgame score + SCORE_OFFSET (16-31) |
+ *   shelter points (32-49, 3 bits per color and king zone).
+ * Scores are white's total minus black's, in centipawns.
+ */
+public final class PawnStructure {
+    private static final int SCORE_OFFSET = 1 << 15; // Makes the 16-bit score fields unsigned
+
+    private static final int DOUBLED_MIDDLEGAME = -10;
+    private static final int DOUBLED_ENDGAME = -20;
+    private static final int ISOLATED_MIDDLEGAME = -10;
+    private static final int ISOLATED_ENDGAME = -15;
+    private static final int BACKWARD_MIDDLEGAME = -8;
+    private static final int BACKWARD_ENDGAME = -12;
+    // Passed pawn bonus indexed by the row counted from the pawn's own side
+    private static final int[] PASSED_MIDDLEGAME = {0, 5, 10, 15, 25, 40, 60, 0};
+    private static final int[] PASSED_ENDGAME = {0, 10, 20, 35, 60, 100, 150, 0};
+    // Middlegame bonus per shelter point in front of the king
+    private static final int SHELTER_MIDDLEGAME = 10;
+
+    // The columns sheltering a king in each zone: queenside, center and kingside
+    private static final int[] ZONE_FIRST_COLUMN = {0, 2, 5};
+
+    private static final long[] COLUMN_MASKS = new long[8];
+    private static final long[] ADJACENT_COLUMN_MASKS = new long[8];
+    private static final long[][] FORWARD_MASKS = new long[2][64];       // Squares ahead on the same column
+    private static final long[][] PASSED_MASKS = new long[2][64];        // Squares ahead on the same and adjacent columns
+    private static final long[][] SUPPORT_MASKS = new long[2][64];       // Squares level or behind on adjacent columns
+
+    static {
+        for (int column = 0; column < 8; column++) {
+            COLUMN_MASKS[column] = 0x0101010101010101L << column;
+        }
+        for (int column = 0; column < 8; column++) {
+            ADJACENT_COLUMN_MASKS[column] = (column > 0 ? COLUMN_MASKS[column - 1] : 0)
+                    | (column < 7 ? COLUMN_MASKS[column + 1] : 0);
+        }
+        for (int square = 0; square < 64; square++) {
+            int row = square >>> 3;
+            int column = square & 7;
+            long ahead = 0; // Rows above this one, from white's side
+            for (int r = row + 1; r < 8; r++) {
+                ahead |= 0xFFL << (r * 8);
+            }
+            long behind = 0; // Rows below this one
+            for (int r = 0; r < row; r++) {
+                behind |= 0xFFL << (r * 8);
+            }
+            long level = 0xFFL << (row * 8);
+            long adjacent = ADJACENT_COLUMN_MASKS[column];
+
+            FORWARD_MASKS[0][square] = ahead & COLUMN_MASKS[column];
+            FORWARD_MASKS[1][square] = behind & COLUMN_MASKS[column];
+            PASSED_MASKS[0][square] = ahead & (COLUMN_MASKS[column] | adjacent);
+            PASSED_MASKS[1][square] = behind & (COLUMN_MASKS[column] | adjacent);
+            SUPPORT_MASKS[0][square] = (behind | level) & adjacent;
+            SUPPORT_MASKS[1][square] = (ahead | level) & adjacent;
+        }
+    }
+
+    private PawnStructure() {
+        // Static helpers only
+    }
+
+    /**
+     * Evaluates a pawn placement.
+     *
+     * @param whitePawns The squares of the white pawns.
+     * @param blackPawns The squares of the black pawns.
+     * @return The packed result.
+     */
+    public static long evaluate(long whitePawns, long blackPawns) {
+        int middlegame = 0;
+        int endgame = 0;
+        long shelters = 0;
+        for (Color color : Color.values()) {
+            int side = color.ordinal();
+            int sign = color == Color.WHITE ? 1 : -1;
+            long own = color == Color.WHITE ? whitePawns : blackPawns;
+            long enemy = color == Color.WHITE ? blackPawns : whitePawns;
+
+            for (long remaining = own; remaining != 0; remaining &= remaining - 1) {
+                int square = Long.numberOfTrailingZeros(remaining);
+                int column = square & 7;
+                int relativeRow = color == Color.WHITE ? square >>> 3 : 7 - (square >>> 3);
+
+                if ((FORWARD_MASKS[side][square] & own) != 0) {
+                    // Doubled; only the frontmost pawn of the column can be passed
+                    middlegame += sign * DOUBLED_MIDDLEGAME;
+                    endgame += sign * DOUBLED_ENDGAME;
+                } else if ((PASSED_MASKS[side][square] & enemy) == 0) {
+                    middlegame += sign * PASSED_MIDDLEGAME[relativeRow];
+                    endgame += sign * PASSED_ENDGAME[relativeRow];
+                }
+
+                if ((ADJACENT_COLUMN_MASKS[column] & own) == 0) {
+                    middlegame += sign * ISOLATED_MIDDLEGAME;
+                    endgame += sign * ISOLATED_ENDGAME;
+                } else if ((SUPPORT_MASKS[side][square] & own) == 0) {
+                    // No pawn can defend it, and an enemy pawn guards the square it would advance to
+                    int stop = color == Color.WHITE ? square + 8 : square - 8;
+                    if (stop >= 0 && stop < 64 && (Attacks.pawnAttacks(color, stop) & enemy) != 0) {
+                        middlegame += sign * BACKWARD_MIDDLEGAME;
+                        endgame += sign * BACKWARD_ENDGAME;
+                    }
+                }
+            }
+
+            for (int zone = 0; zone < ZONE_FIRST_COLUMN.length; zone++) {
+                shelters |= (long) shelterPoints(color, own, ZONE_FIRST_COLUMN[zone]) << (32 + (side * 3 + zone) * 3);
+            }
+        }
+        return (middlegame + SCORE_OFFSET) | (long) (endgame + SCORE_OFFSET) << 16 | shelters;
+    }
+
+    /**
+     * Counts the shelter points of three columns: 2 for a pawn on its second row, 1 for a pawn on its third.
+     */
+    private static int shelterPoints(Color color, long own, int firstColumn) {
+        int points = 0;
+        for (int column = firstColumn; column < firstColumn + 3; column++) {
+            int secondRow = (color == Color.WHITE ? 1 : 6) * 8 + column;
+            int thirdRow = (color == Color.WHITE ? 2 : 5) * 8 + column;
+            if ((own & 1L << secondRow) != 0) {
+                points += 2;
+            } else if ((own & 1L << thirdRow) != 0) {
+                points += 1;
+            }
+        }
+        return points;
+    }
+
+    /**
+     * Gets the middlegame score of a packed result.
+     *
+     * @param entry The packed result.
+     * @return White's score minus black's.
+     */
+    public static int getMiddlegameScore(long entry) {
+        return (int) (entry & 0xFFFF) - SCORE_OFFSET;
+    }
+
+    /**
+     * Gets the endgame score of a packed result.
+     *
+     * @param entry The packed result.
+     * @return White's score minus black's.
+     */
+    public static int getEndgameScore(long entry) {
+        return (int) ((entry >>> 16) & 0xFFFF) - SCORE_OFFSET;
+    }
+
+    /**
+     * Gets the middlegame bonus for the pawns sheltering a king.
+     *
+     * @param entry      The packed result.
+     * @param color      The color of the king.
+     * @param kingSquare The square of the king.
+     * @return The bonus in centipawns from the king owner's point of view.
+     */
+    public static int getShelterBonus(long entry, Color color, int kingSquare) {
+        int column = kingSquare & 7;
+        int zone = column <= 2 ? 0 : column <= 4 ? 1 : 2;
+        int points = (int) ((entry >>> (32 + (color.ordinal() * 3 + zone) * 3)) & 7);
+        return points * SHELTER_MIDDLEGAME;
+    }
+}
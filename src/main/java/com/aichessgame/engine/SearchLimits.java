@@ -0,0 +1,90 @@
+package com.aichessgame.engine;
+
+/**
+ * Bounds on how long a search may run.
+ * A search stops at whichever limit is reached first; a limit of 0 means unlimited,
+ * but at least one limit must be set so every search ends.
+ */
+public class SearchLimits {
+    public static final int MAX_DEPTH = 64;
+
+    private final int depth;         // Maximum depth in plies, 0 for unlimited
+    private final long nodes;        // Maximum number of nodes, 0 for unlimited
+    private final long timeMillis;   // Maximum wall-clock time in milliseconds, 0 for unlimited
+
+    /**
+     * Constructor for the SearchLimits class.
+     *
+     * @param depth      The maximum depth in plies, or 0 for unlimited.
+     * @param nodes      The maximum number of nodes, or 0 for unlimited.
+     * @param timeMillis The maximum time in milliseconds, or 0 for unlimited.
+     */
+    public SearchLimits(int depth, long nodes, long timeMillis) {
+        if (depth < 0 || nodes < 0 || timeMillis < 0) {
+            throw new IllegalArgumentException("Search limits cannot be negative");
+        }
+        if (depth == 0 && nodes == 0 && timeMillis == 0) {
+            throw new IllegalArgumentException("At least one search limit must be set");
+        }
+        this.depth = Math.min(depth, MAX_DEPTH);
+        this.nodes = nodes;
+        this.timeMillis = timeMillis;
+    }
+
+    /**
+     * Creates limits that only bound the depth.
+     *
+     * @param depth The maximum depth in plies.
+     * @return The search limits.
+     */
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0, 0);
+    }
+
+    /**
+     * Creates limits that only bound the number of nodes.
+     *
+     * @param nodes The maximum number of nodes.
+     * @return The search limits.
+     */
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(0, nodes, 0);
+    }
+
+    /**
+     * Creates limits that only bound the time.
+     *
+     * @param timeMillis The maximum time in milliseconds.
+     * @return The search limits.
+     */
+    public static SearchLimits time(long timeMillis) {
+        return new SearchLimits(0, 0, timeMillis);
+    }
+
+    /**
+     * Gets the maximum depth.
+     *
+     * @return The depth in plies, never more than MAX_DEPTH.
+     */
+    public int getDepth() {
+        return depth == 0 ? MAX_DEPTH : depth;
+    }
+
+    /**
+     * Gets the maximum number of nodes.
+     *
+     * @return The node limit, or 0 for unlimited.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Gets the maximum time.
+     *
+     * @return The time limit in milliseconds, or 0 for unlimited.
+     */
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+}
@@ -0,0 +1,18 @@
+package com.aichessgame.engine;
+
+/**
+ * Receives progress reports from a running search, for example to print UCI info lines.
+ * Called on the main search thread, so implementations should return quickly.
+ */
+public interface SearchListener {
+    /**
+     * Called after each completed iteration of the main searcher.
+     *
+     * @param depth              The depth of the completed iteration in plies.
+     * @param score              The score in centipawns from the side to move's point of view, or a mate score.
+     * @param nodes              The nodes searched so far by all threads.
+     * @param timeMillis         The time since the search started.
+     * @param principalVariation The expected line of play, starting with the best move, as packed moves.
+     */
+    void iterationCompleted(int depth, int score, long nodes, long timeMillis, int[] principalVariation);
+}
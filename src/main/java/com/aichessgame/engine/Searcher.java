@@ -0,0 +1,375 @@
+package com.aichessgame.engine;
+
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.Move;
+import com.aichessgame.model.MoveList;
+import com.aichessgame.tablebase.Tablebase;
+import com.aichessgame.utils.Color;
+
+/**
+ * One search thread's iterative-deepening negamax alpha-beta search.
+ * Every searcher owns its board, move lists and history table; only the transposition
+ * table and the stop signal of its Engine are shared. Searcher 0 is the main searcher,
+ * whose result the engine normally reports. Helper searchers start at a different depth and
+ * perturb their quiet move ordering, so they explore different parts of the tree and fill
+ * the shared table with results the main searcher can use.
+ */
+class Searcher {
+    private static final int INFINITY = 1_000_000;
+    private static final int CHECK_INTERVAL = 1024; // Nodes between checks of the node and time limits
+    private static final int HISTORY_LIMIT = 1 << 20;
+
+    private final Engine engine;
+    private final int id;                                               // 0 for the main searcher
+    private final MovePicker[] movePickers = new MovePicker[Engine.MAX_PLY]; // One reusable move picker per ply
+    private final MoveList rootMoves = new MoveList();
+    private final int[][] history = new int[2][64 * 64];       // Quiet move cutoff scores by color, from and to
+    private final int[][] counterMoves = new int[2][64 * 64];  // Quiet refutation by color, then the opponent's last from and to
+    private final int[][] killers = new int[Engine.MAX_PLY][2]; // Two quiet moves per ply that recently caused cutoffs
+    private final int[] playedMoves = new int[Engine.MAX_PLY];  // The move made at each ply of the current line
+    private final PawnCache pawnCache = new PawnCache(1024);   // Pawn structure results, private to this thread
+    private final StaticExchange staticExchange = new StaticExchange(); // Exchange scratch space for the move pickers
+    private AbstractBoard board;                               // This searcher's own copy of the position
+
+    private long nodes;                   // Nodes searched in the current search, counted by this thread only
+    private volatile long publishedNodes; // The count as of the last limit check, read by the other threads
+    private boolean stopped;              // Set when the search must unwind
+    private int bestMove;                 // Best move of the last completed iteration
+    private int bestScore;                // Score of bestMove
+    private int completedDepth;           // Depth of the last completed iteration
+
+    /**
+     * Constructor for the Searcher class.
+     *
+     * @param engine The engine that owns the shared state.
+     * @param id     The searcher's index, 0 for the main searcher.
+     */
+    Searcher(Engine engine, int id) {
+        this.engine = engine;
+        this.id = id;
+        for (int i = 0; i < movePickers.length; i++) {
+            movePickers[i] = new MovePicker(0x9E3779B97F4A7C15L * (id + 1) + i, staticExchange);
+        }
+    }
+
+    /**
+     * Runs an iterative-deepening search until the depth limit or until the engine stops it.
+     *
+     * @param board  The position to search, owned by this searcher from now on.
+     * @param limits The search limits.
+     */
+    void search(AbstractBoard board, SearchLimits limits) {
+        this.board = board;
+        stopped = false;
+        bestMove = Move.NONE;
+        bestScore = 0;
+        completedDepth = 0;
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = Move.NONE;
+            plyKillers[1] = Move.NONE;
+        }
+
+        // Keep what was learned in earlier searches, but let it fade
+        for (int[] scores : history) {
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] >>= 1;
+            }
+        }
+
+        rootMoves.clear();
+        board.generateLegalMoves(board.getSideToMove(), rootMoves);
+        if (rootMoves.isEmpty()) {
+            return;
+        }
+        bestMove = rootMoves.get(0);
+
+        // Helpers start one ply deeper every other thread, so the threads are not all on the same iteration
+        for (int depth = 1 + id % 2; depth <= limits.getDepth(); depth++) {
+            int score = searchRoot(depth);
+            if (stopped) {
+                break;
+            }
+            bestScore = score;
+            completedDepth = depth;
+            if (id == 0) {
+                publishedNodes = nodes;
+                engine.iterationCompleted(board, depth, score, bestMove);
+            }
+
+            // A forced mate will not change with more depth
+            if (Math.abs(score) >= Engine.MATE_SCORE - Engine.MAX_PLY) {
+                break;
+            }
+        }
+        publishedNodes = nodes;
+    }
+
+    /**
+     * Gets the number of nodes searched so far. While the search runs, the count is only
+     * brought up to date at every limit check, so a plain counter can be used on the hot path;
+     * it is exact once search returns.
+     *
+     * @return The node count.
+     */
+    long getNodes() {
+        return publishedNodes;
+    }
+
+    /**
+     * Clears the node count before a new search starts.
+     */
+    void resetNodes() {
+        nodes = 0;
+        publishedNodes = 0;
+    }
+
+    int getBestMove() {
+        return bestMove;
+    }
+
+    int getBestScore() {
+        return bestScore;
+    }
+
+    int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * Searches every root move to a given depth, trying the previous best move first.
+     *
+     * @param depth The depth in plies.
+     * @return The score of the best move.
+     */
+    private int searchRoot(int depth) {
+        MovePicker picker = movePickers[0];
+        picker.init(board, bestMove, Move.NONE, Move.NONE, Move.NONE,
+                history[board.getSideToMove().ordinal()], id != 0);
+
+        int alpha = -INFINITY;
+        int iterationBest = Move.NONE;
+        int move;
+        while ((move = picker.next()) != Move.NONE) {
+            playedMoves[0] = move;
+            board.makeMove(move);
+            int score = -negamax(depth - 1, 1, -INFINITY, -alpha);
+            board.unmakeMove();
+            if (stopped) {
+                break;
+            }
+            if (score > alpha) {
+                alpha = score;
+                iterationBest = move;
+            }
+        }
+
+        // An unfinished iteration still improves on the previous one if its first (previous best) move was searched
+        if (iterationBest != Move.NONE) {
+            bestMove = iterationBest;
+        }
+        if (!stopped) {
+            engine.getTranspositionTable().store(board.getZobristKey(), bestMove,
+                    TranspositionTable.scoreToTable(alpha, 0), depth, TranspositionTable.BOUND_EXACT);
+        }
+        return alpha;
+    }
+
+    /**
+     * Searches a position with alpha-beta pruning.
+     *
+     * @param depth The remaining depth in plies.
+     * @param ply   The distance from the root.
+     * @param alpha The score the side to move is already guaranteed.
+     * @param beta  The score the opponent is already guaranteed, negated.
+     * @return The score of the position from the side to move's point of view.
+     */
+    private int negamax(int depth, int ply, int alpha, int beta) {
+        if (++nodes % CHECK_INTERVAL == 0 || nodes == engine.getNodeLimit()) {
+            publishedNodes = nodes;
+            checkLimits();
+        }
+        if (stopped) {
+            return 0;
+        }
+        if (board.isRepetition()) {
+            return 0;
+        }
+        // The endgame tables give an exact score; mate distances are counted from the root
+        Tablebase tablebase = engine.getTablebase();
+        if (tablebase != null && ply > 0 && board.getPieceCount() <= Tablebase.MAX_PIECES) {
+            int distance = tablebase.probe(board);
+            if (distance != Tablebase.NOT_FOUND) {
+                return distance == 0 ? 0 : distance > 0
+                        ? Engine.MATE_SCORE - ply - distance : -Engine.MATE_SCORE + ply - distance;
+            }
+        }
+        if (ply >= Engine.MAX_PLY - 1) {
+            return Evaluator.evaluate(board, pawnCache);
+        }
+        if (depth == 0) {
+            return quiesce(ply, alpha, beta);
+        }
+
+        // A result from an earlier visit of this position, by any thread, may already settle the score
+        TranspositionTable transpositionTable = engine.getTranspositionTable();
+        long key = board.getZobristKey();
+        long entry = transpositionTable.probe(key);
+        int hashMove = Move.NONE;
+        if (entry != 0) {
+            hashMove = TranspositionTable.getMove(entry);
+            if (TranspositionTable.getDepth(entry) >= depth) {
+                int score = TranspositionTable.scoreFromTable(TranspositionTable.getScore(entry), ply);
+                int bound = TranspositionTable.getBound(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || (bound == TranspositionTable.BOUND_LOWER && score >= beta)
+                        || (bound == TranspositionTable.BOUND_UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        Color color = board.getSideToMove();
+        int previousMove = playedMoves[ply - 1];
+        int counterIndex = Move.getFrom(previousMove) * 64 + Move.getTo(previousMove);
+        MovePicker picker = movePickers[ply];
+        picker.init(board, hashMove, killers[ply][0], killers[ply][1], counterMoves[color.ordinal()][counterIndex],
+                history[color.ordinal()], id != 0);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMoveHere = Move.NONE;
+        int move;
+        while ((move = picker.next()) != Move.NONE) {
+            playedMoves[ply] = move;
+            board.makeMove(move);
+            int score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+            board.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMoveHere = move;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        if (!Move.isCapture(move) && !Move.isPromotion(move)) {
+                            updateQuietStatistics(color, move, depth, ply, counterIndex);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (bestMoveHere == Move.NONE) {
+            // No legal moves: checkmate scores prefer the shortest mate
+            return board.isKingInCheck(color) ? -Engine.MATE_SCORE + ply : 0;
+        }
+
+        int bound = best >= beta ? TranspositionTable.BOUND_LOWER
+                : best > originalAlpha ? TranspositionTable.BOUND_EXACT : TranspositionTable.BOUND_UPPER;
+        transpositionTable.store(key, bound == TranspositionTable.BOUND_UPPER ? Move.NONE : bestMoveHere,
+                TranspositionTable.scoreToTable(best, ply), depth, bound);
+        return best;
+    }
+
+    /**
+     * Searches only captures and promotions until the position is quiet, so the static evaluation
+     * is never taken in the middle of an exchange. The side to move may stand pat on the static
+     * evaluation instead of capturing, and captures that lose material by static exchange are
+     * skipped. In check, every move is searched, since standing pat is not an option.
+     *
+     * @param ply   The distance from the root.
+     * @param alpha The score the side to move is already guaranteed.
+     * @param beta  The score the opponent is already guaranteed, negated.
+     * @return The score of the position from the side to move's point of view.
+     */
+    private int quiesce(int ply, int alpha, int beta) {
+        if (++nodes % CHECK_INTERVAL == 0 || nodes == engine.getNodeLimit()) {
+            publishedNodes = nodes;
+            checkLimits();
+        }
+        if (stopped) {
+            return 0;
+        }
+        if (ply >= Engine.MAX_PLY - 1) {
+            return Evaluator.evaluate(board, pawnCache);
+        }
+
+        Color color = board.getSideToMove();
+        boolean inCheck = board.isKingInCheck(color);
+        MovePicker picker = movePickers[ply];
+        int best;
+        if (inCheck) {
+            picker.init(board, Move.NONE, Move.NONE, Move.NONE, Move.NONE, history[color.ordinal()], false);
+            best = -INFINITY;
+        } else {
+            best = Evaluator.evaluate(board, pawnCache);
+            if (best >= beta) {
+                return best;
+            }
+            alpha = Math.max(alpha, best);
+            picker.initCaptures(board);
+        }
+
+        int move;
+        while ((move = picker.next()) != Move.NONE) {
+            playedMoves[ply] = move;
+            board.makeMove(move);
+            int score = -quiesce(ply + 1, -beta, -alpha);
+            board.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (inCheck && best == -INFINITY) {
+            return -Engine.MATE_SCORE + ply;
+        }
+        return best;
+    }
+
+    /**
+     * Remembers a quiet move that caused a cutoff as a killer for this ply, as the counter move to the
+     * opponent's previous move, and in the history table, so it is tried earlier in other positions.
+     */
+    private void updateQuietStatistics(Color color, int move, int depth, int ply, int counterIndex) {
+        int[] plyKillers = killers[ply];
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        counterMoves[color.ordinal()][counterIndex] = move;
+
+        int[] scores = history[color.ordinal()];
+        int index = Move.getFrom(move) * 64 + Move.getTo(move);
+        scores[index] += depth * depth;
+        if (scores[index] >= HISTORY_LIMIT) {
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] >>= 1;
+            }
+        }
+    }
+
+    /**
+     * Stops the search if the engine was stopped, and stops every searcher if a limit was reached.
+     */
+    private void checkLimits() {
+        if (engine.isStopRequested()) {
+            stopped = true;
+        } else if (engine.isLimitReached()) {
+            engine.stop();
+            stopped = true;
+        }
+    }
+}
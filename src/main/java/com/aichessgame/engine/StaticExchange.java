@@ -0,0 +1,211 @@
+package com.aichessgame.engine;
+
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.Attacks;
+import com.aichessgame.model.BitBoard;
+import com.aichessgame.model.Move;
+import com.aichessgame.model.Piece;
+import com.aichessgame.model.PieceType;
+import com.aichessgame.utils.Color;
+import com.aichessgame.utils.Position;
+
+import java.util.Arrays;
+
+/**
+ * Static exchange evaluation: the material a move wins or loses if both sides keep
+ * recapturing on its destination square with their least valuable piece, each side
+ * free to stop when continuing would lose more. Nothing is moved on the board; the
+ * exchange is played out on attacker bitboards, removing each capturer from the
+ * occupancy so sliding pieces behind it (x-rays) join in.
+ *
+ * Pins and checks are ignored, and a pawn recapturing on the last rank is not promoted,
+ * so the result is an estimate, which is what move ordering and pruning need.
+ *
+ * The exchange is played out in scratch arrays owned by the instance, so evaluating one
+ * allocates nothing. An instance is not thread safe; each searcher keeps its own, as it
+ * does its move lists.
+ */
+public final class StaticExchange {
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    private final long[] pieces = new long[12]; // Piece bitboards indexed by color ordinal * 6 + type ordinal
+    private final int[] gains = new int[32];    // gains[d] is what the side capturing at depth d has won
+
+    /**
+     * Evaluates the exchange a move starts.
+     *
+     * @param board The position before the move.
+     * @param move  The packed move, which should be legal in the position.
+     * @return The material won in centipawns for the side making the move, negative if it loses material.
+     */
+    public int evaluate(AbstractBoard board, int move) {
+        return evaluate(board, Move.getFrom(move), Move.getTo(move),
+                Move.isPromotion(move) ? Move.getPromotion(move) : null);
+    }
+
+    /**
+     * Evaluates the exchange a piece starts by moving to a square, for callers that work with positions.
+     * A pawn reaching the last rank is assumed to promote to a queen.
+     *
+     * @param board        The position before the move.
+     * @param fromPosition The position of the moving piece.
+     * @param toPosition   The destination position.
+     * @return The material won in centipawns for the side making the move, negative if it loses material.
+     */
+    public int evaluate(AbstractBoard board, Position fromPosition, Position toPosition) {
+        Piece piece = board.getPieceAt(fromPosition);
+        if (piece == null) {
+            throw new IllegalArgumentException("No piece at " + fromPosition);
+        }
+        int toRow = toPosition.getRow();
+        boolean promotes = piece.getPieceType() == PieceType.PAWN && (toRow == 0 || toRow == 7);
+        return evaluate(board, fromPosition.index(), toPosition.index(), promotes ? PieceType.QUEEN : null);
+    }
+
+    /**
+     * Checks if a move loses material by static exchange.
+     *
+     * @param board The position before the move.
+     * @param move  The packed move.
+     * @return True if the opponent can win back more than the move gains.
+     */
+    public boolean isLosing(AbstractBoard board, int move) {
+        return evaluate(board, move) < 0;
+    }
+
+    /**
+     * Plays out the exchange on bitboards.
+     *
+     * @param promotion The piece the moving pawn promotes to, or null.
+     */
+    private int evaluate(AbstractBoard board, int from, int to, PieceType promotion) {
+        loadPieceBitboards(board);
+        long occupied = 0;
+        for (long bitboard : pieces) {
+            occupied |= bitboard;
+        }
+
+        Piece mover = board.getPieceAt(from);
+        if (mover == null) {
+            throw new IllegalArgumentException("No piece on square " + from);
+        }
+        Color side = mover.getColor();
+        Piece victim = board.getPieceAt(to);
+
+        // gains[d] is what the side capturing at depth d has won if the exchange stops there
+        gains[0] = 0;
+        if (victim != null) {
+            gains[0] = Evaluator.PIECE_VALUES[victim.getPieceType().ordinal()];
+        } else if (mover.getPieceType() == PieceType.PAWN && (from & 7) != (to & 7)) {
+            // En passant: the captured pawn is beside the destination, not on it
+            gains[0] = Evaluator.PIECE_VALUES[PieceType.PAWN.ordinal()];
+            occupied &= ~(1L << ((from & ~7) | (to & 7)));
+        }
+        PieceType onSquare = mover.getPieceType(); // The piece that now stands on the square and can be taken
+        if (promotion != null) {
+            gains[0] += Evaluator.PIECE_VALUES[promotion.ordinal()] - Evaluator.PIECE_VALUES[PieceType.PAWN.ordinal()];
+            onSquare = promotion;
+        }
+        occupied &= ~(1L << from);
+
+        long diagonalSliders = pieces[PieceType.BISHOP.ordinal()] | pieces[6 + PieceType.BISHOP.ordinal()]
+                | pieces[PieceType.QUEEN.ordinal()] | pieces[6 + PieceType.QUEEN.ordinal()];
+        long straightSliders = pieces[PieceType.ROOK.ordinal()] | pieces[6 + PieceType.ROOK.ordinal()]
+                | pieces[PieceType.QUEEN.ordinal()] | pieces[6 + PieceType.QUEEN.ordinal()];
+        long attackers = attackersTo(pieces, to, occupied) & occupied;
+
+        int depth = 0;
+        while (true) {
+            side = side.opposite();
+            long sideAttackers = attackers & colorOccupancy(pieces, side);
+            if (sideAttackers == 0) {
+                break;
+            }
+
+            // Recapture with the least valuable attacker
+            int offset = side.ordinal() * 6;
+            int type = 0;
+            long attacker = 0;
+            for (; type < 6; type++) {
+                attacker = sideAttackers & pieces[offset + type];
+                if (attacker != 0) {
+                    break;
+                }
+            }
+            // The king may only recapture if the square is no longer defended
+            if (type == PieceType.KING.ordinal() && (attackers & colorOccupancy(pieces, side.opposite())) != 0) {
+                break;
+            }
+
+            depth++;
+            gains[depth] = Evaluator.PIECE_VALUES[onSquare.ordinal()] - gains[depth - 1];
+            onSquare = PIECE_TYPES[type];
+
+            occupied &= ~Long.lowestOneBit(attacker);
+            // Removing a piece can uncover a slider behind it on the same line
+            attackers |= Attacks.bishopAttacks(to, occupied) & diagonalSliders;
+            attackers |= Attacks.rookAttacks(to, occupied) & straightSliders;
+            attackers &= occupied;
+        }
+
+        // Each side chooses between stopping and continuing, from the last capture back to the first
+        while (depth > 0) {
+            gains[depth - 1] = -Math.max(-gains[depth - 1], gains[depth]);
+            depth--;
+        }
+        return gains[0];
+    }
+
+    /**
+     * Gets every piece of either color that attacks a square.
+     */
+    private static long attackersTo(long[] pieces, int square, long occupied) {
+        long whitePawns = pieces[PieceType.PAWN.ordinal()];
+        long blackPawns = pieces[6 + PieceType.PAWN.ordinal()];
+        long knights = pieces[PieceType.KNIGHT.ordinal()] | pieces[6 + PieceType.KNIGHT.ordinal()];
+        long kings = pieces[PieceType.KING.ordinal()] | pieces[6 + PieceType.KING.ordinal()];
+        long queens = pieces[PieceType.QUEEN.ordinal()] | pieces[6 + PieceType.QUEEN.ordinal()];
+        long bishops = pieces[PieceType.BISHOP.ordinal()] | pieces[6 + PieceType.BISHOP.ordinal()];
+        long rooks = pieces[PieceType.ROOK.ordinal()] | pieces[6 + PieceType.ROOK.ordinal()];
+        return (Attacks.pawnAttacks(Color.BLACK, square) & whitePawns)
+                | (Attacks.pawnAttacks(Color.WHITE, square) & blackPawns)
+                | (Attacks.knightAttacks(square) & knights)
+                | (Attacks.kingAttacks(square) & kings)
+                | (Attacks.bishopAttacks(square, occupied) & (bishops | queens))
+                | (Attacks.rookAttacks(square, occupied) & (rooks | queens));
+    }
+
+    /**
+     * Gets the squares occupied by one color from the piece bitboards.
+     */
+    private static long colorOccupancy(long[] pieces, Color color) {
+        int offset = color.ordinal() * 6;
+        long occupancy = 0;
+        for (int type = 0; type < 6; type++) {
+            occupancy |= pieces[offset + type];
+        }
+        return occupancy;
+    }
+
+    /**
+     * Fills the piece bitboards, one per color and piece type.
+     * A BitBoard already keeps them; other boards are scanned square by square.
+     */
+    private void loadPieceBitboards(AbstractBoard board) {
+        if (board instanceof BitBoard bitBoard) {
+            for (Color color : Color.values()) {
+                for (PieceType type : PIECE_TYPES) {
+                    pieces[color.ordinal() * 6 + type.ordinal()] = bitBoard.getPieces(color, type);
+                }
+            }
+        } else {
+            Arrays.fill(pieces, 0L);
+            for (int square = 0; square < 64; square++) {
+                Piece piece = board.getPieceAt(square);
+                if (piece != null) {
+                    pieces[piece.getColor().ordinal() * 6 + piece.getPieceType().ordinal()] |= 1L << square;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.aichessgame.engine;
+
+import com.aichessgame.model.Move;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size table of search results keyed by position key, shared by all search threads.
+ * Entries live in one long array, so the table can be gigabytes large without creating
+ * objects for the garbage collector to trace. Each entry is a 64-bit key check followed
+ * by a packed data word:
+ *   move (bits 0-18) | score + SCORE_OFFSET (19-38) | depth (39-45) | bound (46-47) | age (48-53).
+ * The key check is stored XORed with the data, so a read that races with a write to the
+ * same entry fails the check and is treated as a miss; no locks are needed.
+ * Entries are grouped in buckets of four that a key can occupy any slot of. A bucket is
+ * 8 longs, 64 contiguous bytes, so a probe touches at most two cache lines. The buckets
+ * start after ALIGN_PADDING unused longs that move them past the array header, so they
+ * sit on cache line boundaries whenever the array itself does; G1 places arrays of a
+ * region or more at a region start, which covers all but the smallest tables.
+ */
+public class TranspositionTable {
+    // Bound types, never 0 so a stored entry never packs to 0
+    public static final int BOUND_UPPER = 1; // The score is at most the stored score
+    public static final int BOUND_LOWER = 2; // The score is at least the stored score
+    public static final int BOUND_EXACT = 3; // The stored score is exact
+
+    private static final int BUCKET_SIZE = 4;         // Entries per bucket: 4 keys and 4 data words are 64 bytes
+    private static final int ENTRY_LONGS = 2;         // Key check, then data
+    private static final int ENTRY_BYTES = ENTRY_LONGS * Long.BYTES;
+    private static final int CACHE_LINE_BYTES = 64;
+    private static final int ARRAY_HEADER_BYTES = 16; // Header before a long array's elements on 64-bit HotSpot
+    private static final int ALIGN_PADDING = (CACHE_LINE_BYTES - ARRAY_HEADER_BYTES) / Long.BYTES;
+    private static final int SCORE_OFFSET = 1 << 19;  // Makes the 20-bit score field unsigned
+    private static final int MAX_ENTRIES = 1 << 29;   // Java array size limit for two longs each, rounded down to a power of two
+
+    private long[] table; // Padding, then per entry the key check XORed with the data and the packed data
+    private int bucketMask;
+    private int age;      // Incremented for each new search, so old entries can be replaced first
+
+    /**
+     * Constructor for the TranspositionTable class.
+     *
+     * @param sizeInMb The memory to use in megabytes, rounded down to a power of two number of entries.
+     */
+    public TranspositionTable(int sizeInMb) {
+        resize(sizeInMb);
+    }
+
+    /**
+     * Reallocates the table with a new size, dropping all entries.
+     *
+     * @param sizeInMb The memory to use in megabytes.
+     */
+    public void resize(int sizeInMb) {
+        if (sizeInMb <= 0) {
+            throw new IllegalArgumentException("Hash size must be positive: " + sizeInMb);
+        }
+        long entries = Long.highestOneBit(sizeInMb * 1024L * 1024L / ENTRY_BYTES);
+        int size = (int) Math.max(BUCKET_SIZE, Math.min(entries, MAX_ENTRIES));
+        table = null; // Let the old array be collected before allocating the new one
+        table = new long[ALIGN_PADDING + size * ENTRY_LONGS];
+        bucketMask = size / BUCKET_SIZE - 1;
+        age = 0;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        age = 0;
+    }
+
+    /**
+     * Marks the start of a new search, so entries from earlier searches are replaced first.
+     */
+    public void newSearch() {
+        age = (age + 1) & 63;
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param key The position's Zobrist key.
+     * @return The packed entry, or 0 if the position is not in the table.
+     */
+    public long probe(long key) {
+        int first = bucketIndex(key);
+        for (int i = first; i < first + BUCKET_SIZE * ENTRY_LONGS; i += ENTRY_LONGS) {
+            long entry = table[i + 1];
+            if (entry != 0 && (table[i] ^ entry) == key) {
+                return entry;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stores a search result.
+     * A key's existing entry is overwritten; otherwise the entry with the lowest depth,
+     * counting older searches as shallower, is replaced.
+     *
+     * @param key   The position's Zobrist key.
+     * @param move  The best move found, or Move.NONE.
+     * @param score The score, already adjusted with scoreToTable.
+     * @param depth The depth searched, 0 to 127.
+     * @param bound BOUND_UPPER, BOUND_LOWER or BOUND_EXACT.
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int first = bucketIndex(key);
+        int replace = first;
+        int replaceValue = Integer.MAX_VALUE;
+        for (int i = first; i < first + BUCKET_SIZE * ENTRY_LONGS; i += ENTRY_LONGS) {
+            long entry = table[i + 1];
+            if (entry == 0) {
+                replace = i;
+                break;
+            }
+            if ((table[i] ^ entry) == key) {
+                // Keep the move of an earlier search if this one found none
+                if (move == Move.NONE) {
+                    move = getMove(entry);
+                }
+                replace = i;
+                break;
+            }
+            int value = getDepth(entry) - 8 * ((age - getAge(entry)) & 63);
+            if (value < replaceValue) {
+                replaceValue = value;
+                replace = i;
+            }
+        }
+
+        long entry = (long) move
+                | (long) (score + SCORE_OFFSET) << 19
+                | (long) Math.min(Math.max(depth, 0), 127) << 39
+                | (long) bound << 46
+                | (long) age << 48;
+        table[replace + 1] = entry;
+        table[replace] = key ^ entry;
+    }
+
+    /**
+     * Estimates how full the table is from a sample of its first entries.
+     *
+     * @return The number of entries per thousand that were written by the current search.
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, (bucketMask + 1) * BUCKET_SIZE);
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            long entry = table[ALIGN_PADDING + i * ENTRY_LONGS + 1];
+            if (entry != 0 && getAge(entry) == age) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    /**
+     * Gets the best move of an entry.
+     *
+     * @param entry The packed entry.
+     * @return The packed move, or Move.NONE.
+     */
+    public static int getMove(long entry) {
+        return (int) (entry & 0x7FFFF);
+    }
+
+    /**
+     * Gets the score of an entry, still to be adjusted with scoreFromTable.
+     *
+     * @param entry The packed entry.
+     * @return The stored score.
+     */
+    public static int getScore(long entry) {
+        return (int) ((entry >>> 19) & 0xFFFFF) - SCORE_OFFSET;
+    }
+
+    /**
+     * Gets the depth an entry was searched to.
+     *
+     * @param entry The packed entry.
+     * @return The depth in plies.
+     */
+    public static int getDepth(long entry) {
+        return (int) ((entry >>> 39) & 127);
+    }
+
+    /**
+     * Gets the bound type of an entry.
+     *
+     * @param entry The packed entry.
+     * @return BOUND_UPPER, BOUND_LOWER or BOUND_EXACT.
+     */
+    public static int getBound(long entry) {
+        return (int) ((entry >>> 46) & 3);
+    }
+
+    /**
+     * Gets the age of the search that wrote an entry.
+     *
+     * @param entry The packed entry.
+     * @return The age, 0 to 63.
+     */
+    public static int getAge(long entry) {
+        return (int) ((entry >>> 48) & 63);
+    }
+
+    /**
+     * Converts a mate score from distance-to-root to distance-to-this-node before storing it,
+     * so the entry is valid wherever the position is found again.
+     *
+     * @param score The score from the search.
+     * @param ply   The distance of the node from the root.
+     * @return The score to store.
+     */
+    public static int scoreToTable(int score, int ply) {
+        if (score >= Engine.MATE_SCORE - Engine.MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -Engine.MATE_SCORE + Engine.MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    /**
+     * Converts a stored mate score back to distance-to-root.
+     *
+     * @param score The stored score.
+     * @param ply   The distance of the node from the root.
+     * @return The score for the search.
+     */
+    public static int scoreFromTable(int score, int ply) {
+        if (score >= Engine.MATE_SCORE - Engine.MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -Engine.MATE_SCORE + Engine.MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * Finds the array index of the first entry of the bucket a key maps to.
+     */
+    private int bucketIndex(long key) {
+        return ALIGN_PADDING + ((int) (key ^ (key >>> 32)) & bucketMask) * BUCKET_SIZE * ENTRY_LONGS;
+    }
+}
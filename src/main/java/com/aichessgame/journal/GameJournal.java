@@ -0,0 +1,248 @@
+package com.aichessgame.journal;
+
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.BitBoard;
+import com.aichessgame.model.Move;
+import com.aichessgame.model.MoveList;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A journal of finished games written by GameJournalWriter, read through a read-only memory
+ * mapping. The file is big-endian:
+ *   magic (4 bytes) | version (4) |
+ *   per game: move count (2) | result (1) | start FEN length (1, 0 for the standard start) |
+ *             start FEN (UTF-8) | moves (2 each).
+ * A move is the packed move without its flags (from, to and promotion, 15 bits); the flags are
+ * restored by matching it against the legal moves when the game is replayed.
+ * Opening the journal walks the game headers once to index where each game starts, which
+ * only touches the header bytes, so any game can then be read or replayed directly.
+ * A single mapping is limited to 2 GB, so the file is mapped in windows of CHUNK_BYTES that
+ * overlap by the largest possible game: every game lies whole in the window its header starts in.
+ */
+public class GameJournal implements Closeable {
+    public static final int RESULT_UNKNOWN = 0;
+    public static final int RESULT_WHITE_WINS = 1;
+    public static final int RESULT_BLACK_WINS = 2;
+    public static final int RESULT_DRAW = 3;
+
+    static final int MAGIC = 0x4143474A; // "ACGJ"
+    static final int VERSION = 1;
+    static final int FILE_HEADER_BYTES = 8;
+    static final int GAME_HEADER_BYTES = 4;
+    static final int MAX_MOVES = 0xFFFF;
+    static final int MAX_FEN_BYTES = 0xFF;
+    static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final int CHUNK_SHIFT = 30;                // 1 GB windows, so a window plus its overlap stays under 2 GB
+    private static final long CHUNK_BYTES = 1L << CHUNK_SHIFT;
+    private static final int MAX_GAME_BYTES = GAME_HEADER_BYTES + MAX_FEN_BYTES + 2 * MAX_MOVES;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] chunks; // Window i maps the file from i * CHUNK_BYTES
+    private final long[] offsets;            // File offset of each game's header
+    private final int gameCount;
+
+    /**
+     * Opens a journal.
+     *
+     * @param path The journal file.
+     * @throws IOException If the file cannot be opened or mapped, is not a journal or ends inside a game.
+     */
+    public GameJournal(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            chunks = new MappedByteBuffer[(int) ((size + CHUNK_BYTES - 1) >>> CHUNK_SHIFT)];
+            for (int i = 0; i < chunks.length; i++) {
+                long start = (long) i << CHUNK_SHIFT;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                        Math.min(size - start, CHUNK_BYTES + MAX_GAME_BYTES));
+                chunks[i].order(ByteOrder.BIG_ENDIAN);
+            }
+            if (size < FILE_HEADER_BYTES || chunks[0].getInt(0) != MAGIC || chunks[0].getInt(4) != VERSION) {
+                throw new IOException("Not a game journal: " + path);
+            }
+
+            long[] found = new long[1024];
+            int count = 0;
+            long offset = FILE_HEADER_BYTES;
+            while (offset < size) {
+                if (offset + GAME_HEADER_BYTES > size) {
+                    throw new IOException("Journal ends inside a game header: " + path);
+                }
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count * 2);
+                }
+                found[count++] = offset;
+                MappedByteBuffer chunk = chunk(offset);
+                int header = position(offset);
+                offset += GAME_HEADER_BYTES + Byte.toUnsignedInt(chunk.get(header + 3))
+                        + 2 * Short.toUnsignedInt(chunk.getShort(header));
+            }
+            if (offset != size) {
+                throw new IOException("Journal ends inside a game: " + path);
+            }
+            offsets = Arrays.copyOf(found, count);
+            gameCount = count;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the number of games in the journal.
+     *
+     * @return The game count.
+     */
+    public int getGameCount() {
+        return gameCount;
+    }
+
+    /**
+     * Gets the result of a game.
+     *
+     * @param game The index of the game, from 0.
+     * @return One of the RESULT_ constants.
+     */
+    public int getResult(int game) {
+        long offset = headerOffset(game);
+        return Byte.toUnsignedInt(chunk(offset).get(position(offset) + 2));
+    }
+
+    /**
+     * Gets the position a game started from.
+     *
+     * @param game The index of the game, from 0.
+     * @return The FEN of the starting position.
+     */
+    public String getStartFen(int game) {
+        long offset = headerOffset(game);
+        MappedByteBuffer chunk = chunk(offset);
+        int header = position(offset);
+        int length = Byte.toUnsignedInt(chunk.get(header + 3));
+        if (length == 0) {
+            return START_FEN;
+        }
+        byte[] fen = new byte[length];
+        chunk.get(header + GAME_HEADER_BYTES, fen);
+        return new String(fen, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the number of moves (plies) of a game.
+     *
+     * @param game The index of the game, from 0.
+     * @return The move count.
+     */
+    public int getMoveCount(int game) {
+        long offset = headerOffset(game);
+        return Short.toUnsignedInt(chunk(offset).getShort(position(offset)));
+    }
+
+    /**
+     * Gets the moves of a game as stored, without their flags.
+     *
+     * @param game The index of the game, from 0.
+     * @return The packed moves without flags, in the order they were played.
+     */
+    public int[] getStoredMoves(int game) {
+        long offset = headerOffset(game);
+        MappedByteBuffer chunk = chunk(offset);
+        int header = position(offset);
+        int movesOffset = header + GAME_HEADER_BYTES + Byte.toUnsignedInt(chunk.get(header + 3));
+        int[] moves = new int[Short.toUnsignedInt(chunk.getShort(header))];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = Short.toUnsignedInt(chunk.getShort(movesOffset + 2 * i));
+        }
+        return moves;
+    }
+
+    /**
+     * Replays a game on a new board. Each move is checked against the legal moves of the position,
+     * as GameController.processMove does, so a damaged journal cannot produce an impossible position.
+     *
+     * @param game  The index of the game, from 0.
+     * @param plies The number of moves to play, at most the game's move count.
+     * @return The board after the moves, with the moves on its undo stack.
+     * @throws IllegalStateException If a stored move is not legal where it was played.
+     */
+    public AbstractBoard replay(int game, int plies) {
+        int[] moves = getStoredMoves(game);
+        if (plies < 0 || plies > moves.length) {
+            throw new IllegalArgumentException("Game " + game + " has " + moves.length + " moves, not " + plies);
+        }
+        AbstractBoard board = new BitBoard(getStartFen(game));
+        MoveList legalMoves = new MoveList();
+        for (int i = 0; i < plies; i++) {
+            legalMoves.clear();
+            board.generateLegalMoves(board.getSideToMove(), legalMoves);
+            int move = findLegalMove(moves[i], legalMoves);
+            if (move == Move.NONE) {
+                throw new IllegalStateException("Move " + (i + 1) + " of game " + game + " is not legal: "
+                        + Move.toString(moves[i]));
+            }
+            board.makeMove(move);
+        }
+        return board;
+    }
+
+    /**
+     * Replays a whole game on a new board.
+     *
+     * @param game The index of the game, from 0.
+     * @return The board in the game's final position.
+     * @throws IllegalStateException If a stored move is not legal where it was played.
+     */
+    public AbstractBoard replay(int game) {
+        return replay(game, getMoveCount(game));
+    }
+
+    /**
+     * Closes the file. The mapping itself is released when it is garbage collected.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private long headerOffset(int game) {
+        if (game < 0 || game >= gameCount) {
+            throw new IllegalArgumentException("No game " + game + " in a journal of " + gameCount);
+        }
+        return offsets[game];
+    }
+
+    /**
+     * Finds the window holding the game whose header is at a file offset.
+     */
+    private MappedByteBuffer chunk(long offset) {
+        return chunks[(int) (offset >>> CHUNK_SHIFT)];
+    }
+
+    /**
+     * Converts a file offset into a position in its window.
+     */
+    private static int position(long offset) {
+        return (int) (offset & (CHUNK_BYTES - 1));
+    }
+
+    private static int findLegalMove(int stored, MoveList legalMoves) {
+        for (int i = 0; i < legalMoves.size(); i++) {
+            int move = legalMoves.get(i);
+            if (Move.withoutFlags(move) == stored) {
+                return move;
+            }
+        }
+        return Move.NONE;
+    }
+}
@@ -0,0 +1,151 @@
+package com.aichessgame.journal;
+
+import com.aichessgame.model.Move;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends finished games to a journal file in the format GameJournal reads.
+ * Games are collected in a buffer and written with one channel write when it fills up, or
+ * after a number of games, so recording a game costs a memory copy; the file is only ever
+ * appended to. Not thread safe.
+ */
+public class GameJournalWriter implements Closeable {
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final int DEFAULT_FLUSH_INTERVAL = 64; // Games buffered before they are written
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.BIG_ENDIAN);
+    private final int flushInterval;
+    private int pendingGames; // Games in the buffer
+
+    /**
+     * Opens a journal for appending, creating it if it does not exist, and writes buffered games every 64 games.
+     *
+     * @param path The journal file.
+     * @throws IOException If the file cannot be opened or is not a journal.
+     */
+    public GameJournalWriter(Path path) throws IOException {
+        this(path, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    /**
+     * Opens a journal for appending, creating it if it does not exist.
+     *
+     * @param path          The journal file.
+     * @param flushInterval The number of games to buffer before writing them; 1 writes every game at once.
+     * @throws IOException If the file cannot be opened or is not a journal.
+     */
+    public GameJournalWriter(Path path, int flushInterval) throws IOException {
+        if (flushInterval <= 0) {
+            throw new IllegalArgumentException("Flush interval must be positive: " + flushInterval);
+        }
+        this.flushInterval = flushInterval;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            channel.position(channel.size());
+            if (channel.size() == 0) {
+                buffer.putInt(GameJournal.MAGIC).putInt(GameJournal.VERSION);
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(GameJournal.FILE_HEADER_BYTES).order(ByteOrder.BIG_ENDIAN);
+                while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                    // Read the whole header
+                }
+                if (header.hasRemaining() || header.getInt(0) != GameJournal.MAGIC
+                        || header.getInt(4) != GameJournal.VERSION) {
+                    throw new IOException("Not a game journal: " + path);
+                }
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Records a game.
+     *
+     * @param startFen The position the game started from, or null for the standard starting position.
+     * @param moves    The packed moves in the order they were played; their flags are not stored.
+     * @param result   One of the GameJournal.RESULT_ constants.
+     * @throws IOException If buffered games had to be written and the write failed.
+     */
+    public void append(String startFen, int[] moves, int result) throws IOException {
+        byte[] fen = startFen == null || startFen.equals(GameJournal.START_FEN)
+                ? new byte[0] : startFen.getBytes(StandardCharsets.UTF_8);
+        if (fen.length > GameJournal.MAX_FEN_BYTES) {
+            throw new IllegalArgumentException("Start FEN longer than " + GameJournal.MAX_FEN_BYTES + " bytes: " + startFen);
+        }
+        if (moves.length > GameJournal.MAX_MOVES) {
+            throw new IllegalArgumentException("Game longer than " + GameJournal.MAX_MOVES + " moves: " + moves.length);
+        }
+        if (result < GameJournal.RESULT_UNKNOWN || result > GameJournal.RESULT_DRAW) {
+            throw new IllegalArgumentException("Unknown game result: " + result);
+        }
+
+        int size = GameJournal.GAME_HEADER_BYTES + fen.length + 2 * moves.length;
+        if (size > buffer.remaining()) {
+            writeBuffer();
+        }
+        // A game too long for the buffer is written straight from a buffer of its own
+        ByteBuffer target = size > buffer.capacity() ? ByteBuffer.allocate(size).order(ByteOrder.BIG_ENDIAN) : buffer;
+        target.putShort((short) moves.length).put((byte) result).put((byte) fen.length).put(fen);
+        for (int move : moves) {
+            target.putShort((short) Move.withoutFlags(move));
+        }
+        if (target != buffer) {
+            target.flip();
+            writeFully(target);
+        } else if (++pendingGames >= flushInterval) {
+            writeBuffer();
+        }
+    }
+
+    /**
+     * Writes the buffered games to the file and forces them to the storage device.
+     *
+     * @throws IOException If the write fails.
+     */
+    public void flush() throws IOException {
+        writeBuffer();
+        channel.force(false);
+    }
+
+    /**
+     * Writes the buffered games and closes the file. Does nothing if it is already closed.
+     *
+     * @throws IOException If the write fails.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+        pendingGames = 0;
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+}
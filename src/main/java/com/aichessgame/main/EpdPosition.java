@@ -0,0 +1,223 @@
+package com.aichessgame.main;
+
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.BitBoard;
+import com.aichessgame.model.Move;
+import com.aichessgame.model.San;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One line of an Extended Position Description (EPD) file: a position and its operations, e.g.
+ *   1k1r4/pp1b1R2/3q2pp/4p3/2B5/4Q3/PPP2B2/2K5 b - - bm Qd1+; id "BK.01";
+ * The position is the first four FEN fields. The clocks come from the hmvc and fmvn operations,
+ * or from two numbers after the fields as in a full FEN. The bm (best moves) and am (avoid
+ * moves) operands are resolved from SAN to packed moves when the line is parsed, so a suite
+ * with an illegal move fails when it is loaded rather than counting as unsolved.
+ */
+public class EpdPosition {
+    private final String fen;                          // The position with its clocks
+    private final Map<String, List<String>> operations; // Operands by opcode, in line order
+    private final int[] bestMoves;                     // Moves of the bm operation
+    private final int[] avoidMoves;                    // Moves of the am operation
+
+    private EpdPosition(String fen, Map<String, List<String>> operations, int[] bestMoves, int[] avoidMoves) {
+        this.fen = fen;
+        this.operations = operations;
+        this.bestMoves = bestMoves;
+        this.avoidMoves = avoidMoves;
+    }
+
+    /**
+     * Parses one EPD line.
+     *
+     * @param line The line.
+     * @return The position and its operations.
+     * @throws IllegalArgumentException If the position is invalid or a bm or am move is not legal in it.
+     */
+    public static EpdPosition parse(String line) {
+        String text = line.trim();
+        String[] fields = text.split("\\s+", 5);
+        if (fields.length < 4) {
+            throw new IllegalArgumentException("Invalid EPD: " + line);
+        }
+        String rest = fields.length > 4 ? fields[4] : "";
+
+        // A full FEN's clocks may follow the four position fields
+        String halfmoveClock = "0";
+        String fullmoveNumber = "1";
+        String[] clocks = rest.split("\\s+", 3);
+        if (clocks.length >= 2 && clocks[0].matches("\\d+") && clocks[1].matches("\\d+")) {
+            halfmoveClock = clocks[0];
+            fullmoveNumber = clocks[1];
+            rest = clocks.length > 2 ? clocks[2] : "";
+        }
+
+        Map<String, List<String>> operations = parseOperations(rest, line);
+        if (operations.containsKey("hmvc")) {
+            halfmoveClock = firstOperand(operations, "hmvc", line);
+        }
+        if (operations.containsKey("fmvn")) {
+            fullmoveNumber = firstOperand(operations, "fmvn", line);
+        }
+        String fen = fields[0] + " " + fields[1] + " " + fields[2] + " " + fields[3]
+                + " " + halfmoveClock + " " + fullmoveNumber;
+
+        AbstractBoard board = new BitBoard(fen);
+        return new EpdPosition(fen, Collections.unmodifiableMap(operations),
+                resolveMoves(board, operations.get("bm"), line), resolveMoves(board, operations.get("am"), line));
+    }
+
+    /**
+     * Gets the position.
+     *
+     * @return The position as a full FEN, with its clocks.
+     */
+    public String getFen() {
+        return fen;
+    }
+
+    /**
+     * Sets up a new board in the position.
+     *
+     * @return The board.
+     */
+    public AbstractBoard createBoard() {
+        return new BitBoard(fen);
+    }
+
+    /**
+     * Gets the name of the position from its id operation.
+     *
+     * @return The id, or null if the line has none.
+     */
+    public String getId() {
+        List<String> operands = operations.get("id");
+        return operands == null || operands.isEmpty() ? null : operands.get(0);
+    }
+
+    /**
+     * Gets the operands of an operation.
+     *
+     * @param opcode The opcode, for example "c0".
+     * @return The operands, or null if the line does not have the operation.
+     */
+    public List<String> getOperation(String opcode) {
+        return operations.get(opcode);
+    }
+
+    /**
+     * Gets the moves of the bm operation.
+     *
+     * @return The packed best moves; empty if the line has none.
+     */
+    public int[] getBestMoves() {
+        return bestMoves.clone();
+    }
+
+    /**
+     * Gets the moves of the am operation.
+     *
+     * @return The packed moves to avoid; empty if the line has none.
+     */
+    public int[] getAvoidMoves() {
+        return avoidMoves.clone();
+    }
+
+    /**
+     * Checks if the position has a bm or am operation to test a move against.
+     *
+     * @return True if a move can be judged.
+     */
+    public boolean hasTest() {
+        return bestMoves.length > 0 || avoidMoves.length > 0;
+    }
+
+    /**
+     * Checks if a move solves the position: it is one of the best moves, if any are given,
+     * and none of the moves to avoid.
+     *
+     * @param move The packed move.
+     * @return True if the move is right.
+     */
+    public boolean isSolvedBy(int move) {
+        if (move == Move.NONE || contains(avoidMoves, move)) {
+            return false;
+        }
+        return bestMoves.length == 0 || contains(bestMoves, move);
+    }
+
+    private static boolean contains(int[] moves, int move) {
+        for (int candidate : moves) {
+            if (Move.withoutFlags(candidate) == Move.withoutFlags(move)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Splits the operations into opcodes and operands. Operations end with ";" and a quoted
+     * operand may contain spaces and semicolons.
+     */
+    private static Map<String, List<String>> parseOperations(String text, String line) {
+        Map<String, List<String>> operations = new LinkedHashMap<>();
+        List<String> tokens = new ArrayList<>();
+        int length = text.length();
+        int i = 0;
+        while (i <= length) {
+            char c = i < length ? text.charAt(i) : ';';
+            if (c == ';') {
+                if (!tokens.isEmpty()) {
+                    operations.put(tokens.get(0), Collections.unmodifiableList(
+                            new ArrayList<>(tokens.subList(1, tokens.size()))));
+                    tokens.clear();
+                }
+                i++;
+            } else if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '"') {
+                int end = text.indexOf('"', i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated string in EPD: " + line);
+                }
+                tokens.add(text.substring(i + 1, end));
+                i = end + 1;
+            } else {
+                int start = i;
+                while (i < length && !Character.isWhitespace(text.charAt(i)) && text.charAt(i) != ';') {
+                    i++;
+                }
+                tokens.add(text.substring(start, i));
+            }
+        }
+        return operations;
+    }
+
+    private static String firstOperand(Map<String, List<String>> operations, String opcode, String line) {
+        List<String> operands = operations.get(opcode);
+        if (operands.isEmpty()) {
+            throw new IllegalArgumentException("Missing " + opcode + " operand in EPD: " + line);
+        }
+        return operands.get(0);
+    }
+
+    private static int[] resolveMoves(AbstractBoard board, List<String> operands, String line) {
+        if (operands == null) {
+            return new int[0];
+        }
+        int[] moves = new int[operands.size()];
+        for (int i = 0; i < moves.length; i++) {
+            try {
+                moves[i] = San.parse(board, operands.get(i));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(e.getMessage() + " in EPD: " + line, e);
+            }
+        }
+        return moves;
+    }
+}
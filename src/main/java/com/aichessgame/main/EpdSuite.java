@@ -0,0 +1,360 @@
+package com.aichessgame.main;
+
+import com.aichessgame.engine.Engine;
+import com.aichessgame.engine.SearchLimits;
+import com.aichessgame.engine.TranspositionTable;
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.Move;
+import com.aichessgame.model.San;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a test suite of EPD positions: the engine searches each position with the same budget
+ * and a position is solved if the move it plays is one of the bm moves and none of the am moves.
+ * The solve rate tracks playing strength and the aggregate nodes per second tracks speed.
+ *
+ * Positions are independent, so they are shared out over worker threads, each with its own
+ * single-threaded Engine and transposition table. Every worker takes the next unsearched
+ * position until none are left, and the table is cleared before each position, so a position's
+ * result under a node or depth limit does not depend on the thread count or the order.
+ *
+ * Usage:
+ *   EpdSuite file [options]
+ * Options:
+ *   --nodes count       Searches each position for this many nodes (the default is 1000000).
+ *   --time ms           Searches each position for this many milliseconds instead.
+ *   --depth plies       Searches each position to this depth instead.
+ *   --threads count     The number of positions searched at once (the default is one per core).
+ *   --hash megabytes    The transposition table size of each worker (the default is 16).
+ *   --verbose           Prints every position, not only the unsolved ones.
+ */
+public class EpdSuite {
+    private static final long DEFAULT_NODES = 1_000_000;
+    private static final int DEFAULT_HASH_MB = 16;
+
+    private final List<EpdPosition> positions;
+
+    /**
+     * Constructor for the EpdSuite class.
+     *
+     * @param positions The positions to test; those without a bm or am operation are skipped.
+     */
+    public EpdSuite(List<EpdPosition> positions) {
+        List<EpdPosition> tests = new ArrayList<>();
+        for (EpdPosition position : positions) {
+            if (position.hasTest()) {
+                tests.add(position);
+            }
+        }
+        this.positions = List.copyOf(tests);
+    }
+
+    /**
+     * Reads an EPD file. Blank lines and lines starting with "#" are skipped.
+     *
+     * @param path The EPD file.
+     * @return The suite.
+     * @throws IOException              If the file cannot be read.
+     * @throws IllegalArgumentException If a line is not valid EPD, with its line number.
+     */
+    public static EpdSuite load(Path path) throws IOException {
+        List<EpdPosition> positions = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.trim().startsWith("#")) {
+                    continue;
+                }
+                try {
+                    positions.add(EpdPosition.parse(line));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(path + ":" + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return new EpdSuite(positions);
+    }
+
+    /**
+     * Gets the positions the suite tests.
+     *
+     * @return The positions with a bm or am operation, in file order; unmodifiable.
+     */
+    public List<EpdPosition> getPositions() {
+        return positions;
+    }
+
+    /**
+     * Searches every position.
+     *
+     * @param limits     The budget of each position's search.
+     * @param threads    The number of positions searched at once.
+     * @param hashSizeMb The transposition table size of each worker in megabytes.
+     * @return The move played and the nodes searched in each position.
+     */
+    public Result run(SearchLimits limits, int threads, int hashSizeMb) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        int count = positions.size();
+        int[] moves = new int[count];
+        long[] nodes = new long[count];
+        AtomicInteger next = new AtomicInteger();
+
+        int workers = Math.max(1, Math.min(threads, count));
+        AtomicInteger workerCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "epd-worker-" + workerCount.incrementAndGet());
+            thread.setDaemon(true); // Never keep the application alive
+            return thread;
+        });
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < workers; w++) {
+                futures.add(pool.submit(() -> {
+                    TranspositionTable table = new TranspositionTable(hashSizeMb);
+                    Engine engine = new Engine(table);
+                    for (int i = next.getAndIncrement(); i < count; i = next.getAndIncrement()) {
+                        table.clear();
+                        AbstractBoard board = positions.get(i).createBoard();
+                        moves[i] = engine.findBestMove(board, board.getSideToMove(), limits);
+                        nodes[i] = engine.getNodes();
+                    }
+                }));
+            }
+            // Future.get makes the workers' writes to the arrays visible here
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("EPD suite interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("EPD search failed: " + e.getCause(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return new Result(positions, moves, nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * The outcome of a run: the move played in each position and the totals.
+     */
+    public static class Result {
+        private final List<EpdPosition> positions;
+        private final int[] moves;         // Move played in each position, Move.NONE if it had none
+        private final long[] nodes;        // Nodes searched in each position
+        private final long elapsedNanos;   // Wall-clock time of the whole run
+
+        Result(List<EpdPosition> positions, int[] moves, long[] nodes, long elapsedNanos) {
+            this.positions = positions;
+            this.moves = moves;
+            this.nodes = nodes;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Gets the number of positions searched.
+         *
+         * @return The position count.
+         */
+        public int getPositionCount() {
+            return positions.size();
+        }
+
+        /**
+         * Gets the move played in a position.
+         *
+         * @param index The index of the position in the suite.
+         * @return The packed move, or Move.NONE if the position had no legal moves.
+         */
+        public int getMove(int index) {
+            return moves[index];
+        }
+
+        /**
+         * Checks if a position was solved.
+         *
+         * @param index The index of the position in the suite.
+         * @return True if the move played was right.
+         */
+        public boolean isSolved(int index) {
+            return positions.get(index).isSolvedBy(moves[index]);
+        }
+
+        /**
+         * Gets the number of positions solved.
+         *
+         * @return The solved count.
+         */
+        public int getSolvedCount() {
+            int solved = 0;
+            for (int i = 0; i < moves.length; i++) {
+                if (isSolved(i)) {
+                    solved++;
+                }
+            }
+            return solved;
+        }
+
+        /**
+         * Gets the share of positions solved.
+         *
+         * @return The solve rate from 0.0 to 1.0, or 0.0 for an empty suite.
+         */
+        public double getSolveRate() {
+            return moves.length == 0 ? 0.0 : (double) getSolvedCount() / moves.length;
+        }
+
+        /**
+         * Gets the nodes searched in one position.
+         *
+         * @param index The index of the position in the suite.
+         * @return The node count.
+         */
+        public long getNodes(int index) {
+            return nodes[index];
+        }
+
+        /**
+         * Gets the nodes searched in all positions.
+         *
+         * @return The total node count.
+         */
+        public long getTotalNodes() {
+            long total = 0;
+            for (long count : nodes) {
+                total += count;
+            }
+            return total;
+        }
+
+        /**
+         * Gets the wall-clock time of the run.
+         *
+         * @return The time in nanoseconds.
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Gets the aggregate speed: the nodes of all workers divided by the wall-clock time.
+         *
+         * @return The nodes per second.
+         */
+        public long getNodesPerSecond() {
+            return (long) (getTotalNodes() / Math.max(elapsedNanos / 1e9, 1e-9));
+        }
+    }
+
+    public static void main(String[] args) {
+        String file = null;
+        long nodes = 0;
+        long timeMillis = 0;
+        int depth = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int hashSizeMb = DEFAULT_HASH_MB;
+        boolean verbose = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--nodes") && i + 1 < args.length) {
+                    nodes = Long.parseLong(args[++i]);
+                } else if (args[i].equals("--time") && i + 1 < args.length) {
+                    timeMillis = Long.parseLong(args[++i]);
+                } else if (args[i].equals("--depth") && i + 1 < args.length) {
+                    depth = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--threads") && i + 1 < args.length) {
+                    threads = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--hash") && i + 1 < args.length) {
+                    hashSizeMb = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--verbose")) {
+                    verbose = true;
+                } else if (file == null) {
+                    file = args[i];
+                } else {
+                    System.out.println("Unknown argument: " + args[i]);
+                    return;
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid number: " + e.getMessage());
+            return;
+        }
+
+        if (file == null) {
+            System.out.println("Usage: EpdSuite <file> [options]");
+            System.out.println("Options: --nodes <count>, --time <ms>, --depth <plies>, --threads <count>, "
+                    + "--hash <megabytes>, --verbose");
+            return;
+        }
+        if (nodes == 0 && timeMillis == 0 && depth == 0) {
+            nodes = DEFAULT_NODES;
+        }
+
+        EpdSuite suite;
+        SearchLimits limits;
+        try {
+            suite = load(Paths.get(file));
+            limits = new SearchLimits(depth, nodes, timeMillis);
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+
+        Result result = suite.run(limits, threads, hashSizeMb);
+        for (int i = 0; i < result.getPositionCount(); i++) {
+            if (verbose || !result.isSolved(i)) {
+                printPosition(suite.getPositions().get(i), result, i);
+            }
+        }
+
+        System.out.println();
+        System.out.printf("Solved: %d/%d (%.1f%%)%n", result.getSolvedCount(), result.getPositionCount(),
+                result.getSolveRate() * 100);
+        System.out.println("Nodes: " + result.getTotalNodes());
+        System.out.println("Time: " + result.getElapsedNanos() / 1_000_000 + " ms");
+        System.out.println("Nodes per second: " + result.getNodesPerSecond());
+    }
+
+    /**
+     * Prints one position's outcome, with the moves in SAN.
+     */
+    private static void printPosition(EpdPosition position, Result result, int index) {
+        AbstractBoard board = position.createBoard();
+        int move = result.getMove(index);
+        StringBuilder line = new StringBuilder(result.isSolved(index) ? "PASS " : "FAIL ");
+        line.append(position.getId() != null ? position.getId() : position.getFen());
+        line.append(": played ").append(move == Move.NONE ? "none" : San.format(board, move));
+        appendMoves(line, " bm", board, position.getBestMoves());
+        appendMoves(line, " am", board, position.getAvoidMoves());
+        line.append(" (").append(result.getNodes(index)).append(" nodes)");
+        System.out.println(line);
+    }
+
+    private static void appendMoves(StringBuilder line, String opcode, AbstractBoard board, int[] moves) {
+        if (moves.length == 0) {
+            return;
+        }
+        line.append(',').append(opcode);
+        for (int move : moves) {
+            line.append(' ').append(San.format(board, move));
+        }
+    }
+}
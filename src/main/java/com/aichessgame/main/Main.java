@@ -2,7 +2,7 @@
 package com.aichessgame.main;
 
 import com.aichessgame.controller.GameController;
-import com.aichessgame.model.Board;
+import com.aichessgame.model.AbstractBoard;
 import com.aichessgame.model.Piece;
 import com.aichessgame.utils.Color;
 import com.aichessgame.utils.Position;
@@ -11,13 +11,19 @@ import java.util.Scanner;
 
 /**
  * Main class for manually testing the chess game.
+ * Run with the argument "uci" to speak the Universal Chess Interface instead, see Uci.
  */
 public class Main {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length > 0 && args[0].equalsIgnoreCase("uci")) {
+            Uci.main(args);
+            return;
+        }
+
         // Initialize the game controller
         GameController gameController = new GameController();
-        Board board = gameController.getBoard();
+        AbstractBoard board = gameController.getBoard();
 
         // Create a scanner for user input
         Scanner scanner = new Scanner(System.in);
@@ -80,7 +86,7 @@ public class Main {
      *
      * @param board The current state of the board.
      */
-    private static void displayBoard(Board board) {
+    private static void displayBoard(AbstractBoard board) {
         String[][] boardRepresentation = new String[8][8];
 
         for (int row = 0; row < 8; row++) {
@@ -149,6 +155,6 @@ public class Main {
             return null;
         }
 
-        return new Position(row, column);
+        return Position.of(row, column);
     }
 }
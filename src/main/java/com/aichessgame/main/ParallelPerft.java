@@ -0,0 +1,169 @@
+package com.aichessgame.main;
+
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.MoveList;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs perft on a ForkJoinPool.
+ * The subtrees under the root moves and under each second-ply move become separate tasks,
+ * each working on its own copy of the board, so no board is ever shared between threads.
+ * Subtrees below the split plies are counted sequentially by a Perft instance owned by the task.
+ */
+public class ParallelPerft {
+    private static final int SPLIT_PLIES = 2;     // Number of plies whose moves are split into tasks
+    private static final int MIN_SPLIT_DEPTH = 3; // Subtrees shallower than this are not worth a task per move
+
+    private final ForkJoinPool pool;
+    private final PerftHash hash;                                  // Shared table of subtree counts, may be null
+    private final Map<String, LongAdder> threadNodes = new ConcurrentHashMap<>(); // Nodes counted by each worker
+
+    /**
+     * Constructor for the ParallelPerft class.
+     *
+     * @param threads The number of worker threads.
+     * @param hash    A table of subtree counts shared by all workers, or null for none.
+     */
+    public ParallelPerft(int threads, PerftHash hash) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        this.pool = new ForkJoinPool(threads);
+        this.hash = hash;
+    }
+
+    /**
+     * Counts the leaf nodes at a given depth below a position.
+     *
+     * @param board The position to start from. It is copied, not modified.
+     * @param depth The number of plies to search.
+     * @return The number of leaf nodes.
+     */
+    public long count(AbstractBoard board, int depth) {
+        return pool.invoke(new SubtreeTask(board.copy(), depth, 0));
+    }
+
+    /**
+     * Counts the leaf nodes under each root move.
+     *
+     * @param board     The position to start from. It is copied, not modified.
+     * @param depth     The number of plies to search, at least 1.
+     * @param rootMoves The list to fill with the root moves.
+     * @return The node count under each root move, in the same order as rootMoves.
+     */
+    public long[] divide(AbstractBoard board, int depth, MoveList rootMoves) {
+        rootMoves.clear();
+        board.generateLegalMoves(board.getSideToMove(), rootMoves);
+
+        SubtreeTask[] tasks = new SubtreeTask[rootMoves.size()];
+        for (int i = 0; i < tasks.length; i++) {
+            AbstractBoard child = board.copy();
+            child.makeMove(rootMoves.get(i));
+            tasks[i] = new SubtreeTask(child, depth - 1, 1);
+        }
+        long[] counts = new long[tasks.length];
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                invokeAll(tasks);
+                return null;
+            }
+        });
+        for (int i = 0; i < tasks.length; i++) {
+            counts[i] = tasks[i].join();
+        }
+        return counts;
+    }
+
+    /**
+     * Gets the nodes counted by each worker thread since the last reset.
+     *
+     * @return The node counts keyed by thread name.
+     */
+    public Map<String, Long> getThreadNodes() {
+        Map<String, Long> result = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : threadNodes.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().sum());
+        }
+        return result;
+    }
+
+    /**
+     * Clears the per-thread node counts.
+     */
+    public void resetThreadNodes() {
+        threadNodes.clear();
+    }
+
+    /**
+     * Gets how evenly the work was spread: the busiest thread's nodes divided by the average.
+     * 1.0 is a perfect balance.
+     *
+     * @return The load imbalance factor, or 1.0 if nothing was counted.
+     */
+    public double getLoadImbalance() {
+        Map<String, Long> nodes = getThreadNodes();
+        long max = 0;
+        long total = 0;
+        for (long count : nodes.values()) {
+            max = Math.max(max, count);
+            total += count;
+        }
+        return total == 0 ? 1.0 : (double) max * pool.getParallelism() / total;
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Counts one subtree, either by splitting it into a task per move or sequentially.
+     */
+    private class SubtreeTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final AbstractBoard board; // Owned by this task
+        private final int depth;
+        private final int ply;
+
+        SubtreeTask(AbstractBoard board, int depth, int ply) {
+            this.board = board;
+            this.depth = depth;
+            this.ply = ply;
+        }
+
+        @Override
+        protected Long compute() {
+            if (ply >= SPLIT_PLIES || depth < MIN_SPLIT_DEPTH) {
+                long nodes = new Perft(board, depth, hash).count(depth);
+                threadNodes.computeIfAbsent(Thread.currentThread().getName(), name -> new LongAdder()).add(nodes);
+                return nodes;
+            }
+
+            MoveList moves = new MoveList();
+            board.generateLegalMoves(board.getSideToMove(), moves);
+            SubtreeTask[] children = new SubtreeTask[moves.size()];
+            for (int i = 0; i < children.length; i++) {
+                AbstractBoard child = board.copy();
+                child.makeMove(moves.get(i));
+                children[i] = new SubtreeTask(child, depth - 1, ply + 1);
+            }
+            invokeAll(children);
+
+            long nodes = 0;
+            for (SubtreeTask child : children) {
+                nodes += child.join();
+            }
+            return nodes;
+        }
+    }
+}
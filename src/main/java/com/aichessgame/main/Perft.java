@@ -0,0 +1,279 @@
+package com.aichessgame.main;
+
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.BitBoard;
+import com.aichessgame.model.Board;
+import com.aichessgame.model.Move;
+import com.aichessgame.model.MoveList;
+
+import java.util.Map;
+
+/**
+ * Counts the leaf nodes of the legal move tree (perft) to verify and benchmark move generation.
+ *
+ * Usage:
+ *   Perft depth [fen] [options]   Prints the node count under each root move ("divide"), the total and nodes per second.
+ *   Perft check [options]         Runs the standard reference positions and reports PASS or FAIL for each.
+ * Options:
+ *   --map               Runs on the map-backed Board instead of the BitBoard.
+ *   --threads count     Splits the tree over a ForkJoinPool and reports the nodes counted per thread.
+ *   --hash megabytes    Caches subtree counts in a table shared by all threads.
+ */
+public class Perft {
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    // Reference positions with their known node counts for depths 1, 2, 3, ...
+    private static final String[] REFERENCE_FENS = {
+            START_FEN,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10"
+    };
+    private static final long[][] REFERENCE_COUNTS = {
+            {20, 400, 8902, 197281, 4865609},
+            {48, 2039, 97862, 4085603},
+            {14, 191, 2812, 43238, 674624, 11030083},
+            {6, 264, 9467, 422333},
+            {44, 1486, 62379, 2103487},
+            {46, 2079, 89890, 3894594}
+    };
+
+    private final AbstractBoard board;  // The board the moves are made on
+    private final MoveList[] moveLists; // One reusable move list per ply
+    private final PerftHash hash;       // Optional table of subtree counts, may be null
+
+    /**
+     * Constructor for the Perft class.
+     *
+     * @param board    The board to count moves on. Moves are made and taken back in place.
+     * @param maxDepth The deepest search that will be requested.
+     */
+    public Perft(AbstractBoard board, int maxDepth) {
+        this(board, maxDepth, null);
+    }
+
+    /**
+     * Constructor for the Perft class with a table of subtree counts.
+     *
+     * @param board    The board to count moves on. Moves are made and taken back in place.
+     * @param maxDepth The deepest search that will be requested.
+     * @param hash     The table to look up and store subtree counts in, or null for none.
+     */
+    public Perft(AbstractBoard board, int maxDepth, PerftHash hash) {
+        this.board = board;
+        this.hash = hash;
+        this.moveLists = new MoveList[Math.max(maxDepth, 1)];
+        for (int i = 0; i < moveLists.length; i++) {
+            moveLists[i] = new MoveList();
+        }
+    }
+
+    /**
+     * Counts the leaf nodes at a given depth below the current position.
+     *
+     * @param depth The number of plies to search.
+     * @return The number of leaf nodes.
+     */
+    public long count(int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+
+        long key = 0;
+        if (hash != null && depth > 1) {
+            key = board.getZobristKey();
+            long cached = hash.probe(key, depth);
+            if (cached >= 0) {
+                return cached;
+            }
+        }
+
+        MoveList moves = moveLists[depth - 1];
+        moves.clear();
+        board.generateLegalMoves(board.getSideToMove(), moves);
+
+        // The moves at the last ply are all legal, so they can be counted without making them
+        if (depth == 1) {
+            return moves.size();
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            nodes += count(depth - 1);
+            board.unmakeMove();
+        }
+
+        if (hash != null) {
+            hash.store(key, depth, nodes);
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts the leaf nodes under each root move and prints them.
+     *
+     * @param depth The number of plies to search.
+     * @return The total number of leaf nodes.
+     */
+    public long divide(int depth) {
+        MoveList rootMoves = new MoveList();
+        board.generateLegalMoves(board.getSideToMove(), rootMoves);
+
+        long total = 0;
+        for (int i = 0; i < rootMoves.size(); i++) {
+            int move = rootMoves.get(i);
+            board.makeMove(move);
+            long nodes = count(depth - 1);
+            board.unmakeMove();
+            System.out.println(Move.toString(move) + ": " + nodes);
+            total += nodes;
+        }
+        return total;
+    }
+
+    public static void main(String[] args) {
+        boolean useMapBoard = false;
+        int threads = 1;
+        int hashSizeMb = 0;
+        String mode = null;
+        StringBuilder fen = new StringBuilder();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--map")) {
+                    useMapBoard = true;
+                } else if (args[i].equals("--threads") && i + 1 < args.length) {
+                    threads = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--hash") && i + 1 < args.length) {
+                    hashSizeMb = Integer.parseInt(args[++i]);
+                } else if (mode == null) {
+                    mode = args[i];
+                } else {
+                    fen.append(fen.length() > 0 ? " " : "").append(args[i]);
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid number: " + e.getMessage());
+            return;
+        }
+
+        if (mode == null) {
+            System.out.println("Usage: Perft <depth> [fen] [options] | Perft check [options]");
+            System.out.println("Options: --map, --threads <count>, --hash <megabytes>");
+            return;
+        }
+
+        PerftHash hash = hashSizeMb > 0 ? new PerftHash(hashSizeMb) : null;
+        ParallelPerft parallelPerft = threads > 1 ? new ParallelPerft(threads, hash) : null;
+        try {
+            if (mode.equals("check")) {
+                if (!runReferencePositions(useMapBoard, parallelPerft, hash)) {
+                    System.exit(1);
+                }
+                return;
+            }
+
+            int depth;
+            try {
+                depth = Integer.parseInt(mode);
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid depth: " + mode);
+                return;
+            }
+
+            AbstractBoard board = createBoard(fen.length() > 0 ? fen.toString() : START_FEN, useMapBoard);
+            long start = System.nanoTime();
+            long nodes;
+            if (parallelPerft != null) {
+                MoveList rootMoves = new MoveList();
+                long[] counts = parallelPerft.divide(board, depth, rootMoves);
+                nodes = 0;
+                for (int i = 0; i < rootMoves.size(); i++) {
+                    System.out.println(Move.toString(rootMoves.get(i)) + ": " + counts[i]);
+                    nodes += counts[i];
+                }
+            } else {
+                nodes = new Perft(board, depth, hash).divide(depth);
+            }
+            long elapsed = System.nanoTime() - start;
+
+            System.out.println();
+            System.out.println("Nodes: " + nodes);
+            System.out.println("Time: " + elapsed / 1_000_000 + " ms");
+            System.out.println("Nodes per second: " + (long) (nodes / Math.max(elapsed / 1e9, 1e-9)));
+            if (parallelPerft != null) {
+                printThreadNodes(parallelPerft);
+            }
+        } finally {
+            if (parallelPerft != null) {
+                parallelPerft.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Runs every reference position to every known depth and compares the node counts.
+     *
+     * @param useMapBoard True to use the map-backed Board instead of the BitBoard.
+     * @return True if every count matched.
+     */
+    public static boolean runReferencePositions(boolean useMapBoard) {
+        return runReferencePositions(useMapBoard, null, null);
+    }
+
+    /**
+     * Runs every reference position to every known depth and compares the node counts.
+     *
+     * @param useMapBoard   True to use the map-backed Board instead of the BitBoard.
+     * @param parallelPerft The parallel counter to use, or null to count on this thread.
+     * @param hash          The table of subtree counts for single-threaded counting, or null for none.
+     * @return True if every count matched.
+     */
+    public static boolean runReferencePositions(boolean useMapBoard, ParallelPerft parallelPerft, PerftHash hash) {
+        boolean allPassed = true;
+        long totalNodes = 0;
+        long start = System.nanoTime();
+
+        for (int i = 0; i < REFERENCE_FENS.length; i++) {
+            AbstractBoard board = createBoard(REFERENCE_FENS[i], useMapBoard);
+            Perft perft = new Perft(board, REFERENCE_COUNTS[i].length, hash);
+            for (int depth = 1; depth <= REFERENCE_COUNTS[i].length; depth++) {
+                long expected = REFERENCE_COUNTS[i][depth - 1];
+                long actual = parallelPerft != null ? parallelPerft.count(board, depth) : perft.count(depth);
+                totalNodes += actual;
+                if (actual == expected) {
+                    System.out.println("PASS: position " + (i + 1) + " depth " + depth + ": " + actual);
+                } else {
+                    System.out.println("FAIL: position " + (i + 1) + " depth " + depth + ": expected " + expected + " but got " + actual);
+                    allPassed = false;
+                }
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        System.out.println("Nodes: " + totalNodes + ", nodes per second: " + (long) (totalNodes / Math.max(elapsed / 1e9, 1e-9)));
+        if (parallelPerft != null) {
+            printThreadNodes(parallelPerft);
+        }
+        return allPassed;
+    }
+
+    /**
+     * Prints the nodes counted by each worker thread and how evenly they were spread.
+     */
+    private static void printThreadNodes(ParallelPerft parallelPerft) {
+        for (Map.Entry<String, Long> entry : parallelPerft.getThreadNodes().entrySet()) {
+            System.out.println(entry.getKey() + ": " + entry.getValue() + " nodes");
+        }
+        System.out.printf("Load imbalance (busiest / average): %.2f%n", parallelPerft.getLoadImbalance());
+    }
+
+    /**
+     * Creates a board of the requested implementation from a FEN.
+     */
+    private static AbstractBoard createBoard(String fen, boolean useMapBoard) {
+        return useMapBoard ? new Board(fen) : new BitBoard(fen);
+    }
+}
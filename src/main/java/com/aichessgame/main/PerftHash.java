@@ -0,0 +1,66 @@
+package com.aichessgame.main;
+
+/**
+ * A fixed-size table of perft subtree counts keyed by position key and depth.
+ * Entries live in two parallel long arrays and can be shared by many threads without locking:
+ * the stored key is XORed with the stored data, so an entry torn by a concurrent write
+ * fails the key check and is treated as a miss.
+ */
+public class PerftHash {
+    private final long[] keys; // Position key XOR data, per entry
+    private final long[] data; // Node count << 8 | depth, per entry
+    private final int mask;    // Entry count - 1
+
+    /**
+     * Constructor for the PerftHash class.
+     *
+     * @param sizeInMb The memory to use in megabytes. Rounded down to a power of two number of entries.
+     */
+    public PerftHash(int sizeInMb) {
+        if (sizeInMb <= 0) {
+            throw new IllegalArgumentException("Hash size must be positive: " + sizeInMb);
+        }
+        long entries = Long.highestOneBit(sizeInMb * 1024L * 1024L / 16);
+        int size = (int) Math.min(entries, 1 << 30);
+        keys = new long[size];
+        data = new long[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Looks up the node count of a position searched to a given depth.
+     *
+     * @param key   The position's Zobrist key.
+     * @param depth The depth of the subtree.
+     * @return The node count, or -1 if the entry is not in the table.
+     */
+    public long probe(long key, int depth) {
+        int index = index(key, depth);
+        long entry = data[index];
+        if ((keys[index] ^ entry) == key && (entry & 0xFF) == depth) {
+            return entry >>> 8;
+        }
+        return -1;
+    }
+
+    /**
+     * Stores the node count of a position, replacing whatever shared its slot.
+     *
+     * @param key   The position's Zobrist key.
+     * @param depth The depth of the subtree.
+     * @param nodes The node count.
+     */
+    public void store(long key, int depth, long nodes) {
+        int index = index(key, depth);
+        long entry = nodes << 8 | depth;
+        data[index] = entry;
+        keys[index] = key ^ entry;
+    }
+
+    /**
+     * Spreads the same position at different depths over different slots.
+     */
+    private int index(long key, int depth) {
+        return (int) (key ^ depth * 0x9E3779B97F4A7C15L) & mask;
+    }
+}
@@ -0,0 +1,402 @@
+package com.aichessgame.main;
+
+import com.aichessgame.engine.Engine;
+import com.aichessgame.engine.SearchLimits;
+import com.aichessgame.engine.TranspositionTable;
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.BitBoard;
+import com.aichessgame.model.Move;
+import com.aichessgame.model.MoveList;
+import com.aichessgame.utils.Color;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Universal Chess Interface front-end, so the engine can be driven by chess GUIs,
+ * tournament managers and testing tools instead of the console loop in Main.
+ *
+ * Commands are read on their own thread and searches run on another, so "stop",
+ * "ponderhit" and "isready" are answered while a search is running. Supported commands:
+ * uci, isready, ucinewgame, setoption (Hash, Threads), position (startpos or fen, with moves),
+ * go (depth, nodes, movetime, wtime, btime, winc, binc, movestogo, infinite, ponder),
+ * stop, ponderhit and quit. Every completed iteration is reported with an info line.
+ */
+public class Uci {
+    private static final String ENGINE_NAME = "aiChessGame";
+    private static final int DEFAULT_HASH_MB = 16;
+    private static final int MAX_HASH_MB = 65536;
+    private static final int MAX_THREADS = 256;
+    private static final int DEFAULT_MOVES_TO_GO = 30; // Moves the remaining time is shared among when the GUI does not say
+    private static final long MOVE_OVERHEAD_MILLIS = 50; // Time kept back for communication delays
+
+    private final BufferedReader input;
+    private final PrintStream output;
+    private final TranspositionTable transpositionTable = new TranspositionTable(DEFAULT_HASH_MB);
+    private final Engine engine = new Engine(transpositionTable);
+    private final ExecutorService searchThread;
+    private AbstractBoard board = new BitBoard(); // The position of the last valid "position" command
+
+    private Future<?> search;                 // The running or last search, or null
+    private boolean holdBestMove;             // True while pondering or searching infinitely; guarded by this
+    private long ponderTimeMillis;            // Time limit to start when the ponder move is played, or 0; guarded by this
+
+    /**
+     * Constructor for the Uci class.
+     *
+     * @param input  The stream the commands are read from.
+     * @param output The stream the responses are written to.
+     */
+    public Uci(InputStream input, PrintStream output) {
+        this.input = new BufferedReader(new InputStreamReader(input, StandardCharsets.US_ASCII));
+        this.output = output;
+        this.searchThread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "uci-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Thread reader = new Uci(System.in, System.out).start();
+        reader.join();
+    }
+
+    /**
+     * Starts reading commands on a new thread.
+     *
+     * @return The reader thread, which ends after "quit" or at the end of the input.
+     */
+    public Thread start() {
+        Thread reader = new Thread(this::run, "uci-reader");
+        reader.start();
+        return reader;
+    }
+
+    /**
+     * Reads and executes commands until "quit" or the end of the input.
+     */
+    private void run() {
+        engine.setSearchListener(this::sendInfo);
+        try {
+            String line;
+            while ((line = input.readLine()) != null) {
+                if (!execute(line.trim())) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            send("info string Input failed: " + e.getMessage());
+        } finally {
+            stopSearch();
+            engine.shutdown();
+            searchThread.shutdownNow();
+        }
+    }
+
+    /**
+     * Executes one command.
+     *
+     * @param line The command line.
+     * @return False if the command was "quit".
+     */
+    boolean execute(String line) {
+        String[] tokens = line.split("\\s+");
+        try {
+            switch (tokens[0]) {
+                case "uci" -> {
+                    send("id name " + ENGINE_NAME);
+                    send("id author the " + ENGINE_NAME + " developers");
+                    send("option name Hash type spin default " + DEFAULT_HASH_MB + " min 1 max " + MAX_HASH_MB);
+                    send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+                    send("option name Ponder type check default false");
+                    send("uciok");
+                }
+                case "isready" -> send("readyok");
+                case "ucinewgame" -> {
+                    stopSearch();
+                    transpositionTable.clear();
+                }
+                case "setoption" -> setOption(tokens);
+                case "position" -> {
+                    stopSearch();
+                    setPosition(tokens);
+                }
+                case "go" -> go(tokens);
+                case "stop" -> stopSearch();
+                case "ponderhit" -> ponderHit();
+                case "quit" -> {
+                    return false;
+                }
+                default -> {
+                    if (!line.isEmpty()) {
+                        send("info string Unknown command: " + line);
+                    }
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // A bad command must not end the session
+            send("info string " + e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * Handles "setoption name <name> value <value>".
+     */
+    private void setOption(String[] tokens) {
+        String name = null;
+        String value = null;
+        for (int i = 1; i < tokens.length - 1; i++) {
+            if (tokens[i].equals("name")) {
+                name = tokens[i + 1];
+            } else if (tokens[i].equals("value")) {
+                value = tokens[i + 1];
+            }
+        }
+        if (name == null) {
+            throw new IllegalArgumentException("Missing option name");
+        }
+        stopSearch();
+        switch (name.toLowerCase()) {
+            case "hash" -> transpositionTable.resize(clamp(parseNumber(value), 1, MAX_HASH_MB));
+            case "threads" -> engine.setThreads(clamp(parseNumber(value), 1, MAX_THREADS));
+            case "ponder" -> {
+                // Pondering needs no setup; the GUI decides when to send "go ponder"
+            }
+            default -> throw new IllegalArgumentException("Unknown option: " + name);
+        }
+    }
+
+    /**
+     * Handles "position [startpos | fen <fen>] [moves <move>...]".
+     * The position is set up on a new board that only replaces the current one once the FEN and
+     * every move have been accepted, so a bad command leaves the previous position in place.
+     */
+    private void setPosition(String[] tokens) {
+        int index = 1;
+        AbstractBoard position;
+        if (tokens.length > 1 && tokens[1].equals("startpos")) {
+            position = new BitBoard(Perft.START_FEN);
+            index = 2;
+        } else if (tokens.length > 1 && tokens[1].equals("fen")) {
+            StringBuilder fen = new StringBuilder();
+            for (index = 2; index < tokens.length && !tokens[index].equals("moves"); index++) {
+                fen.append(tokens[index]).append(' ');
+            }
+            position = new BitBoard(fen.toString());
+        } else {
+            throw new IllegalArgumentException("Expected startpos or fen");
+        }
+
+        if (index < tokens.length && tokens[index].equals("moves")) {
+            for (index++; index < tokens.length; index++) {
+                position.makeMove(parseMove(position, tokens[index]));
+            }
+        }
+        board = position;
+    }
+
+    /**
+     * Finds the legal move written in coordinate notation.
+     */
+    private static int parseMove(AbstractBoard board, String text) {
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(board.getSideToMove(), moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (Move.toString(moves.get(i)).equals(text)) {
+                return moves.get(i);
+            }
+        }
+        throw new IllegalArgumentException("Illegal move: " + text);
+    }
+
+    /**
+     * Handles "go" by starting a search on the search thread.
+     * While pondering or searching infinitely, the best move is held back until "stop" or "ponderhit",
+     * as the protocol requires, even if the search ends earlier.
+     */
+    private void go(String[] tokens) {
+        stopSearch();
+        int depth = 0;
+        long nodes = 0;
+        long moveTime = 0;
+        long[] times = new long[2];
+        long[] increments = new long[2];
+        int movesToGo = 0;
+        boolean infinite = false;
+        boolean ponder = false;
+        for (int i = 1; i < tokens.length; i++) {
+            switch (tokens[i]) {
+                case "depth" -> depth = clamp(parseNumber(next(tokens, i++)), 1, SearchLimits.MAX_DEPTH);
+                case "nodes" -> nodes = parseNumber(next(tokens, i++));
+                case "movetime" -> moveTime = parseNumber(next(tokens, i++));
+                case "wtime" -> times[Color.WHITE.ordinal()] = parseNumber(next(tokens, i++));
+                case "btime" -> times[Color.BLACK.ordinal()] = parseNumber(next(tokens, i++));
+                case "winc" -> increments[Color.WHITE.ordinal()] = parseNumber(next(tokens, i++));
+                case "binc" -> increments[Color.BLACK.ordinal()] = parseNumber(next(tokens, i++));
+                case "movestogo" -> movesToGo = (int) parseNumber(next(tokens, i++));
+                case "infinite" -> infinite = true;
+                case "ponder" -> ponder = true;
+                default -> throw new IllegalArgumentException("Unknown go parameter: " + tokens[i]);
+            }
+        }
+
+        Color color = board.getSideToMove();
+        long timeLimit = moveTime;
+        if (timeLimit == 0 && times[color.ordinal()] > 0) {
+            long remaining = times[color.ordinal()];
+            long share = remaining / (movesToGo > 0 ? movesToGo : DEFAULT_MOVES_TO_GO)
+                    + increments[color.ordinal()] * 3 / 4;
+            timeLimit = Math.max(1, Math.min(share, remaining - MOVE_OVERHEAD_MILLIS));
+        }
+
+        SearchLimits limits;
+        synchronized (this) {
+            holdBestMove = infinite || ponder;
+            ponderTimeMillis = ponder ? timeLimit : 0;
+            if (infinite || ponder || (depth == 0 && nodes == 0 && timeLimit == 0)) {
+                // The time limit of a ponder search only starts when the ponder move is played
+                limits = new SearchLimits(depth > 0 ? depth : SearchLimits.MAX_DEPTH, 0, 0);
+                holdBestMove = true;
+            } else {
+                limits = new SearchLimits(depth, nodes, timeLimit);
+            }
+        }
+
+        AbstractBoard searchBoard = board.copy();
+        search = searchThread.submit(() -> runSearch(searchBoard, color, limits));
+        // Wait until the engine has reset its stop flag, so an immediate "stop" is not lost
+        while (!engine.isSearching() && !search.isDone()) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Runs a search and sends its best move, on the search thread.
+     */
+    private void runSearch(AbstractBoard searchBoard, Color color, SearchLimits limits) {
+        int bestMove = engine.findBestMove(searchBoard, color, limits);
+        synchronized (this) {
+            while (holdBestMove) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        if (bestMove == Move.NONE) {
+            send("bestmove 0000");
+            return;
+        }
+        int[] line = engine.getPrincipalVariation();
+        if (line.length >= 2 && line[0] == bestMove) {
+            send("bestmove " + Move.toString(bestMove) + " ponder " + Move.toString(line[1]));
+        } else {
+            send("bestmove " + Move.toString(bestMove));
+        }
+    }
+
+    /**
+     * Handles "ponderhit": the opponent played the expected move, so the ponder search becomes
+     * a normal search and its time limit starts now.
+     */
+    private void ponderHit() {
+        synchronized (this) {
+            if (ponderTimeMillis > 0) {
+                engine.setTimeLimit(ponderTimeMillis);
+                ponderTimeMillis = 0;
+            }
+            holdBestMove = false;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Stops the running search, if any, and waits until it has sent its best move.
+     */
+    private void stopSearch() {
+        if (search == null) {
+            return;
+        }
+        engine.stop();
+        synchronized (this) {
+            holdBestMove = false;
+            ponderTimeMillis = 0;
+            notifyAll();
+        }
+        try {
+            search.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            send("info string Search failed: " + e.getCause());
+        }
+        search = null;
+    }
+
+    /**
+     * Sends an info line for a completed iteration; called on the search thread.
+     */
+    private void sendInfo(int depth, int score, long nodes, long timeMillis, int[] principalVariation) {
+        StringBuilder line = new StringBuilder("info depth ").append(depth);
+        if (Math.abs(score) >= Engine.MATE_SCORE - SearchLimits.MAX_DEPTH * 2) {
+            // Mate scores count plies to mate; UCI counts full moves, negative when being mated
+            int plies = Engine.MATE_SCORE - Math.abs(score);
+            line.append(" score mate ").append(score > 0 ? (plies + 1) / 2 : -(plies / 2));
+        } else {
+            line.append(" score cp ").append(score);
+        }
+        line.append(" nodes ").append(nodes)
+                .append(" nps ").append(timeMillis > 0 ? nodes * 1000 / timeMillis : nodes)
+                .append(" time ").append(timeMillis)
+                .append(" hashfull ").append(transpositionTable.hashfull());
+        if (principalVariation.length > 0) {
+            line.append(" pv");
+            for (int move : principalVariation) {
+                line.append(' ').append(Move.toString(move));
+            }
+        }
+        send(line.toString());
+    }
+
+    /**
+     * Writes one line to the GUI. Both threads write, so lines are never interleaved.
+     */
+    private synchronized void send(String line) {
+        output.println(line);
+        output.flush();
+    }
+
+    private static String next(String[] tokens, int index) {
+        if (index + 1 >= tokens.length) {
+            throw new IllegalArgumentException("Missing value after " + tokens[index]);
+        }
+        return tokens[index + 1];
+    }
+
+    private static long parseNumber(String text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Missing number");
+        }
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number: " + text);
+        }
+    }
+
+    private static int clamp(long value, int min, int max) {
+        return (int) Math.max(min, Math.min(value, max));
+    }
+}
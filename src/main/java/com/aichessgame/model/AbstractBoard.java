@@ -0,0 +1,1241 @@
+package com.aichessgame.model;
+import com.aichessgame.utils.Color;
+import com.aichessgame.utils.Position;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Base class for chessboard implementations.
+ * Holds the rules for moving pieces and detecting checks, while subclasses
+ * decide how the pieces are actually stored.
+ */
+public abstract class AbstractBoard {
+    protected Position enPassantTarget;            // The position where en passant is possible
+    protected Map<Color, Position> kingPositions;  // Tracks the kings' positions
+    protected int castlingRights = ALL_CASTLING;   // Bitmask of the castling moves still allowed
+    protected Color sideToMove = Color.WHITE;      // The color whose turn it is
+    protected long zobristKey;                     // Zobrist key of the position, updated with every move
+    protected int halfmoveClock;                   // Moves since the last capture or pawn move, for the fifty-move rule
+    protected int fullmoveNumber = 1;              // Number of the current move, incremented after Black moves
+
+    // Castling rights flags
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    public static final int ALL_CASTLING = WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE;
+
+    // Castling rights kept when a piece moves from or to each square
+    private static final int[] CASTLING_MASKS = new int[64];
+
+    // Undo stack: one packed state per move, plus the pieces that cannot be packed into an int and the previous Zobrist key.
+    // State layout: from (6 bits) | to (6) | previous en passant square (7, 64 = none) |
+    // previous castling rights (4) | flags (moved piece had moved, rook had moved, castling, promotion, en passant)
+    private int[] undoStates = new int[32];
+    private Piece[] undoMovedPieces = new Piece[32];
+    private Piece[] undoCapturedPieces = new Piece[32];
+    private long[] undoKeys = new long[32];
+    private int[] undoHalfmoveClocks = new int[32];
+    private int undoCount;
+    private long[] priorKeys = NO_KEYS; // Keys of positions before the first undo record that a repetition can reach, oldest first
+
+    private final MoveList legalityMoves = new MoveList(32); // Scratch list for isLegalMove
+
+    // Evaluation terms, updated by subclasses through pieceAdded and pieceRemoved whenever a piece is stored or cleared
+    private final int[] pieceCounts = new int[12];  // Number of pieces indexed by color * 6 + piece type
+    private int middlegameScore;                    // White minus black middlegame material and piece-square values
+    private int endgameScore;                       // White minus black endgame material and piece-square values
+    private int phase;                              // Sum of the phase weights of all pieces on the board
+    private long pawnKey;                           // Zobrist key of the pawns alone, for the pawn structure cache
+    private final long[] pawns = new long[2];       // Bitboard of the pawns of each color
+    private final int[] kingSquares = new int[2];   // Square index of each color's king
+
+    private static final int NO_SQUARE = 64;
+    private static final long[] NO_KEYS = new long[0];
+    private static final int FLAG_HAD_MOVED = 1 << 23;
+    private static final int FLAG_ROOK_HAD_MOVED = 1 << 24;
+    private static final int FLAG_CASTLING = 1 << 25;
+    private static final int FLAG_PROMOTION = 1 << 26;
+    private static final int FLAG_EN_PASSANT = 1 << 27;
+
+    // Directions of the eight rays a sliding piece can attack along
+    private static final int[] RAY_ROW_DIRECTIONS = {-1, -1, -1, 0, 0, 1, 1, 1};
+    private static final int[] RAY_COLUMN_DIRECTIONS = {-1, 0, 1, -1, 1, -1, 0, 1};
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            CASTLING_MASKS[square] = ALL_CASTLING;
+        }
+        CASTLING_MASKS[0] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASKS[4] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASKS[7] &= ~WHITE_KINGSIDE;
+        CASTLING_MASKS[56] &= ~BLACK_QUEENSIDE;
+        CASTLING_MASKS[60] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASKS[63] &= ~BLACK_KINGSIDE;
+    }
+
+    /**
+     * Constructor for the AbstractBoard class.
+     */
+    protected AbstractBoard() {
+        kingPositions = new HashMap<>();
+    }
+
+    /**
+     * Copies the en passant target, castling rights and king positions from another board.
+     * The undo stack is not copied, so the copy cannot take back the other board's moves, but the
+     * keys of the earlier positions a repetition can still return to are, so isRepetition on the
+     * copy sees the game's history as well as its own moves.
+     *
+     * @param other The board to copy the state from.
+     */
+    protected void copyStateFrom(AbstractBoard other) {
+        // Positions are immutable, so they can be shared with the other board
+        this.enPassantTarget = other.enPassantTarget;
+
+        this.castlingRights = other.castlingRights;
+        this.sideToMove = other.sideToMove;
+        this.zobristKey = other.zobristKey;
+        this.halfmoveClock = other.halfmoveClock;
+        this.fullmoveNumber = other.fullmoveNumber;
+        int reachable = other.getReachablePlies();
+        if (reachable == 0) {
+            this.priorKeys = NO_KEYS;
+        } else {
+            this.priorKeys = new long[reachable];
+            for (int distance = reachable; distance > 0; distance--) {
+                this.priorKeys[reachable - distance] = other.getKeyBefore(distance);
+            }
+        }
+
+        System.arraycopy(other.pieceCounts, 0, this.pieceCounts, 0, pieceCounts.length);
+        this.middlegameScore = other.middlegameScore;
+        this.endgameScore = other.endgameScore;
+        this.phase = other.phase;
+        this.pawnKey = other.pawnKey;
+        System.arraycopy(other.pawns, 0, this.pawns, 0, pawns.length);
+        System.arraycopy(other.kingSquares, 0, this.kingSquares, 0, kingSquares.length);
+
+        // Copy kingPositions
+        this.kingPositions = new HashMap<>(other.kingPositions);
+    }
+
+    /**
+     * Helper method to create a copy of a piece.
+     *
+     * @param piece The piece to copy.
+     * @return A new Piece instance with the same properties.
+     */
+    protected static Piece copyPiece(Piece piece) {
+        Piece pieceCopy = createPiece(piece.getPieceType(), piece.getColor(), piece.getPosition());
+
+        // Set hasMoved flag
+        if (piece.hasMoved()) {
+            pieceCopy.hasMoved = true;
+        }
+
+        return pieceCopy;
+    }
+
+    /**
+     * Creates a new piece of a given type.
+     *
+     * @param type     The type of the piece.
+     * @param color    The color of the piece.
+     * @param position The position of the piece.
+     * @return The new piece.
+     */
+    protected static Piece createPiece(PieceType type, Color color, Position position) {
+        return switch (type) {
+            case PAWN -> new Pawn(color, position);
+            case KNIGHT -> new Knight(color, position);
+            case BISHOP -> new Bishop(color, position);
+            case ROOK -> new Rook(color, position);
+            case QUEEN -> new Queen(color, position);
+            case KING -> new King(color, position);
+        };
+    }
+
+    /**
+     * Initializes the board with pieces at their starting positions.
+     */
+    protected void initializeBoard() {
+        // Place pawns
+        for (int column = 0; column < 8; column++) {
+            placePiece(Position.of(1, column), new Pawn(Color.WHITE, Position.of(1, column)));
+            placePiece(Position.of(6, column), new Pawn(Color.BLACK, Position.of(6, column)));
+        }
+
+        // Place other pieces for White
+        placeBackRow(Color.WHITE, 0);
+
+        // Place other pieces for Black
+        placeBackRow(Color.BLACK, 7);
+
+        zobristKey = computeZobristKey();
+    }
+
+    /**
+     * Places the back row pieces for a given color.
+     *
+     * @param color The color of the pieces.
+     * @param row   The row to place the pieces on.
+     */
+    private void placeBackRow(Color color, int row) {
+        placePiece(Position.of(row, 0), new Rook(color, Position.of(row, 0)));
+        placePiece(Position.of(row, 1), new Knight(color, Position.of(row, 1)));
+        placePiece(Position.of(row, 2), new Bishop(color, Position.of(row, 2)));
+        placePiece(Position.of(row, 3), new Queen(color, Position.of(row, 3)));
+        King king = new King(color, Position.of(row, 4));
+        placePiece(Position.of(row, 4), king);
+        kingPositions.put(color, Position.of(row, 4));
+        placePiece(Position.of(row, 5), new Bishop(color, Position.of(row, 5)));
+        placePiece(Position.of(row, 6), new Knight(color, Position.of(row, 6)));
+        placePiece(Position.of(row, 7), new Rook(color, Position.of(row, 7)));
+    }
+
+    /**
+     * Sets up the board from a position in Forsyth-Edwards Notation (FEN).
+     * Clears the undo stack. The halfmove clock and fullmove number are optional and default to 0 and 1.
+     * The whole FEN is checked before the board is touched, so an invalid one leaves the board as it was.
+     *
+     * @param fen The position, e.g. "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1".
+     * @throws IllegalArgumentException If the FEN is invalid.
+     */
+    public void loadFen(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4) {
+            throw new IllegalArgumentException("Invalid FEN: " + fen);
+        }
+
+        // Piece placement, from row 8 down to row 1
+        Piece[] placement = new Piece[64];
+        int[] kingCounts = new int[2];
+        int row = 7;
+        int column = 0;
+        for (char symbol : fields[0].toCharArray()) {
+            if (symbol == '/') {
+                if (column != 8 || row == 0) {
+                    throw new IllegalArgumentException("Invalid piece placement in FEN: " + fen);
+                }
+                row--;
+                column = 0;
+            } else if (symbol >= '1' && symbol <= '8') {
+                column += symbol - '0';
+                if (column > 8) {
+                    throw new IllegalArgumentException("Invalid piece placement in FEN: " + fen);
+                }
+            } else {
+                Color color = Character.isUpperCase(symbol) ? Color.WHITE : Color.BLACK;
+                PieceType type = switch (Character.toLowerCase(symbol)) {
+                    case 'p' -> PieceType.PAWN;
+                    case 'n' -> PieceType.KNIGHT;
+                    case 'b' -> PieceType.BISHOP;
+                    case 'r' -> PieceType.ROOK;
+                    case 'q' -> PieceType.QUEEN;
+                    case 'k' -> PieceType.KING;
+                    default -> throw new IllegalArgumentException("Invalid piece '" + symbol + "' in FEN: " + fen);
+                };
+                if (column > 7) {
+                    throw new IllegalArgumentException("Invalid piece placement in FEN: " + fen);
+                }
+                Position position = Position.of(row, column);
+                placement[position.index()] = createPiece(type, color, position);
+                if (type == PieceType.KING) {
+                    kingCounts[color.ordinal()]++;
+                }
+                column++;
+            }
+        }
+        if (row != 0 || column != 8) {
+            throw new IllegalArgumentException("Invalid piece placement in FEN: " + fen);
+        }
+        if (kingCounts[0] != 1 || kingCounts[1] != 1) {
+            throw new IllegalArgumentException("FEN must have one king per side: " + fen);
+        }
+
+        // Side to move
+        Color side = switch (fields[1]) {
+            case "w" -> Color.WHITE;
+            case "b" -> Color.BLACK;
+            default -> throw new IllegalArgumentException("Invalid side to move in FEN: " + fen);
+        };
+
+        // Castling rights
+        int castling = 0;
+        if (!fields[2].equals("-")) {
+            for (char symbol : fields[2].toCharArray()) {
+                castling |= switch (symbol) {
+                    case 'K' -> WHITE_KINGSIDE;
+                    case 'Q' -> WHITE_QUEENSIDE;
+                    case 'k' -> BLACK_KINGSIDE;
+                    case 'q' -> BLACK_QUEENSIDE;
+                    default -> throw new IllegalArgumentException("Invalid castling rights in FEN: " + fen);
+                };
+            }
+        }
+
+        // En passant target, on the row a pawn of the side not to move has just skipped
+        Position enPassant = null;
+        if (!fields[3].equals("-")) {
+            String square = fields[3];
+            char epRow = side == Color.WHITE ? '6' : '3';
+            if (square.length() != 2 || square.charAt(0) < 'a' || square.charAt(0) > 'h' || square.charAt(1) != epRow) {
+                throw new IllegalArgumentException("Invalid en passant square in FEN: " + fen);
+            }
+            enPassant = Position.of(square.charAt(1) - '1', square.charAt(0) - 'a');
+        }
+
+        // Clocks
+        int halfmoves;
+        int fullmoves;
+        try {
+            halfmoves = fields.length > 4 ? Integer.parseInt(fields[4]) : 0;
+            fullmoves = fields.length > 5 ? Integer.parseInt(fields[5]) : 1;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid move clocks in FEN: " + fen);
+        }
+        if (halfmoves < 0 || fullmoves < 1) {
+            throw new IllegalArgumentException("Invalid move clocks in FEN: " + fen);
+        }
+
+        // The FEN is valid, so replace the position
+        clearBoard();
+        Arrays.fill(pieceCounts, 0);
+        middlegameScore = 0;
+        endgameScore = 0;
+        phase = 0;
+        pawnKey = 0;
+        Arrays.fill(pawns, 0L);
+        kingPositions.clear();
+        Arrays.fill(undoMovedPieces, 0, undoCount, null);
+        Arrays.fill(undoCapturedPieces, 0, undoCount, null);
+        undoCount = 0;
+        priorKeys = NO_KEYS;
+
+        for (int square = 0; square < 64; square++) {
+            Piece piece = placement[square];
+            if (piece != null) {
+                placePiece(piece.getPosition(), piece);
+                if (piece.getPieceType() == PieceType.KING) {
+                    kingPositions.put(piece.getColor(), piece.getPosition());
+                }
+            }
+        }
+        sideToMove = side;
+        castlingRights = castling;
+        enPassantTarget = enPassant;
+        halfmoveClock = halfmoves;
+        fullmoveNumber = fullmoves;
+
+        // A FEN has no move history, so derive hasMoved from where the pieces stand
+        for (int square = 0; square < 64; square++) {
+            Piece piece = placement[square];
+            if (piece != null) {
+                boolean white = piece.getColor() == Color.WHITE;
+                piece.hasMoved = switch (piece.getPieceType()) {
+                    case PAWN -> (square >>> 3) != (white ? 1 : 6);
+                    case KING -> !hasCastlingRight(piece.getColor(), true) && !hasCastlingRight(piece.getColor(), false);
+                    case ROOK -> !((square == (white ? 7 : 63) && hasCastlingRight(piece.getColor(), true))
+                            || (square == (white ? 0 : 56) && hasCastlingRight(piece.getColor(), false)));
+                    default -> false;
+                };
+            }
+        }
+
+        zobristKey = computeZobristKey();
+    }
+
+    /**
+     * Writes the position in Forsyth-Edwards Notation (FEN), the inverse of loadFen.
+     * The en passant square is written after every double pawn push, as in most FEN sources,
+     * whether or not a capture onto it is possible.
+     *
+     * @return The position, e.g. "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1".
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(90);
+        for (int row = 7; row >= 0; row--) {
+            int empty = 0;
+            for (int column = 0; column < 8; column++) {
+                Piece piece = getPieceAt(row * 8 + column);
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                char symbol = switch (piece.getPieceType()) {
+                    case PAWN -> 'p';
+                    case KNIGHT -> 'n';
+                    case BISHOP -> 'b';
+                    case ROOK -> 'r';
+                    case QUEEN -> 'q';
+                    case KING -> 'k';
+                };
+                fen.append(piece.getColor() == Color.WHITE ? Character.toUpperCase(symbol) : symbol);
+            }
+            if (empty > 0) {
+                fen.append((char) ('0' + empty));
+            }
+            if (row > 0) {
+                fen.append('/');
+            }
+        }
+
+        fen.append(sideToMove == Color.WHITE ? " w " : " b ");
+        if (castlingRights == 0) {
+            fen.append('-');
+        } else {
+            if ((castlingRights & WHITE_KINGSIDE) != 0) {
+                fen.append('K');
+            }
+            if ((castlingRights & WHITE_QUEENSIDE) != 0) {
+                fen.append('Q');
+            }
+            if ((castlingRights & BLACK_KINGSIDE) != 0) {
+                fen.append('k');
+            }
+            if ((castlingRights & BLACK_QUEENSIDE) != 0) {
+                fen.append('q');
+            }
+        }
+        fen.append(' ').append(enPassantTarget != null ? enPassantTarget.toString() : "-");
+        fen.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber);
+        return fen.toString();
+    }
+
+    /**
+     * Gets the number of moves since the last capture or pawn move.
+     *
+     * @return The halfmove clock in plies.
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * Gets the number of the current move. It starts at 1 and is incremented after each of Black's moves.
+     *
+     * @return The fullmove number.
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * Removes every piece from the board.
+     */
+    protected abstract void clearBoard();
+
+    /**
+     * Stores a piece on a square, replacing whatever was there.
+     *
+     * @param position The square to place the piece on.
+     * @param piece    The piece to place.
+     */
+    protected abstract void placePiece(Position position, Piece piece);
+
+    /**
+     * Removes the piece standing on a square.
+     *
+     * @param position The square to clear.
+     * @return The removed piece, or null if the square was empty.
+     */
+    protected abstract Piece removePiece(Position position);
+
+    /**
+     * Adds a piece to the evaluation terms. Subclasses call this whenever placePiece stores a piece.
+     *
+     * @param piece  The piece that was stored.
+     * @param square The square index it was stored on.
+     */
+    protected final void pieceAdded(Piece piece, int square) {
+        Color color = piece.getColor();
+        PieceType type = piece.getPieceType();
+        int sign = color == Color.WHITE ? 1 : -1;
+        pieceCounts[color.ordinal() * 6 + type.ordinal()]++;
+        middlegameScore += sign * PieceSquareTables.middlegameValue(color, type, square);
+        endgameScore += sign * PieceSquareTables.endgameValue(color, type, square);
+        phase += PieceSquareTables.PHASE_WEIGHTS[type.ordinal()];
+        if (type == PieceType.PAWN) {
+            pawnKey ^= Zobrist.pieceKey(color, type, square);
+            pawns[color.ordinal()] |= 1L << square;
+        } else if (type == PieceType.KING) {
+            kingSquares[color.ordinal()] = square;
+        }
+    }
+
+    /**
+     * Takes a piece out of the evaluation terms. Subclasses call this whenever a piece is cleared from a square,
+     * by removePiece or by placePiece replacing it.
+     *
+     * @param piece  The piece that was cleared.
+     * @param square The square index it was cleared from.
+     */
+    protected final void pieceRemoved(Piece piece, int square) {
+        Color color = piece.getColor();
+        PieceType type = piece.getPieceType();
+        int sign = color == Color.WHITE ? 1 : -1;
+        pieceCounts[color.ordinal() * 6 + type.ordinal()]--;
+        middlegameScore -= sign * PieceSquareTables.middlegameValue(color, type, square);
+        endgameScore -= sign * PieceSquareTables.endgameValue(color, type, square);
+        phase -= PieceSquareTables.PHASE_WEIGHTS[type.ordinal()];
+        if (type == PieceType.PAWN) {
+            pawnKey ^= Zobrist.pieceKey(color, type, square);
+            pawns[color.ordinal()] &= ~(1L << square);
+        }
+    }
+
+    /**
+     * Gets the piece at a specific position.
+     *
+     * @param position The position to check.
+     * @return The piece at the position, or null if empty.
+     */
+    public abstract Piece getPieceAt(Position position);
+
+    /**
+     * Gets the piece on a square index.
+     *
+     * @param square The square index (row * 8 + column).
+     * @return The piece on the square, or null if empty.
+     */
+    public Piece getPieceAt(int square) {
+        return getPieceAt(Position.of(square));
+    }
+
+    /**
+     * Checks if a square index is empty.
+     *
+     * @param square The square index (row * 8 + column).
+     * @return True if the square is empty, false otherwise.
+     */
+    public boolean isPositionEmpty(int square) {
+        return getPieceAt(square) == null;
+    }
+
+    /**
+     * Provides access to the current state of the board.
+     *
+     * @return A map representing the board state.
+     */
+    public abstract Map<Position, Piece> getBoardMap();
+
+    /**
+     * Creates a deep copy of this board using the same storage implementation.
+     *
+     * @return A new board with copies of all pieces.
+     */
+    public abstract AbstractBoard copy();
+
+    /**
+     * Moves a piece from one position to another.
+     * The move is recorded on the undo stack, so it can be taken back with unmakeMove.
+     *
+     * @param fromPosition The starting position.
+     * @param toPosition   The ending position.
+     */
+    public void movePiece(Position fromPosition, Position toPosition) {
+        makeMove(fromPosition, toPosition);
+    }
+
+    /**
+     * Makes a move in place and pushes an undo record for it.
+     * Does nothing if there is no piece at the starting position.
+     *
+     * @param fromPosition The starting position.
+     * @param toPosition   The ending position.
+     */
+    public void makeMove(Position fromPosition, Position toPosition) {
+        makeMove(fromPosition, toPosition, PieceType.QUEEN);
+    }
+
+    /**
+     * Makes a packed move in place and pushes an undo record for it.
+     *
+     * @param move The packed move, see Move.
+     */
+    public void makeMove(int move) {
+        PieceType promotion = Move.getPromotion(move);
+        makeMove(Position.of(Move.getFrom(move)), Position.of(Move.getTo(move)),
+                promotion != null ? promotion : PieceType.QUEEN);
+    }
+
+    /**
+     * Makes a move in place and pushes an undo record for it.
+     * Does nothing if there is no piece at the starting position.
+     *
+     * @param fromPosition  The starting position.
+     * @param toPosition    The ending position.
+     * @param promotionType The piece type a pawn reaching the last row becomes.
+     */
+    public void makeMove(Position fromPosition, Position toPosition, PieceType promotionType) {
+        Piece piece = getPieceAt(fromPosition);
+        if (piece == null) {
+            return;
+        }
+        if (undoCount == undoStates.length) {
+            growUndoStack();
+        }
+
+        int from = fromPosition.index();
+        int to = toPosition.index();
+        int previousEnPassant = enPassantTarget != null ? enPassantTarget.index() : NO_SQUARE;
+        int state = from | to << 6 | previousEnPassant << 12 | castlingRights << 19;
+        if (piece.hasMoved()) {
+            state |= FLAG_HAD_MOVED;
+        }
+
+        // Take the old castling rights and en passant column out of the key; the new ones are added back below
+        undoKeys[undoCount] = zobristKey;
+        undoHalfmoveClocks[undoCount] = halfmoveClock;
+        zobristKey ^= Zobrist.castlingKey(castlingRights) ^ Zobrist.pieceKey(piece.getColor(), piece.getPieceType(), from);
+        if (enPassantTarget != null) {
+            zobristKey ^= Zobrist.enPassantKey(enPassantTarget.getColumn());
+        }
+
+        Piece captured = removePiece(toPosition);
+        if (captured != null) {
+            zobristKey ^= Zobrist.pieceKey(captured.getColor(), captured.getPieceType(), to);
+        }
+        Piece placed = piece;
+
+        // Handle special moves
+        if (piece instanceof Pawn) {
+            state |= handlePawnMove((Pawn) piece, fromPosition, toPosition);
+            if ((state & FLAG_EN_PASSANT) != 0) {
+                captured = undoCapturedPieces[undoCount];
+            }
+            if ((state & FLAG_PROMOTION) != 0) {
+                placed = createPiece(promotionType, piece.getColor(), toPosition);
+            }
+        } else {
+            enPassantTarget = null;
+            if (piece instanceof King) {
+                state |= handleCastling((King) piece, fromPosition, toPosition);
+                // Update king's position
+                kingPositions.put(piece.getColor(), toPosition);
+            }
+        }
+
+        piece.setPosition(toPosition);
+        removePiece(fromPosition);
+        placePiece(toPosition, placed);
+        castlingRights &= CASTLING_MASKS[from] & CASTLING_MASKS[to];
+        halfmoveClock = captured != null || piece instanceof Pawn ? 0 : halfmoveClock + 1;
+        if (sideToMove == Color.BLACK) {
+            fullmoveNumber++;
+        }
+        sideToMove = sideToMove.opposite();
+
+        zobristKey ^= Zobrist.pieceKey(placed.getColor(), placed.getPieceType(), to)
+                ^ Zobrist.castlingKey(castlingRights) ^ Zobrist.blackToMoveKey();
+        if (enPassantTarget != null) {
+            zobristKey ^= Zobrist.enPassantKey(enPassantTarget.getColumn());
+        }
+
+        undoStates[undoCount] = state;
+        undoMovedPieces[undoCount] = piece;
+        undoCapturedPieces[undoCount] = captured;
+        undoCount++;
+        assert checkEvaluation();
+    }
+
+    /**
+     * Takes back the most recent move made with makeMove or movePiece.
+     */
+    public void unmakeMove() {
+        if (undoCount == 0) {
+            throw new IllegalStateException("No move to undo");
+        }
+        undoCount--;
+        int state = undoStates[undoCount];
+        Piece piece = undoMovedPieces[undoCount];
+        Piece captured = undoCapturedPieces[undoCount];
+        undoMovedPieces[undoCount] = null;
+        undoCapturedPieces[undoCount] = null;
+
+        int from = state & 63;
+        int to = (state >>> 6) & 63;
+        int previousEnPassant = (state >>> 12) & 127;
+        Position fromPosition = Position.of(from);
+        Position toPosition = Position.of(to);
+
+        // Put the moved piece back (for promotions this replaces the new piece with the pawn)
+        removePiece(toPosition);
+        placePiece(fromPosition, piece);
+        piece.position = fromPosition;
+        piece.hasMoved = (state & FLAG_HAD_MOVED) != 0;
+
+        if (piece instanceof King) {
+            kingPositions.put(piece.getColor(), fromPosition);
+            if ((state & FLAG_CASTLING) != 0) {
+                int row = from >>> 3;
+                boolean kingside = (to & 7) > (from & 7);
+                Position rookFromPosition = Position.of(row, kingside ? 7 : 0);
+                Position rookToPosition = Position.of(row, kingside ? (from & 7) + 1 : (from & 7) - 1);
+                Piece rook = removePiece(rookToPosition);
+                placePiece(rookFromPosition, rook);
+                rook.position = rookFromPosition;
+                rook.hasMoved = (state & FLAG_ROOK_HAD_MOVED) != 0;
+            }
+        }
+
+        if (captured != null) {
+            placePiece(captured.getPosition(), captured);
+        }
+
+        enPassantTarget = previousEnPassant != NO_SQUARE ? Position.of(previousEnPassant) : null;
+        castlingRights = (state >>> 19) & 15;
+        sideToMove = sideToMove.opposite();
+        if (sideToMove == Color.BLACK) {
+            fullmoveNumber--;
+        }
+        halfmoveClock = undoHalfmoveClocks[undoCount];
+        zobristKey = undoKeys[undoCount];
+        assert checkEvaluation();
+    }
+
+    /**
+     * Doubles the capacity of the undo stack.
+     */
+    private void growUndoStack() {
+        int capacity = undoStates.length * 2;
+        undoStates = Arrays.copyOf(undoStates, capacity);
+        undoMovedPieces = Arrays.copyOf(undoMovedPieces, capacity);
+        undoCapturedPieces = Arrays.copyOf(undoCapturedPieces, capacity);
+        undoKeys = Arrays.copyOf(undoKeys, capacity);
+        undoHalfmoveClocks = Arrays.copyOf(undoHalfmoveClocks, capacity);
+    }
+
+    /**
+     * Handles pawn-specific movement logic, including en passant.
+     * A pawn captured en passant is removed and stored in the pending undo record.
+     *
+     * @param pawn          The pawn being moved.
+     * @param fromPosition  The starting position.
+     * @param toPosition    The ending position.
+     * @return Undo flags for an en passant capture or a promotion.
+     */
+    private int handlePawnMove(Pawn pawn, Position fromPosition, Position toPosition) {
+        int flags = 0;
+
+        // Handle en passant capture
+        if (toPosition.equals(enPassantTarget) && fromPosition.getColumn() != toPosition.getColumn()) {
+            Position capturedPawnPosition = Position.of(fromPosition.getRow(), toPosition.getColumn());
+            Piece capturedPawn = removePiece(capturedPawnPosition);
+            undoCapturedPieces[undoCount] = capturedPawn;
+            zobristKey ^= Zobrist.pieceKey(capturedPawn.getColor(), PieceType.PAWN, capturedPawnPosition.index());
+            flags |= FLAG_EN_PASSANT;
+        }
+
+        // Set en passant target if pawn moves two squares, otherwise clear it
+        int rowDifference = toPosition.getRow() - fromPosition.getRow();
+        if (Math.abs(rowDifference) == 2) {
+            enPassantTarget = Position.of(fromPosition.getRow() + rowDifference / 2, fromPosition.getColumn());
+        } else {
+            enPassantTarget = null;
+        }
+
+        // Handle pawn promotion
+        if ((pawn.getColor() == Color.WHITE && toPosition.getRow() == 7) ||
+                (pawn.getColor() == Color.BLACK && toPosition.getRow() == 0)) {
+            flags |= FLAG_PROMOTION;
+        }
+        return flags;
+    }
+
+    /**
+     * Handles castling logic when the king moves.
+     *
+     * @param king          The king being moved.
+     * @param fromPosition  The starting position.
+     * @param toPosition    The ending position.
+     * @return Undo flags describing the rook move, or 0 if the move is not castling.
+     */
+    private int handleCastling(King king, Position fromPosition, Position toPosition) {
+        int columnDifference = toPosition.getColumn() - fromPosition.getColumn();
+        if (Math.abs(columnDifference) == 2) {
+            // Castling move
+            int rookFromColumn = columnDifference > 0 ? 7 : 0;
+            int rookToColumn = columnDifference > 0 ? fromPosition.getColumn() + 1 : fromPosition.getColumn() - 1;
+
+            Position rookFromPosition = Position.of(fromPosition.getRow(), rookFromColumn);
+            Position rookToPosition = Position.of(fromPosition.getRow(), rookToColumn);
+
+            Piece rook = getPieceAt(rookFromPosition);
+            if (rook instanceof Rook) {
+                int flags = rook.hasMoved() ? FLAG_CASTLING | FLAG_ROOK_HAD_MOVED : FLAG_CASTLING;
+                rook.setPosition(rookToPosition);
+                removePiece(rookFromPosition);
+                placePiece(rookToPosition, rook);
+                zobristKey ^= Zobrist.pieceKey(rook.getColor(), PieceType.ROOK, rookFromPosition.index())
+                        ^ Zobrist.pieceKey(rook.getColor(), PieceType.ROOK, rookToPosition.index());
+                return flags;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the color whose turn it is, flipped by every move made on the board.
+     *
+     * @return The side to move.
+     */
+    public Color getSideToMove() {
+        return sideToMove;
+    }
+
+    /**
+     * Gets the Zobrist key identifying the current position.
+     * The key is kept up to date by every move, so this is a field read.
+     *
+     * @return The 64-bit position key.
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * Computes the Zobrist key from scratch, for verifying the incrementally updated key.
+     *
+     * @return The 64-bit position key.
+     */
+    public long computeZobristKey() {
+        return Zobrist.computeKey(this);
+    }
+
+    /**
+     * Gets the sum of the middlegame material and piece-square values, kept up to date by every move.
+     *
+     * @return White's total minus black's, in centipawns.
+     */
+    public int getMiddlegameScore() {
+        return middlegameScore;
+    }
+
+    /**
+     * Gets the sum of the endgame material and piece-square values, kept up to date by every move.
+     *
+     * @return White's total minus black's, in centipawns.
+     */
+    public int getEndgameScore() {
+        return endgameScore;
+    }
+
+    /**
+     * Gets the game phase from the pieces left on the board.
+     *
+     * @return The sum of the phase weights, PieceSquareTables.MAX_PHASE with all pieces on the board
+     *         (more after promotions), down to 0 with only kings and pawns.
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    /**
+     * Gets the Zobrist key of the pawn placement alone, kept up to date by every move.
+     * Positions with the same pawns share a key whatever the other pieces, castling rights or side to move.
+     *
+     * @return The 64-bit pawn key.
+     */
+    public long getPawnKey() {
+        return pawnKey;
+    }
+
+    /**
+     * Gets the squares of a color's pawns, kept up to date by every move.
+     *
+     * @param color The color of the pawns.
+     * @return A bitboard with one bit set per pawn.
+     */
+    public long getPawns(Color color) {
+        return pawns[color.ordinal()];
+    }
+
+    /**
+     * Gets the square of a color's king, kept up to date by every move.
+     *
+     * @param color The color of the king.
+     * @return The square index (row * 8 + column).
+     */
+    public int getKingSquare(Color color) {
+        return kingSquares[color.ordinal()];
+    }
+
+    /**
+     * Gets the number of pieces of a color and type on the board.
+     *
+     * @param color The color of the pieces.
+     * @param type  The type of the pieces.
+     * @return The number of pieces.
+     */
+    public int getPieceCount(Color color, PieceType type) {
+        return pieceCounts[color.ordinal() * 6 + type.ordinal()];
+    }
+
+    /**
+     * Gets the number of pieces of both colors on the board, kings included.
+     *
+     * @return The number of pieces.
+     */
+    public int getPieceCount() {
+        int total = 0;
+        for (int count : pieceCounts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Recomputes the piece counts, scores, phase and pawn key from the pieces on the board and compares
+     * them with the incrementally updated values. Every move made or taken back runs this check when
+     * assertions are enabled (java -ea).
+     *
+     * @return True, so the check can be written as an assert.
+     * @throws IllegalStateException If any value differs.
+     */
+    public boolean checkEvaluation() {
+        int[] counts = new int[12];
+        int middlegame = 0;
+        int endgame = 0;
+        int totalPhase = 0;
+        long[] pawnSquares = new long[2];
+        for (int square = 0; square < 64; square++) {
+            Piece piece = getPieceAt(square);
+            if (piece == null) {
+                continue;
+            }
+            Color color = piece.getColor();
+            PieceType type = piece.getPieceType();
+            int sign = color == Color.WHITE ? 1 : -1;
+            counts[color.ordinal() * 6 + type.ordinal()]++;
+            middlegame += sign * PieceSquareTables.middlegameValue(color, type, square);
+            endgame += sign * PieceSquareTables.endgameValue(color, type, square);
+            totalPhase += PieceSquareTables.PHASE_WEIGHTS[type.ordinal()];
+            if (type == PieceType.PAWN) {
+                pawnSquares[color.ordinal()] |= 1L << square;
+            }
+        }
+        if (!Arrays.equals(counts, pieceCounts) || middlegame != middlegameScore || endgame != endgameScore
+                || totalPhase != phase || !Arrays.equals(pawnSquares, pawns) || Zobrist.computePawnKey(this) != pawnKey) {
+            throw new IllegalStateException("Incremental evaluation out of sync: middlegame " + middlegameScore
+                    + " vs " + middlegame + ", endgame " + endgameScore + " vs " + endgame
+                    + ", phase " + phase + " vs " + totalPhase + ", counts " + Arrays.toString(pieceCounts)
+                    + " vs " + Arrays.toString(counts));
+        }
+        return true;
+    }
+
+    /**
+     * Gets the square a pawn may capture en passant on, set by the last move if it was a double pawn push.
+     *
+     * @return The en passant target, or null if there is none.
+     */
+    public Position getEnPassantTarget() {
+        return enPassantTarget;
+    }
+
+    /**
+     * Gets the castling rights that are still available.
+     *
+     * @return A bitmask of WHITE_KINGSIDE, WHITE_QUEENSIDE, BLACK_KINGSIDE and BLACK_QUEENSIDE.
+     */
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * Checks if a side may still castle to one side.
+     * Only tracks whether the king or rook has moved or the rook was captured, not whether castling is legal right now.
+     *
+     * @param color     The color of the side.
+     * @param kingside  True for kingside castling, false for queenside.
+     * @return True if the castling right is still available.
+     */
+    public boolean hasCastlingRight(Color color, boolean kingside) {
+        int right = kingside ? WHITE_KINGSIDE : WHITE_QUEENSIDE;
+        if (color == Color.BLACK) {
+            right <<= 2;
+        }
+        return (castlingRights & right) != 0;
+    }
+
+    /**
+     * Gets the number of moves on the undo stack.
+     *
+     * @return The number of moves that can be taken back.
+     */
+    public int getMoveCount() {
+        return undoCount;
+    }
+
+    /**
+     * Checks if the current position already occurred among the moves on the undo stack.
+     * The search stops at the last capture or pawn move, since no earlier position can come back after one.
+     *
+     * @return True if the position is a repetition.
+     */
+    public boolean isRepetition() {
+        int reachable = getReachablePlies();
+        // Only positions with the same side to move can be equal
+        for (int distance = 2; distance <= reachable; distance += 2) {
+            if (getKeyBefore(distance) == zobristKey) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets how many plies back a repetition can reach: to the last capture or pawn move,
+     * but no further than the known history.
+     */
+    private int getReachablePlies() {
+        return Math.min(halfmoveClock, priorKeys.length + undoCount);
+    }
+
+    /**
+     * Gets the Zobrist key of the position a number of plies before the current one.
+     *
+     * @param distance The number of plies back, from 1 to getReachablePlies().
+     */
+    private long getKeyBefore(int distance) {
+        int index = undoCount - distance;
+        return index >= 0 ? undoKeys[index] : priorKeys[priorKeys.length + index];
+    }
+
+    /**
+     * Checks if a position is empty.
+     *
+     * @param position The position to check.
+     * @return True if the position is empty, false otherwise.
+     */
+    public boolean isPositionEmpty(Position position) {
+        return getPieceAt(position) == null;
+    }
+
+    /**
+     * Checks if a position is occupied by an opponent's piece.
+     *
+     * @param position The position to check.
+     * @param color    The color of the current player.
+     * @return True if occupied by an opponent, false otherwise.
+     */
+    public boolean isPositionOccupiedByOpponent(Position position, Color color) {
+        Piece piece = getPieceAt(position);
+        return piece != null && piece.getColor() != color;
+    }
+
+    /**
+     * Checks if en passant is possible at a given position.
+     *
+     * @param position The position to check.
+     * @param color    The color of the pawn attempting en passant.
+     * @return True if en passant is possible, false otherwise.
+     */
+    public boolean isEnPassantPossible(Position position, Color color) {
+        // The target is behind the opponent's pawn, so it is on the sixth row from this color's side
+        return position.equals(enPassantTarget) && enPassantTarget.getRow() == (color == Color.WHITE ? 5 : 2);
+    }
+
+    /**
+     * Appends the possible moves of every piece of a color to a move list.
+     * Moves are pseudo-legal: they follow each piece's movement rules but may leave the king in check.
+     *
+     * @param color The color of the pieces to generate moves for.
+     * @param moves The list to append the packed moves to.
+     */
+    public void generateMoves(Color color, MoveList moves) {
+        for (int square = 0; square < 64; square++) {
+            Piece piece = getPieceAt(square);
+            if (piece != null && piece.getColor() == color) {
+                if (piece instanceof King) {
+                    ((King) piece).generateMoves(this, moves, true);
+                } else {
+                    piece.generateMoves(this, moves);
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends every legal move of a color to a move list.
+     * This implementation filters the pseudo-legal moves by making each one and testing for check.
+     *
+     * @param color The color to generate moves for.
+     * @param moves The list to append the packed moves to.
+     */
+    public void generateLegalMoves(Color color, MoveList moves) {
+        int start = moves.size();
+        generateMoves(color, moves);
+
+        int legalCount = start;
+        for (int i = start; i < moves.size(); i++) {
+            int move = moves.get(i);
+            makeMove(move);
+            boolean leavesKingInCheck = isKingInCheck(color);
+            unmakeMove();
+            if (!leavesKingInCheck) {
+                moves.set(legalCount++, move);
+            }
+        }
+        moves.truncate(legalCount);
+    }
+
+    /**
+     * Appends the legal captures (including en passant) and promotions of a color to a move list.
+     * This implementation filters the full list of legal moves.
+     *
+     * @param color The color to generate moves for.
+     * @param moves The list to append the packed moves to.
+     */
+    public void generateLegalCaptures(Color color, MoveList moves) {
+        generateLegalMovesOfKind(color, moves, true);
+    }
+
+    /**
+     * Appends the legal moves of a color that neither capture nor promote, including castling.
+     * This implementation filters the full list of legal moves.
+     *
+     * @param color The color to generate moves for.
+     * @param moves The list to append the packed moves to.
+     */
+    public void generateLegalQuietMoves(Color color, MoveList moves) {
+        generateLegalMovesOfKind(color, moves, false);
+    }
+
+    /**
+     * Appends the legal moves that either are or are not captures or promotions.
+     */
+    private void generateLegalMovesOfKind(Color color, MoveList moves, boolean captures) {
+        int start = moves.size();
+        generateLegalMoves(color, moves);
+        int kept = start;
+        for (int i = start; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if ((Move.isCapture(move) || Move.isPromotion(move)) == captures) {
+                moves.set(kept++, move);
+            }
+        }
+        moves.truncate(kept);
+    }
+
+    /**
+     * Checks if a packed move is legal for the side to move, for example a move remembered from another position.
+     * Only the moving piece's moves are generated, so this is cheaper than generating every legal move.
+     *
+     * @param move The packed move, including its flags.
+     * @return True if the move can be made in the current position.
+     */
+    public boolean isLegalMove(int move) {
+        if (move == Move.NONE) {
+            return false;
+        }
+        Piece piece = getPieceAt(Move.getFrom(move));
+        if (piece == null || piece.getColor() != sideToMove) {
+            return false;
+        }
+
+        legalityMoves.clear();
+        if (piece instanceof King) {
+            ((King) piece).generateMoves(this, legalityMoves, true);
+        } else {
+            piece.generateMoves(this, legalityMoves);
+        }
+        boolean found = false;
+        for (int i = 0; i < legalityMoves.size(); i++) {
+            if (legalityMoves.get(i) == move) {
+                found = true;
+                break;
+            }
+        }
+        if (!found) {
+            return false;
+        }
+
+        makeMove(move);
+        boolean leavesKingInCheck = isKingInCheck(piece.getColor());
+        unmakeMove();
+        return !leavesKingInCheck;
+    }
+
+    /**
+     * Checks if the king of a given color is in check.
+     *
+     * @param color The color of the king.
+     * @return True if the king is in check, false otherwise.
+     */
+    public boolean isKingInCheck(Color color) {
+        Position kingPosition = kingPositions.get(color);
+        return isPositionUnderAttack(kingPosition, color.opposite());
+    }
+
+    /**
+     * Checks if a position is under attack by any pieces of a given color.
+     * Looks outward from the position instead of generating the attackers' moves,
+     * so no lists or positions are allocated.
+     *
+     * @param position       The position to check.
+     * @param attackingColor The color of the attacking pieces.
+     * @return True if under attack, false otherwise.
+     */
+    public boolean isPositionUnderAttack(Position position, Color attackingColor) {
+        int square = position.index();
+
+        // A pawn attacks this square if it stands where an opposing pawn on this square would capture
+        if (hasPieceOn(Attacks.pawnAttacks(attackingColor.opposite(), square), attackingColor, PieceType.PAWN)
+                || hasPieceOn(Attacks.knightAttacks(square), attackingColor, PieceType.KNIGHT)
+                || hasPieceOn(Attacks.kingAttacks(square), attackingColor, PieceType.KING)) {
+            return true;
+        }
+
+        // Walk each ray until the first piece and see if it slides along that ray
+        for (int i = 0; i < 8; i++) {
+            int rowDirection = RAY_ROW_DIRECTIONS[i];
+            int columnDirection = RAY_COLUMN_DIRECTIONS[i];
+            boolean diagonal = rowDirection != 0 && columnDirection != 0;
+            int row = position.getRow() + rowDirection;
+            int column = position.getColumn() + columnDirection;
+
+            while (Position.isValidCoordinate(row) && Position.isValidCoordinate(column)) {
+                Piece piece = getPieceAt(Position.of(row, column));
+                if (piece != null) {
+                    if (piece.getColor() == attackingColor) {
+                        PieceType type = piece.getPieceType();
+                        if (type == PieceType.QUEEN || type == (diagonal ? PieceType.BISHOP : PieceType.ROOK)) {
+                            return true;
+                        }
+                    }
+                    break;
+                }
+                row += rowDirection;
+                column += columnDirection;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if any of the given squares holds a piece of the given color and type.
+     *
+     * @param squares A bitboard of squares to look at.
+     * @param color   The color of the piece.
+     * @param type    The type of the piece.
+     * @return True if a matching piece was found.
+     */
+    private boolean hasPieceOn(long squares, Color color, PieceType type) {
+        while (squares != 0) {
+            Piece piece = getPieceAt(Long.numberOfTrailingZeros(squares));
+            if (piece != null && piece.getColor() == color && piece.getPieceType() == type) {
+                return true;
+            }
+            squares &= squares - 1;
+        }
+        return false;
+    }
+}
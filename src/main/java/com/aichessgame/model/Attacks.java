@@ -0,0 +1,264 @@
+package com.aichessgame.model;
+import com.aichessgame.utils.Color;
+
+/**
+ * Precomputed attack tables for all piece types.
+ * Knight, king and pawn attacks are plain per-square tables. Rook and bishop
+ * attacks use magic bitboards: the relevant blockers are multiplied by a magic
+ * number to index a per-square table, so a slider lookup is a mask, a multiply
+ * and a shift. Queen attacks are the union of both.
+ * Squares use the same indexing as BitBoard (a1 = 0, h8 = 63).
+ */
+public final class Attacks {
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] ROOK_MAGICS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final long[][] ROOK_TABLES = new long[64][];
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] BISHOP_MAGICS = new long[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] BISHOP_TABLES = new long[64][];
+
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINES = new long[64][64];
+
+    private static final int[][] KNIGHT_OFFSETS = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+    private static final int[][] KING_OFFSETS = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+    private static final int[][] ROOK_DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+    private static final long RANK_1 = 0xFFL;
+    private static final long RANK_8 = 0xFFL << 56;
+    private static final long FILE_A = 0x0101010101010101L;
+    private static final long FILE_H = FILE_A << 7;
+
+    // Per-rank seeds that are known to find magics quickly; fixed so the tables are the same on every run
+    private static final long[] RANK_SEEDS = {728, 10316, 55013, 32803, 12281, 15100, 16645, 255};
+    private static long seed;
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            KNIGHT_ATTACKS[square] = leaperAttacks(square, KNIGHT_OFFSETS);
+            KING_ATTACKS[square] = leaperAttacks(square, KING_OFFSETS);
+            PAWN_ATTACKS[Color.WHITE.ordinal()][square] = leaperAttacks(square, new int[][]{{1, -1}, {1, 1}});
+            PAWN_ATTACKS[Color.BLACK.ordinal()][square] = leaperAttacks(square, new int[][]{{-1, -1}, {-1, 1}});
+        }
+        for (int square = 0; square < 64; square++) {
+            initMagic(square, ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_TABLES);
+            initMagic(square, BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_TABLES);
+        }
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                long toBit = 1L << to;
+                long ends = toBit | 1L << from;
+                if ((rookAttacks(from, 0L) & toBit) != 0) {
+                    BETWEEN[from][to] = rookAttacks(from, toBit) & rookAttacks(to, 1L << from);
+                    LINES[from][to] = (rookAttacks(from, 0L) & rookAttacks(to, 0L)) | ends;
+                } else if ((bishopAttacks(from, 0L) & toBit) != 0) {
+                    BETWEEN[from][to] = bishopAttacks(from, toBit) & bishopAttacks(to, 1L << from);
+                    LINES[from][to] = (bishopAttacks(from, 0L) & bishopAttacks(to, 0L)) | ends;
+                }
+            }
+        }
+    }
+
+    private Attacks() {
+        // Static tables only
+    }
+
+    /**
+     * Gets the squares attacked by a knight.
+     *
+     * @param square The knight's square.
+     * @return A bitboard of attacked squares.
+     */
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    /**
+     * Gets the squares attacked by a king, excluding castling.
+     *
+     * @param square The king's square.
+     * @return A bitboard of attacked squares.
+     */
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * Gets the squares attacked diagonally by a pawn.
+     *
+     * @param color  The color of the pawn.
+     * @param square The pawn's square.
+     * @return A bitboard of attacked squares.
+     */
+    public static long pawnAttacks(Color color, int square) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+    /**
+     * Gets the squares attacked by a rook given the occupied squares.
+     *
+     * @param square   The rook's square.
+     * @param occupied A bitboard of all occupied squares.
+     * @return A bitboard of attacked squares, including the first blocker in each direction.
+     */
+    public static long rookAttacks(int square, long occupied) {
+        int index = (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square]);
+        return ROOK_TABLES[square][index];
+    }
+
+    /**
+     * Gets the squares attacked by a bishop given the occupied squares.
+     *
+     * @param square   The bishop's square.
+     * @param occupied A bitboard of all occupied squares.
+     * @return A bitboard of attacked squares, including the first blocker in each direction.
+     */
+    public static long bishopAttacks(int square, long occupied) {
+        int index = (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square]);
+        return BISHOP_TABLES[square][index];
+    }
+
+    /**
+     * Gets the squares attacked by a queen given the occupied squares.
+     *
+     * @param square   The queen's square.
+     * @param occupied A bitboard of all occupied squares.
+     * @return A bitboard of attacked squares.
+     */
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    /**
+     * Gets the squares strictly between two squares on the same row, column or diagonal.
+     *
+     * @param from The first square.
+     * @param to   The second square.
+     * @return A bitboard of the squares in between, or 0 if the squares are not aligned.
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * Gets the full line (row, column or diagonal) through two squares, from edge to edge.
+     *
+     * @param from The first square.
+     * @param to   The second square.
+     * @return A bitboard of the line, or 0 if the squares are not aligned.
+     */
+    public static long line(int from, int to) {
+        return LINES[from][to];
+    }
+
+    /**
+     * Builds a leaper attack bitboard from a list of row and column offsets.
+     */
+    private static long leaperAttacks(int square, int[][] offsets) {
+        int row = square >>> 3;
+        int column = square & 7;
+        long attacks = 0;
+        for (int[] offset : offsets) {
+            int newRow = row + offset[0];
+            int newColumn = column + offset[1];
+            if (newRow >= 0 && newRow < 8 && newColumn >= 0 && newColumn < 8) {
+                attacks |= 1L << (newRow * 8 + newColumn);
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * Computes slider attacks by walking each ray until it hits a blocker.
+     * Only used while building the magic tables.
+     */
+    private static long slidingAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0;
+        for (int[] direction : directions) {
+            int row = (square >>> 3) + direction[0];
+            int column = (square & 7) + direction[1];
+            while (row >= 0 && row < 8 && column >= 0 && column < 8) {
+                long bit = 1L << (row * 8 + column);
+                attacks |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                row += direction[0];
+                column += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * Finds a magic number for one square and fills its attack table.
+     */
+    private static void initMagic(int square, int[][] directions, long[] masks, long[] magics, int[] shifts, long[][] tables) {
+        // Blockers on the board edge never change the attack set, so they are left out of the mask
+        long edges = ((RANK_1 | RANK_8) & ~(RANK_1 << (8 * (square >>> 3))))
+                | ((FILE_A | FILE_H) & ~(FILE_A << (square & 7)));
+        long mask = slidingAttacks(square, 0L, directions) & ~edges;
+        int bits = Long.bitCount(mask);
+        int size = 1 << bits;
+
+        // Enumerate every subset of the mask (Carry-Rippler trick) with its reference attacks
+        long[] occupancies = new long[size];
+        long[] references = new long[size];
+        long subset = 0;
+        int count = 0;
+        do {
+            occupancies[count] = subset;
+            references[count] = slidingAttacks(square, subset, directions);
+            count++;
+            subset = (subset - mask) & mask;
+        } while (subset != 0);
+
+        seed = RANK_SEEDS[square >>> 3];
+        long[] table = new long[size];
+        int[] attempts = new int[size];
+        int attempt = 0;
+        long magic;
+        boolean found;
+        do {
+            do {
+                magic = nextRandom() & nextRandom() & nextRandom();
+            } while (Long.bitCount((mask * magic) >>> 56) < 6);
+
+            attempt++;
+            found = true;
+            for (int i = 0; i < size; i++) {
+                int index = (int) ((occupancies[i] * magic) >>> (64 - bits));
+                if (attempts[index] != attempt) {
+                    attempts[index] = attempt;
+                    table[index] = references[i];
+                } else if (table[index] != references[i]) {
+                    found = false;
+                    break;
+                }
+            }
+        } while (!found);
+
+        masks[square] = mask;
+        magics[square] = magic;
+        shifts[square] = 64 - bits;
+        tables[square] = table;
+    }
+
+    /**
+     * Xorshift64* generator used for the magic number search.
+     */
+    private static long nextRandom() {
+        seed ^= seed >>> 12;
+        seed ^= seed << 25;
+        seed ^= seed >>> 27;
+        return seed * 0x2545F4914F6CDD1DL;
+    }
+}
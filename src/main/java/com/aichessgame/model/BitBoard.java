@@ -0,0 +1,355 @@
+package com.aichessgame.model;
+import com.aichessgame.utils.Color;
+import com.aichessgame.utils.Position;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Class representing the chessboard as a set of 64-bit bitboards.
+ * Square a1 is bit 0, h1 is bit 7 and h8 is bit 63 (index = row * 8 + column).
+ * A piece array indexed by square keeps getPieceAt a single array read.
+ */
+public class BitBoard extends AbstractBoard {
+    private final long[] pieceBitboards = new long[12]; // One bitboard per color and piece type
+    private final long[] colorOccupancy = new long[2];  // All squares occupied by each color
+    private long occupancy;                             // All occupied squares
+    private final Piece[] squares = new Piece[64];      // The piece standing on each square
+    private Map<Position, Piece> boardMapView;          // Lazily created read-only view of the pieces
+
+    /**
+     * Constructor for the BitBoard class.
+     */
+    public BitBoard() {
+        initializeBoard();
+    }
+
+    /**
+     * Constructor for the BitBoard class that sets up a position from FEN.
+     *
+     * @param fen The position in Forsyth-Edwards Notation.
+     */
+    public BitBoard(String fen) {
+        loadFen(fen);
+    }
+
+    /**
+     * Copy constructor for the BitBoard class.
+     *
+     * @param other The BitBoard instance to copy.
+     */
+    public BitBoard(BitBoard other) {
+        for (int square = 0; square < 64; square++) {
+            if (other.squares[square] != null) {
+                squares[square] = copyPiece(other.squares[square]);
+            }
+        }
+        System.arraycopy(other.pieceBitboards, 0, pieceBitboards, 0, pieceBitboards.length);
+        System.arraycopy(other.colorOccupancy, 0, colorOccupancy, 0, colorOccupancy.length);
+        occupancy = other.occupancy;
+
+        copyStateFrom(other);
+    }
+
+    @Override
+    public BitBoard copy() {
+        return new BitBoard(this);
+    }
+
+    /**
+     * Gets the index of a piece's bitboard.
+     *
+     * @param color The color of the piece.
+     * @param type  The type of the piece.
+     * @return The index into the piece bitboard array.
+     */
+    private static int bitboardIndex(Color color, PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    @Override
+    protected void clearBoard() {
+        Arrays.fill(squares, null);
+        Arrays.fill(pieceBitboards, 0L);
+        Arrays.fill(colorOccupancy, 0L);
+        occupancy = 0;
+    }
+
+    @Override
+    protected void placePiece(Position position, Piece piece) {
+        int square = position.index();
+        if (squares[square] != null) {
+            clearSquare(square);
+        }
+        long bit = 1L << square;
+        squares[square] = piece;
+        pieceBitboards[bitboardIndex(piece.getColor(), piece.getPieceType())] |= bit;
+        colorOccupancy[piece.getColor().ordinal()] |= bit;
+        occupancy |= bit;
+        pieceAdded(piece, square);
+    }
+
+    @Override
+    protected Piece removePiece(Position position) {
+        int square = position.index();
+        if (squares[square] == null) {
+            return null;
+        }
+        return clearSquare(square);
+    }
+
+    /**
+     * Removes the piece on an occupied square from all bitboards.
+     *
+     * @param square The square index.
+     * @return The removed piece.
+     */
+    private Piece clearSquare(int square) {
+        Piece piece = squares[square];
+        long mask = ~(1L << square);
+        squares[square] = null;
+        pieceBitboards[bitboardIndex(piece.getColor(), piece.getPieceType())] &= mask;
+        colorOccupancy[piece.getColor().ordinal()] &= mask;
+        occupancy &= mask;
+        pieceRemoved(piece, square);
+        return piece;
+    }
+
+    /**
+     * Gets the piece at a specific position.
+     *
+     * @param position The position to check.
+     * @return The piece at the position, or null if empty.
+     */
+    @Override
+    public Piece getPieceAt(Position position) {
+        return squares[position.index()];
+    }
+
+    /**
+     * Checks if a position is empty.
+     *
+     * @param position The position to check.
+     * @return True if the position is empty, false otherwise.
+     */
+    @Override
+    public boolean isPositionEmpty(Position position) {
+        return (occupancy & (1L << position.index())) == 0;
+    }
+
+    /**
+     * Gets the piece on a square index.
+     *
+     * @param square The square index (row * 8 + column).
+     * @return The piece on the square, or null if empty.
+     */
+    @Override
+    public Piece getPieceAt(int square) {
+        return squares[square];
+    }
+
+    /**
+     * Checks if a square index is empty.
+     *
+     * @param square The square index (row * 8 + column).
+     * @return True if the square is empty, false otherwise.
+     */
+    @Override
+    public boolean isPositionEmpty(int square) {
+        return (occupancy & (1L << square)) == 0;
+    }
+
+    /**
+     * Checks if a position is occupied by an opponent's piece.
+     *
+     * @param position The position to check.
+     * @param color    The color of the current player.
+     * @return True if occupied by an opponent, false otherwise.
+     */
+    @Override
+    public boolean isPositionOccupiedByOpponent(Position position, Color color) {
+        return (colorOccupancy[color.opposite().ordinal()] & (1L << position.index())) != 0;
+    }
+
+    /**
+     * Checks if a position is under attack by any pieces of a given color.
+     *
+     * @param position       The position to check.
+     * @param attackingColor The color of the attacking pieces.
+     * @return True if under attack, false otherwise.
+     */
+    @Override
+    public boolean isPositionUnderAttack(Position position, Color attackingColor) {
+        return isSquareAttacked(position.index(), attackingColor);
+    }
+
+    /**
+     * Checks if a square is attacked by any pieces of a given color using the attack tables.
+     *
+     * @param square         The square index to check.
+     * @param attackingColor The color of the attacking pieces.
+     * @return True if under attack, false otherwise.
+     */
+    public boolean isSquareAttacked(int square, Color attackingColor) {
+        int offset = attackingColor.ordinal() * 6;
+        long queens = pieceBitboards[offset + PieceType.QUEEN.ordinal()];
+        return (Attacks.pawnAttacks(attackingColor.opposite(), square) & pieceBitboards[offset + PieceType.PAWN.ordinal()]) != 0
+                || (Attacks.knightAttacks(square) & pieceBitboards[offset + PieceType.KNIGHT.ordinal()]) != 0
+                || (Attacks.kingAttacks(square) & pieceBitboards[offset + PieceType.KING.ordinal()]) != 0
+                || (Attacks.bishopAttacks(square, occupancy) & (pieceBitboards[offset + PieceType.BISHOP.ordinal()] | queens)) != 0
+                || (Attacks.rookAttacks(square, occupancy) & (pieceBitboards[offset + PieceType.ROOK.ordinal()] | queens)) != 0;
+    }
+
+    /**
+     * Gets every piece of a given color that attacks a square.
+     *
+     * @param square         The square index to check.
+     * @param attackingColor The color of the attacking pieces.
+     * @param occupied       The occupied squares to use for sliding pieces.
+     * @return A bitboard of the attacking pieces.
+     */
+    public long getAttackers(int square, Color attackingColor, long occupied) {
+        int offset = attackingColor.ordinal() * 6;
+        long queens = pieceBitboards[offset + PieceType.QUEEN.ordinal()];
+        return (Attacks.pawnAttacks(attackingColor.opposite(), square) & pieceBitboards[offset + PieceType.PAWN.ordinal()])
+                | (Attacks.knightAttacks(square) & pieceBitboards[offset + PieceType.KNIGHT.ordinal()])
+                | (Attacks.kingAttacks(square) & pieceBitboards[offset + PieceType.KING.ordinal()])
+                | (Attacks.bishopAttacks(square, occupied) & (pieceBitboards[offset + PieceType.BISHOP.ordinal()] | queens))
+                | (Attacks.rookAttacks(square, occupied) & (pieceBitboards[offset + PieceType.ROOK.ordinal()] | queens));
+    }
+
+    /**
+     * Appends every legal move of a color to a move list using pin and check masks.
+     *
+     * @param color The color to generate moves for.
+     * @param moves The list to append the packed moves to.
+     */
+    @Override
+    public void generateLegalMoves(Color color, MoveList moves) {
+        MoveGenerator.generateLegalMoves(this, color, moves);
+    }
+
+    /**
+     * Appends the legal captures and promotions of a color without generating quiet moves.
+     *
+     * @param color The color to generate moves for.
+     * @param moves The list to append the packed moves to.
+     */
+    @Override
+    public void generateLegalCaptures(Color color, MoveList moves) {
+        MoveGenerator.generateLegalCaptures(this, color, moves);
+    }
+
+    /**
+     * Appends the legal quiet moves of a color without generating captures.
+     *
+     * @param color The color to generate moves for.
+     * @param moves The list to append the packed moves to.
+     */
+    @Override
+    public void generateLegalQuietMoves(Color color, MoveList moves) {
+        MoveGenerator.generateLegalQuietMoves(this, color, moves);
+    }
+
+    /**
+     * Gets the bitboard of all pieces of a given color and type.
+     *
+     * @param color The color of the pieces.
+     * @param type  The type of the pieces.
+     * @return A bitboard with one bit set per matching piece.
+     */
+    public long getPieces(Color color, PieceType type) {
+        return pieceBitboards[bitboardIndex(color, type)];
+    }
+
+    /**
+     * Gets the bitboard of all squares occupied by a color.
+     *
+     * @param color The color of the pieces.
+     * @return A bitboard of the occupied squares.
+     */
+    public long getOccupancy(Color color) {
+        return colorOccupancy[color.ordinal()];
+    }
+
+    /**
+     * Gets the bitboard of all occupied squares.
+     *
+     * @return A bitboard of the occupied squares.
+     */
+    public long getOccupancy() {
+        return occupancy;
+    }
+
+    /**
+     * Provides a read-only view of the current state of the board.
+     * The view reads the bitboards directly, so it always reflects the latest position.
+     *
+     * @return A map representing the board state.
+     */
+    @Override
+    public Map<Position, Piece> getBoardMap() {
+        if (boardMapView == null) {
+            boardMapView = new BoardMapView();
+        }
+        return boardMapView;
+    }
+
+    /**
+     * Read-only map view over the occupied squares of the board.
+     */
+    private final class BoardMapView extends AbstractMap<Position, Piece> {
+        private final Set<Map.Entry<Position, Piece>> entrySet = new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<Position, Piece>> iterator() {
+                return new Iterator<>() {
+                    private long remaining = occupancy;
+
+                    @Override
+                    public boolean hasNext() {
+                        return remaining != 0;
+                    }
+
+                    @Override
+                    public Map.Entry<Position, Piece> next() {
+                        if (remaining == 0) {
+                            throw new NoSuchElementException();
+                        }
+                        int square = Long.numberOfTrailingZeros(remaining);
+                        remaining &= remaining - 1;
+                        return new AbstractMap.SimpleImmutableEntry<>(Position.of(square), squares[square]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return Long.bitCount(occupancy);
+            }
+        };
+
+        @Override
+        public Set<Map.Entry<Position, Piece>> entrySet() {
+            return entrySet;
+        }
+
+        @Override
+        public int size() {
+            return Long.bitCount(occupancy);
+        }
+
+        @Override
+        public Piece get(Object key) {
+            return key instanceof Position ? squares[((Position) key).index()] : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Position && !isPositionEmpty((Position) key);
+        }
+    }
+}
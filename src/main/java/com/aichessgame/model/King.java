@@ -10,6 +10,10 @@ import java.util.List;
  */
 public class King extends Piece {
 
+    // All possible directions the king can move
+    private static final int[] ROW_OFFSETS = {-1, -1, -1, 0, 0, 1, 1, 1};
+    private static final int[] COLUMN_OFFSETS = {-1, 0, 1, -1, 1, -1, 0, 1};
+
     /**
      * Constructor for the King class.
      *
@@ -23,24 +27,20 @@ public class King extends Piece {
 
 
     @Override
-    public List<Position> getPossibleMoves(Board board) {
+    public List<Position> getPossibleMoves(AbstractBoard board) {
         List<Position> possibleMoves = new ArrayList<>();
 
         int currentRow = position.getRow();
         int currentColumn = position.getColumn();
 
-        // All possible directions the king can move
-        int[] rowOffsets = {-1, -1, -1, 0, 0, 1, 1, 1};
-        int[] columnOffsets = {-1, 0, 1, -1, 1, -1, 0, 1};
-
         // Loop through each possible direction
         for (int i = 0; i < 8; i++) {
-            int newRow = currentRow + rowOffsets[i];
-            int newColumn = currentColumn + columnOffsets[i];
+            int newRow = currentRow + ROW_OFFSETS[i];
+            int newColumn = currentColumn + COLUMN_OFFSETS[i];
 
             // Check if the new position is within bounds
             if (Position.isValidCoordinate(newRow) && Position.isValidCoordinate(newColumn)) {
-                Position newPosition = new Position(newRow, newColumn);
+                Position newPosition = Position.of(newRow, newColumn);
 
                 // Check if the position is either empty or occupied by an opponent's piece
                 if (board.isPositionEmpty(newPosition) || board.isPositionOccupiedByOpponent(newPosition, color)) {
@@ -52,23 +52,19 @@ public class King extends Piece {
         return possibleMoves;
     }
 
-    public List<Position> getPossibleMoves(Board board, boolean includeCastling) {
+    public List<Position> getPossibleMoves(AbstractBoard board, boolean includeCastling) {
         List<Position> possibleMoves = new ArrayList<>();
 
         int currentRow = position.getRow();
         int currentColumn = position.getColumn();
 
-        // All possible directions the king can move
-        int[] rowOffsets = {-1, -1, -1, 0, 0, 1, 1, 1};
-        int[] columnOffsets = {-1, 0, 1, -1, 1, -1, 0, 1};
-
         // Single square moves
         for (int i = 0; i < 8; i++) {
-            int newRow = currentRow + rowOffsets[i];
-            int newColumn = currentColumn + columnOffsets[i];
+            int newRow = currentRow + ROW_OFFSETS[i];
+            int newColumn = currentColumn + COLUMN_OFFSETS[i];
 
             if (Position.isValidCoordinate(newRow) && Position.isValidCoordinate(newColumn)) {
-                Position newPosition = new Position(newRow, newColumn);
+                Position newPosition = Position.of(newRow, newColumn);
 
                 if (board.isPositionEmpty(newPosition) || board.isPositionOccupiedByOpponent(newPosition, color)) {
                     possibleMoves.add(newPosition);
@@ -80,12 +76,12 @@ public class King extends Piece {
         if (includeCastling && !hasMoved && !board.isKingInCheck(color)) {
             // Kingside castling
             if (canCastle(board, true)) {
-                Position castlingPosition = new Position(currentRow, currentColumn + 2);
+                Position castlingPosition = Position.of(currentRow, currentColumn + 2);
                 possibleMoves.add(castlingPosition);
             }
             // Queenside castling
             if (canCastle(board, false)) {
-                Position castlingPosition = new Position(currentRow, currentColumn - 2);
+                Position castlingPosition = Position.of(currentRow, currentColumn - 2);
                 possibleMoves.add(castlingPosition);
             }
         }
@@ -95,6 +91,33 @@ public class King extends Piece {
 
 
 
+    @Override
+    public void generateMoves(AbstractBoard board, MoveList moves) {
+        generateMoves(board, moves, false);
+    }
+
+    /**
+     * Appends all possible moves for the king to a move list, optionally including castling.
+     *
+     * @param board           The current state of the board.
+     * @param moves           The list to append the packed moves to.
+     * @param includeCastling True to include castling moves.
+     */
+    public void generateMoves(AbstractBoard board, MoveList moves, boolean includeCastling) {
+        addStepMoves(board, moves, ROW_OFFSETS, COLUMN_OFFSETS);
+
+        // Castling
+        if (includeCastling && !hasMoved && !board.isKingInCheck(color)) {
+            int from = getSquare();
+            if (canCastle(board, true)) {
+                moves.add(Move.encode(from, from + 2, Move.FLAG_CASTLING));
+            }
+            if (canCastle(board, false)) {
+                moves.add(Move.encode(from, from - 2, Move.FLAG_CASTLING));
+            }
+        }
+    }
+
     /**
      * Checks if castling is possible.
      *
@@ -102,30 +125,37 @@ public class King extends Piece {
      * @param isKingside    True for kingside castling, false for queenside.
      * @return True if castling is possible, false otherwise.
      */
-    private boolean canCastle(Board board, boolean isKingside) {
+    private boolean canCastle(AbstractBoard board, boolean isKingside) {
         int row = position.getRow();
         int kingColumn = position.getColumn();
         int direction = isKingside ? 1 : -1;
 
-        // Check the spaces between the king and the rook
+        // Check the spaces between the king and the rook are empty, and the
+        // two squares the king crosses are not attacked
         for (int offset = 1; offset <= (isKingside ? 2 : 3); offset++) {
             int column = kingColumn + offset * direction;
-            Position positionToCheck = new Position(row, column);
-            if (!board.isPositionEmpty(positionToCheck) || board.isPositionUnderAttack(positionToCheck, color.opposite())) {
+            Position positionToCheck = Position.of(row, column);
+            if (!board.isPositionEmpty(positionToCheck)
+                    || (offset <= 2 && board.isPositionUnderAttack(positionToCheck, color.opposite()))) {
                 return false;
             }
         }
 
         // Check that the rook is in the correct position and hasn't moved
         int rookColumn = isKingside ? 7 : 0;
-        Position rookPosition = new Position(row, rookColumn);
+        Position rookPosition = Position.of(row, rookColumn);
         Piece rook = board.getPieceAt(rookPosition);
 
-        return rook instanceof Rook && rook.getColor() == color && !rook.hasMoved();
+        return rook instanceof Rook && rook.getColor() == color && board.hasCastlingRight(color, isKingside);
     }
 
     @Override
     public String getType() {
         return "King";
     }
+
+    @Override
+    public PieceType getPieceType() {
+        return PieceType.KING;
+    }
 }
@@ -11,6 +11,10 @@ import java.util.List;
  */
 public class Knight extends Piece {
 
+    // All possible moves a knight can make
+    private static final int[] ROW_OFFSETS = {-2, -2, -1, -1, 1, 1, 2, 2};
+    private static final int[] COLUMN_OFFSETS = {-1, 1, -2, 2, -2, 2, -1, 1};
+
     /**
      * Constructor for the Knight class.
      *
@@ -22,22 +26,18 @@ public class Knight extends Piece {
     }
 
     @Override
-    public List<Position> getPossibleMoves(Board board) {
+    public List<Position> getPossibleMoves(AbstractBoard board) {
         List<Position> possibleMoves = new ArrayList<>();
 
         int currentRow = position.getRow();
         int currentColumn = position.getColumn();
 
-        // All possible moves a knight can make
-        int[] rowOffsets = {-2, -2, -1, -1, 1, 1, 2, 2};
-        int[] columnOffsets = {-1, 1, -2, 2, -2, 2, -1, 1};
-
         for (int i = 0; i < 8; i++) {
-            int newRow = currentRow + rowOffsets[i];
-            int newColumn = currentColumn + columnOffsets[i];
+            int newRow = currentRow + ROW_OFFSETS[i];
+            int newColumn = currentColumn + COLUMN_OFFSETS[i];
 
             if (Position.isValidCoordinate(newRow) && Position.isValidCoordinate(newColumn)) {
-                Position newPosition = new Position(newRow, newColumn);
+                Position newPosition = Position.of(newRow, newColumn);
 
                 if (board.isPositionEmpty(newPosition) || board.isPositionOccupiedByOpponent(newPosition, color)) {
                     possibleMoves.add(newPosition);
@@ -48,8 +48,18 @@ public class Knight extends Piece {
         return possibleMoves;
     }
 
+    @Override
+    public void generateMoves(AbstractBoard board, MoveList moves) {
+        addStepMoves(board, moves, ROW_OFFSETS, COLUMN_OFFSETS);
+    }
+
     @Override
     public String getType() {
         return "Knight";
     }
+
+    @Override
+    public PieceType getPieceType() {
+        return PieceType.KNIGHT;
+    }
 }
@@ -0,0 +1,139 @@
+package com.aichessgame.model;
+
+/**
+ * Helpers for moves packed into a single int.
+ * Layout: from square (bits 0-5) | to square (bits 6-11) |
+ * promotion piece type ordinal (bits 12-14, 0 = no promotion) | flags (bits 15-18).
+ * Squares use the board index row * 8 + column.
+ */
+public final class Move {
+    public static final int NONE = 0;
+
+    // Move flags
+    public static final int FLAG_CAPTURE = 1 << 15;
+    public static final int FLAG_EN_PASSANT = 1 << 16;
+    public static final int FLAG_CASTLING = 1 << 17;
+    public static final int FLAG_DOUBLE_PUSH = 1 << 18;
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    private Move() {
+        // Static helpers only
+    }
+
+    /**
+     * Packs a move into an int.
+     *
+     * @param from  The starting square index.
+     * @param to    The destination square index.
+     * @param flags A combination of the FLAG_ constants.
+     * @return The packed move.
+     */
+    public static int encode(int from, int to, int flags) {
+        return from | to << 6 | flags;
+    }
+
+    /**
+     * Packs a promotion move into an int.
+     *
+     * @param from      The starting square index.
+     * @param to        The destination square index.
+     * @param promotion The piece type the pawn promotes to.
+     * @param flags     A combination of the FLAG_ constants.
+     * @return The packed move.
+     */
+    public static int encode(int from, int to, PieceType promotion, int flags) {
+        return from | to << 6 | promotion.ordinal() << 12 | flags;
+    }
+
+    /**
+     * Gets the starting square of a move.
+     *
+     * @param move The packed move.
+     * @return The starting square index.
+     */
+    public static int getFrom(int move) {
+        return move & 63;
+    }
+
+    /**
+     * Gets the destination square of a move.
+     *
+     * @param move The packed move.
+     * @return The destination square index.
+     */
+    public static int getTo(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    /**
+     * Gets the piece type a pawn promotes to.
+     *
+     * @param move The packed move.
+     * @return The promotion piece type, or null if the move is not a promotion.
+     */
+    public static PieceType getPromotion(int move) {
+        int promotion = (move >>> 12) & 7;
+        return promotion == 0 ? null : PIECE_TYPES[promotion];
+    }
+
+    /**
+     * Checks if a move is a promotion.
+     *
+     * @param move The packed move.
+     * @return True if the move promotes a pawn.
+     */
+    public static boolean isPromotion(int move) {
+        return (move & (7 << 12)) != 0;
+    }
+
+    /**
+     * Checks if a move captures a piece, including en passant.
+     *
+     * @param move The packed move.
+     * @return True if the move is a capture.
+     */
+    public static boolean isCapture(int move) {
+        return (move & (FLAG_CAPTURE | FLAG_EN_PASSANT)) != 0;
+    }
+
+    /**
+     * Checks if a move has a given flag.
+     *
+     * @param move The packed move.
+     * @param flag One of the FLAG_ constants.
+     * @return True if the flag is set.
+     */
+    public static boolean hasFlag(int move, int flag) {
+        return (move & flag) != 0;
+    }
+
+    /**
+     * Gets the move without its flags, which is enough to identify it within a position.
+     *
+     * @param move The packed move.
+     * @return The from, to and promotion bits of the move.
+     */
+    public static int withoutFlags(int move) {
+        return move & 0x7FFF;
+    }
+
+    /**
+     * Converts a move to coordinate notation (e.g., "e2e4" or "e7e8q").
+     *
+     * @param move The packed move.
+     * @return The move in coordinate notation.
+     */
+    public static String toString(int move) {
+        int from = getFrom(move);
+        int to = getTo(move);
+        StringBuilder builder = new StringBuilder(5);
+        builder.append((char) ('a' + (from & 7))).append((char) ('1' + (from >>> 3)));
+        builder.append((char) ('a' + (to & 7))).append((char) ('1' + (to >>> 3)));
+        PieceType promotion = getPromotion(move);
+        if (promotion != null) {
+            builder.append("pnbrqk".charAt(promotion.ordinal()));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,289 @@
+package com.aichessgame.model;
+import com.aichessgame.utils.Color;
+
+/**
+ * Generates strictly legal moves from a BitBoard.
+ * The checking pieces, the pinned pieces and the squares that resolve a check
+ * are computed once per position, so no move has to be made and taken back
+ * to find out whether it leaves the king in check.
+ */
+public final class MoveGenerator {
+    private static final long RANK_1 = 0xFFL;
+    private static final long RANK_8 = 0xFFL << 56;
+
+    private static final PieceType[] PROMOTION_TYPES = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
+
+    private MoveGenerator() {
+        // Static helpers only
+    }
+
+    /**
+     * Gets the enemy pieces giving check to the king of a color.
+     *
+     * @param board The current state of the board.
+     * @param color The color of the king.
+     * @return A bitboard of the checking pieces.
+     */
+    public static long getCheckers(BitBoard board, Color color) {
+        int king = Long.numberOfTrailingZeros(board.getPieces(color, PieceType.KING));
+        return board.getAttackers(king, color.opposite(), board.getOccupancy());
+    }
+
+    /**
+     * Gets the pieces of a color that are pinned to their own king.
+     *
+     * @param board The current state of the board.
+     * @param color The color of the pinned pieces.
+     * @return A bitboard of the pinned pieces.
+     */
+    public static long getPinned(BitBoard board, Color color) {
+        Color enemy = color.opposite();
+        int king = Long.numberOfTrailingZeros(board.getPieces(color, PieceType.KING));
+        long occupied = board.getOccupancy();
+        long own = board.getOccupancy(color);
+        long enemyQueens = board.getPieces(enemy, PieceType.QUEEN);
+
+        // Enemy sliders that would attack the king if none of our pieces were in the way
+        long snipers = (Attacks.rookAttacks(king, board.getOccupancy(enemy)) & (board.getPieces(enemy, PieceType.ROOK) | enemyQueens))
+                | (Attacks.bishopAttacks(king, board.getOccupancy(enemy)) & (board.getPieces(enemy, PieceType.BISHOP) | enemyQueens));
+
+        long pinned = 0;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = Attacks.between(king, sniper) & occupied;
+            if (Long.bitCount(blockers) == 1) {
+                pinned |= blockers & own;
+            }
+        }
+        return pinned;
+    }
+
+    /**
+     * Appends every legal move of a color to a move list.
+     *
+     * @param board The current state of the board.
+     * @param color The color to generate moves for.
+     * @param moves The list to append the packed moves to.
+     */
+    public static void generateLegalMoves(BitBoard board, Color color, MoveList moves) {
+        generate(board, color, moves, true, true);
+    }
+
+    /**
+     * Appends the legal captures (including en passant) and promotions of a color to a move list.
+     *
+     * @param board The current state of the board.
+     * @param color The color to generate moves for.
+     * @param moves The list to append the packed moves to.
+     */
+    public static void generateLegalCaptures(BitBoard board, Color color, MoveList moves) {
+        generate(board, color, moves, true, false);
+    }
+
+    /**
+     * Appends the legal moves of a color that neither capture nor promote, including castling.
+     *
+     * @param board The current state of the board.
+     * @param color The color to generate moves for.
+     * @param moves The list to append the packed moves to.
+     */
+    public static void generateLegalQuietMoves(BitBoard board, Color color, MoveList moves) {
+        generate(board, color, moves, false, true);
+    }
+
+    /**
+     * Appends legal moves of a color, restricted to captures and promotions, quiet moves, or both.
+     */
+    private static void generate(BitBoard board, Color color, MoveList moves, boolean captures, boolean quiets) {
+        Color enemy = color.opposite();
+        long their = board.getOccupancy(enemy);
+        long occupied = board.getOccupancy();
+        long kingBit = board.getPieces(color, PieceType.KING);
+        if (kingBit == 0) {
+            return;
+        }
+        int king = Long.numberOfTrailingZeros(kingBit);
+        long checkers = board.getAttackers(king, enemy, occupied);
+
+        // Destination squares of the requested kind of move (pawns handle promotions separately)
+        long kindMask = (captures ? their : 0) | (quiets ? ~occupied : 0);
+
+        // King moves, with the king lifted off the board so it cannot step back along a checking ray
+        long occupiedWithoutKing = occupied ^ kingBit;
+        long kingTargets = Attacks.kingAttacks(king) & kindMask;
+        while (kingTargets != 0) {
+            int to = Long.numberOfTrailingZeros(kingTargets);
+            kingTargets &= kingTargets - 1;
+            if (board.getAttackers(to, enemy, occupiedWithoutKing) == 0) {
+                moves.add(Move.encode(king, to, (their & (1L << to)) != 0 ? Move.FLAG_CAPTURE : 0));
+            }
+        }
+
+        // In double check only the king can move
+        if (Long.bitCount(checkers) > 1) {
+            return;
+        }
+
+        // Squares other pieces may move to: anywhere, or when in check only onto the checker or between it and the king
+        long checkMask = ~0L;
+        if (checkers != 0) {
+            checkMask = checkers | Attacks.between(king, Long.numberOfTrailingZeros(checkers));
+        } else if (quiets) {
+            generateCastling(board, color, king, occupied, moves);
+        }
+
+        long pinned = getPinned(board, color);
+        long targetMask = kindMask & checkMask;
+
+        // Knights: a pinned knight can never move
+        long knights = board.getPieces(color, PieceType.KNIGHT) & ~pinned;
+        while (knights != 0) {
+            int from = Long.numberOfTrailingZeros(knights);
+            knights &= knights - 1;
+            addMoves(moves, from, Attacks.knightAttacks(from) & targetMask, their);
+        }
+
+        // Sliding pieces: a pinned piece may only move along the line through its king
+        long queens = board.getPieces(color, PieceType.QUEEN);
+        long diagonalSliders = board.getPieces(color, PieceType.BISHOP) | queens;
+        while (diagonalSliders != 0) {
+            int from = Long.numberOfTrailingZeros(diagonalSliders);
+            diagonalSliders &= diagonalSliders - 1;
+            long targets = Attacks.bishopAttacks(from, occupied) & targetMask;
+            if ((pinned & (1L << from)) != 0) {
+                targets &= Attacks.line(king, from);
+            }
+            addMoves(moves, from, targets, their);
+        }
+        long straightSliders = board.getPieces(color, PieceType.ROOK) | queens;
+        while (straightSliders != 0) {
+            int from = Long.numberOfTrailingZeros(straightSliders);
+            straightSliders &= straightSliders - 1;
+            long targets = Attacks.rookAttacks(from, occupied) & targetMask;
+            if ((pinned & (1L << from)) != 0) {
+                targets &= Attacks.line(king, from);
+            }
+            addMoves(moves, from, targets, their);
+        }
+
+        generatePawnMoves(board, color, king, checkers, checkMask, pinned, moves, captures, quiets);
+    }
+
+    /**
+     * Appends legal pawn moves, including promotions and en passant.
+     * Captures, en passant and promotions count as captures; other pushes are quiet.
+     */
+    private static void generatePawnMoves(BitBoard board, Color color, int king, long checkers, long checkMask,
+                                          long pinned, MoveList moves, boolean captures, boolean quiets) {
+        Color enemy = color.opposite();
+        long their = board.getOccupancy(enemy);
+        long occupied = board.getOccupancy();
+        int forward = color == Color.WHITE ? 8 : -8;
+        long promotionRank = color == Color.WHITE ? RANK_8 : RANK_1;
+        long doublePushRank = color == Color.WHITE ? RANK_1 << 24 : RANK_1 << 32; // Row a double push lands on
+
+        int enPassant = board.enPassantTarget != null && board.isEnPassantPossible(board.enPassantTarget, color)
+                ? board.enPassantTarget.index() : -1;
+
+        long pawns = board.getPieces(color, PieceType.PAWN);
+        while (pawns != 0) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            long allowed = (pinned & (1L << from)) != 0 ? Attacks.line(king, from) & checkMask : checkMask;
+
+            // Pushes
+            int to = from + forward;
+            if ((occupied & (1L << to)) == 0) {
+                boolean promotes = (promotionRank & (1L << to)) != 0;
+                if ((allowed & (1L << to)) != 0 && (promotes ? captures : quiets)) {
+                    addPawnMoves(moves, from, to, 0, promotes);
+                }
+                int twoStepsForward = to + forward;
+                long twoStepsBit = 1L << twoStepsForward;
+                if (quiets && (doublePushRank & twoStepsBit) != 0 && (occupied & twoStepsBit) == 0 && (allowed & twoStepsBit) != 0) {
+                    moves.add(Move.encode(from, twoStepsForward, Move.FLAG_DOUBLE_PUSH));
+                }
+            }
+            if (!captures) {
+                continue;
+            }
+
+            // Captures
+            long attacks = Attacks.pawnAttacks(color, from);
+            long targets = attacks & their & allowed;
+            while (targets != 0) {
+                to = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                addPawnMoves(moves, from, to, Move.FLAG_CAPTURE, (promotionRank & (1L << to)) != 0);
+            }
+
+            // En passant
+            if (enPassant >= 0 && (attacks & (1L << enPassant)) != 0) {
+                int captured = enPassant - forward;
+                // When in check, the capture must remove the checking pawn or block the check
+                if (checkers != 0 && (checkMask & ((1L << enPassant) | (1L << captured))) == 0) {
+                    continue;
+                }
+                // Both pawns leave the row at once, so test the resulting position for slider attacks directly.
+                // This also covers a pinned capturing pawn.
+                long after = (occupied ^ (1L << from) ^ (1L << captured)) | (1L << enPassant);
+                long queens = board.getPieces(enemy, PieceType.QUEEN);
+                if ((Attacks.rookAttacks(king, after) & (board.getPieces(enemy, PieceType.ROOK) | queens)) == 0
+                        && (Attacks.bishopAttacks(king, after) & (board.getPieces(enemy, PieceType.BISHOP) | queens)) == 0) {
+                    moves.add(Move.encode(from, enPassant, Move.FLAG_EN_PASSANT));
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends legal castling moves. Only called when the king is not in check.
+     */
+    private static void generateCastling(BitBoard board, Color color, int king, long occupied, MoveList moves) {
+        int home = color == Color.WHITE ? 4 : 60;
+        if (king != home) {
+            return;
+        }
+        Color enemy = color.opposite();
+        long rooks = board.getPieces(color, PieceType.ROOK);
+
+        // The squares between king and rook must be empty, and the king may not pass through or land on an attacked square
+        if (board.hasCastlingRight(color, true) && (rooks & (1L << (home + 3))) != 0
+                && (Attacks.between(home, home + 3) & occupied) == 0
+                && board.getAttackers(home + 1, enemy, occupied) == 0
+                && board.getAttackers(home + 2, enemy, occupied) == 0) {
+            moves.add(Move.encode(home, home + 2, Move.FLAG_CASTLING));
+        }
+        if (board.hasCastlingRight(color, false) && (rooks & (1L << (home - 4))) != 0
+                && (Attacks.between(home, home - 4) & occupied) == 0
+                && board.getAttackers(home - 1, enemy, occupied) == 0
+                && board.getAttackers(home - 2, enemy, occupied) == 0) {
+            moves.add(Move.encode(home, home - 2, Move.FLAG_CASTLING));
+        }
+    }
+
+    /**
+     * Appends one move per target square, flagging captures.
+     */
+    private static void addMoves(MoveList moves, int from, long targets, long their) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves.add(Move.encode(from, to, (their & (1L << to)) != 0 ? Move.FLAG_CAPTURE : 0));
+        }
+    }
+
+    /**
+     * Appends a pawn move, expanding it into one move per promotion piece when it reaches the last row.
+     */
+    private static void addPawnMoves(MoveList moves, int from, int to, int flags, boolean promotes) {
+        if (promotes) {
+            for (PieceType promotion : PROMOTION_TYPES) {
+                moves.add(Move.encode(from, to, promotion, flags));
+            }
+        } else {
+            moves.add(Move.encode(from, to, flags));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.aichessgame.model;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of packed int moves that can be cleared and reused without allocating.
+ */
+public final class MoveList {
+    private int[] moves; // Packed moves, see Move
+    private int size;    // Number of moves in the list
+
+    /**
+     * Constructor for the MoveList class with room for any legal position.
+     */
+    public MoveList() {
+        this(256);
+    }
+
+    /**
+     * Constructor for the MoveList class.
+     *
+     * @param capacity The initial capacity.
+     */
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+    /**
+     * Appends a move to the list.
+     *
+     * @param move The packed move.
+     */
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    /**
+     * Gets the move at an index.
+     *
+     * @param index The index of the move.
+     * @return The packed move.
+     */
+    public int get(int index) {
+        return moves[index];
+    }
+
+    /**
+     * Replaces the move at an index.
+     *
+     * @param index The index of the move.
+     * @param move  The packed move.
+     */
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    /**
+     * Swaps two moves, used when ordering the list in place.
+     *
+     * @param first  The index of the first move.
+     * @param second The index of the second move.
+     */
+    public void swap(int first, int second) {
+        int move = moves[first];
+        moves[first] = moves[second];
+        moves[second] = move;
+    }
+
+    /**
+     * Gets the number of moves in the list.
+     *
+     * @return The size of the list.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the list is empty.
+     *
+     * @return True if there are no moves.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Drops every move from an index onwards.
+     *
+     * @param newSize The number of moves to keep.
+     */
+    public void truncate(int newSize) {
+        size = newSize;
+    }
+
+    /**
+     * Removes all moves while keeping the backing array.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Checks if the list contains a move, ignoring its flags.
+     *
+     * @param move The packed move.
+     * @return True if a move with the same squares and promotion is in the list.
+     */
+    public boolean contains(int move) {
+        int key = Move.withoutFlags(move);
+        for (int i = 0; i < size; i++) {
+            if (Move.withoutFlags(moves[i]) == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -8,6 +8,12 @@ import java.util.List;
  */
 public class Pawn extends Piece {
 
+    // Left and right diagonals
+    private static final int[] CAPTURE_COLUMN_OFFSETS = {-1, 1};
+
+    // Promotion choices, strongest first
+    private static final PieceType[] PROMOTION_TYPES = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
+
     /**
      * Constructor for the Pawn class.
      *
@@ -19,7 +25,7 @@ public class Pawn extends Piece {
     }
 
     @Override
-    public List<Position> getPossibleMoves(Board board) {
+    public List<Position> getPossibleMoves(AbstractBoard board) {
         List<Position> possibleMoves = new ArrayList<>();
         int direction = (color == Color.WHITE) ? 1 : -1; // White moves up, Black moves down
 
@@ -28,28 +34,30 @@ public class Pawn extends Piece {
 
         // Forward move by one square
         int nextRow = currentRow + direction;
-        Position forwardPosition = new Position(nextRow, currentColumn);
+        if (!Position.isValidCoordinate(nextRow)) {
+            return possibleMoves;
+        }
+        Position forwardPosition = Position.of(nextRow, currentColumn);
 
-        if (Position.isValidCoordinate(nextRow) && board.isPositionEmpty(forwardPosition)) {
+        if (board.isPositionEmpty(forwardPosition)) {
             possibleMoves.add(forwardPosition);
 
             // Initial two-square move
             boolean isStartingRow = (color == Color.WHITE && currentRow == 1) || (color == Color.BLACK && currentRow == 6);
-            int twoStepsRow = currentRow + 2 * direction;
-            Position twoStepsForward = new Position(twoStepsRow, currentColumn);
-
-            if (isStartingRow && board.isPositionEmpty(twoStepsForward)) {
-                possibleMoves.add(twoStepsForward);
+            if (isStartingRow) {
+                Position twoStepsForward = Position.of(currentRow + 2 * direction, currentColumn);
+                if (board.isPositionEmpty(twoStepsForward)) {
+                    possibleMoves.add(twoStepsForward);
+                }
             }
         }
 
         // Diagonal captures
-        int[] columnOffsets = {-1, 1}; // Left and right diagonals
-        for (int offset : columnOffsets) {
+        for (int offset : CAPTURE_COLUMN_OFFSETS) {
             int diagonalRow = currentRow + direction;
             int diagonalColumn = currentColumn + offset;
             if (Position.isValidCoordinate(diagonalRow) && Position.isValidCoordinate(diagonalColumn)) {
-                Position diagonalPosition = new Position(diagonalRow, diagonalColumn);
+                Position diagonalPosition = Position.of(diagonalRow, diagonalColumn);
                 if (board.isPositionOccupiedByOpponent(diagonalPosition, color)) {
                     possibleMoves.add(diagonalPosition);
                 }
@@ -65,8 +73,66 @@ public class Pawn extends Piece {
         return possibleMoves;
     }
 
+    @Override
+    public void generateMoves(AbstractBoard board, MoveList moves) {
+        int direction = (color == Color.WHITE) ? 1 : -1; // White moves up, Black moves down
+        int from = getSquare();
+        int currentRow = position.getRow();
+        int currentColumn = position.getColumn();
+
+        int nextRow = currentRow + direction;
+        if (!Position.isValidCoordinate(nextRow)) {
+            return;
+        }
+        boolean promotes = nextRow == 0 || nextRow == 7;
+
+        // Forward move by one square, then the initial two-square move
+        int forward = nextRow * 8 + currentColumn;
+        if (board.isPositionEmpty(forward)) {
+            addPawnMove(moves, from, forward, 0, promotes);
+
+            boolean isStartingRow = (color == Color.WHITE && currentRow == 1) || (color == Color.BLACK && currentRow == 6);
+            int twoStepsForward = forward + 8 * direction;
+            if (isStartingRow && board.isPositionEmpty(twoStepsForward)) {
+                moves.add(Move.encode(from, twoStepsForward, Move.FLAG_DOUBLE_PUSH));
+            }
+        }
+
+        // Diagonal captures, including en passant
+        for (int offset : CAPTURE_COLUMN_OFFSETS) {
+            int diagonalColumn = currentColumn + offset;
+            if (Position.isValidCoordinate(diagonalColumn)) {
+                int to = nextRow * 8 + diagonalColumn;
+                Position diagonalPosition = Position.of(to);
+                if (board.isPositionOccupiedByOpponent(diagonalPosition, color)) {
+                    addPawnMove(moves, from, to, Move.FLAG_CAPTURE, promotes);
+                } else if (board.isEnPassantPossible(diagonalPosition, color)) {
+                    moves.add(Move.encode(from, to, Move.FLAG_EN_PASSANT));
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends a pawn move, expanding it into one move per promotion piece when it reaches the last row.
+     */
+    private static void addPawnMove(MoveList moves, int from, int to, int flags, boolean promotes) {
+        if (promotes) {
+            for (PieceType promotion : PROMOTION_TYPES) {
+                moves.add(Move.encode(from, to, promotion, flags));
+            }
+        } else {
+            moves.add(Move.encode(from, to, flags));
+        }
+    }
+
     @Override
     public String getType() {
         return "Pawn";
     }
+
+    @Override
+    public PieceType getPieceType() {
+        return PieceType.PAWN;
+    }
 }
@@ -65,7 +65,84 @@ public abstract class Piece {
      * @param board The current state of the board.
      * @return A list of positions representing legal moves.
      */
-    public abstract List<Position> getPossibleMoves(Board board);
+    public abstract List<Position> getPossibleMoves(AbstractBoard board);
+
+    /**
+     * Abstract method to append all possible moves for the piece to a move list.
+     * Produces the same moves as getPossibleMoves, packed as ints, without allocating.
+     *
+     * @param board The current state of the board.
+     * @param moves The list to append the packed moves to.
+     */
+    public abstract void generateMoves(AbstractBoard board, MoveList moves);
+
+    /**
+     * Gets the square index of the piece.
+     *
+     * @return The square index (row * 8 + column).
+     */
+    public int getSquare() {
+        return position.index();
+    }
+
+    /**
+     * Appends single-step moves (used by knights and kings) to a move list.
+     *
+     * @param board         The current state of the board.
+     * @param moves         The list to append the packed moves to.
+     * @param rowOffsets    The row offsets of each step.
+     * @param columnOffsets The column offsets of each step.
+     */
+    protected void addStepMoves(AbstractBoard board, MoveList moves, int[] rowOffsets, int[] columnOffsets) {
+        int from = getSquare();
+        for (int i = 0; i < rowOffsets.length; i++) {
+            int newRow = position.getRow() + rowOffsets[i];
+            int newColumn = position.getColumn() + columnOffsets[i];
+
+            if (Position.isValidCoordinate(newRow) && Position.isValidCoordinate(newColumn)) {
+                int to = newRow * 8 + newColumn;
+
+                if (board.isPositionEmpty(to)) {
+                    moves.add(Move.encode(from, to, 0));
+                } else if (board.isPositionOccupiedByOpponent(Position.of(to), color)) {
+                    moves.add(Move.encode(from, to, Move.FLAG_CAPTURE));
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends sliding moves (used by bishops, rooks and queens) to a move list.
+     *
+     * @param board            The current state of the board.
+     * @param moves            The list to append the packed moves to.
+     * @param rowDirections    The row direction of each ray.
+     * @param columnDirections The column direction of each ray.
+     */
+    protected void addSlidingMoves(AbstractBoard board, MoveList moves, int[] rowDirections, int[] columnDirections) {
+        int from = getSquare();
+        for (int i = 0; i < rowDirections.length; i++) {
+            int newRow = position.getRow() + rowDirections[i];
+            int newColumn = position.getColumn() + columnDirections[i];
+
+            // Continue moving in the current direction until blocked
+            while (Position.isValidCoordinate(newRow) && Position.isValidCoordinate(newColumn)) {
+                int to = newRow * 8 + newColumn;
+
+                if (board.isPositionEmpty(to)) {
+                    moves.add(Move.encode(from, to, 0));
+                } else {
+                    if (board.isPositionOccupiedByOpponent(Position.of(to), color)) {
+                        moves.add(Move.encode(from, to, Move.FLAG_CAPTURE)); // Can capture opponent's piece
+                    }
+                    break; // Blocked by any piece
+                }
+
+                newRow += rowDirections[i];
+                newColumn += columnDirections[i];
+            }
+        }
+    }
 
     /**
      * Returns the type of the piece (e.g., "Pawn", "Knight").
@@ -73,4 +150,11 @@ public abstract class Piece {
      * @return The type of the piece.
      */
     public abstract String getType();
+
+    /**
+     * Returns the type of the piece as an enum value.
+     *
+     * @return The type of the piece.
+     */
+    public abstract PieceType getPieceType();
 }
\ No newline at end of file
@@ -0,0 +1,148 @@
+package com.aichessgame.model;
+import com.aichessgame.utils.Color;
+
+/**
+ * Material and piece-square values for a tapered evaluation.
+ * Every piece has a middlegame and an endgame value for each square, and a phase weight;
+ * the evaluation blends the two sums by the phase left on the board. Boards keep the sums
+ * up to date as pieces are placed and removed, so evaluating a position reads two integers.
+ */
+public final class PieceSquareTables {
+    // Phase weight of each piece type indexed by PieceType ordinal; all pieces on the board add up to MAX_PHASE
+    public static final int[] PHASE_WEIGHTS = {0, 1, 1, 2, 4, 0};
+    public static final int MAX_PHASE = 24;
+
+    // Material values indexed by PieceType ordinal
+    private static final int[] MIDDLEGAME_VALUES = {100, 320, 330, 500, 900, 0};
+    private static final int[] ENDGAME_VALUES = {120, 300, 320, 520, 920, 0};
+
+    // Piece-square tables from white's point of view, written with row 8 at the top
+    private static final int[] PAWN_MIDDLEGAME_TABLE = {
+             0,   0,   0,   0,   0,   0,   0,   0,
+            50,  50,  50,  50,  50,  50,  50,  50,
+            10,  10,  20,  30,  30,  20,  10,  10,
+             5,   5,  10,  25,  25,  10,   5,   5,
+             0,   0,   0,  20,  20,   0,   0,   0,
+             5,  -5, -10,   0,   0, -10,  -5,   5,
+             5,  10,  10, -20, -20,  10,  10,   5,
+             0,   0,   0,   0,   0,   0,   0,   0
+    };
+    private static final int[] KNIGHT_TABLE = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20,   0,   0,   0,   0, -20, -40,
+            -30,   0,  10,  15,  15,  10,   0, -30,
+            -30,   5,  15,  20,  20,  15,   5, -30,
+            -30,   0,  15,  20,  20,  15,   0, -30,
+            -30,   5,  10,  15,  15,  10,   5, -30,
+            -40, -20,   0,   5,   5,   0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+    private static final int[] BISHOP_TABLE = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,  10,  10,   5,   0, -10,
+            -10,   5,   5,  10,  10,   5,   5, -10,
+            -10,   0,  10,  10,  10,  10,   0, -10,
+            -10,  10,  10,  10,  10,  10,  10, -10,
+            -10,   5,   0,   0,   0,   0,   5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+    private static final int[] ROOK_TABLE = {
+             0,   0,   0,   0,   0,   0,   0,   0,
+             5,  10,  10,  10,  10,  10,  10,   5,
+            -5,   0,   0,   0,   0,   0,   0,  -5,
+            -5,   0,   0,   0,   0,   0,   0,  -5,
+            -5,   0,   0,   0,   0,   0,   0,  -5,
+            -5,   0,   0,   0,   0,   0,   0,  -5,
+            -5,   0,   0,   0,   0,   0,   0,  -5,
+             0,   0,   0,   5,   5,   0,   0,   0
+    };
+    private static final int[] QUEEN_TABLE = {
+            -20, -10, -10,  -5,  -5, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,   5,   5,   5,   0, -10,
+             -5,   0,   5,   5,   5,   5,   0,  -5,
+              0,   0,   5,   5,   5,   5,   0,  -5,
+            -10,   5,   5,   5,   5,   5,   0, -10,
+            -10,   0,   5,   0,   0,   0,   0, -10,
+            -20, -10, -10,  -5,  -5, -10, -10, -20
+    };
+    private static final int[] KING_MIDDLEGAME_TABLE = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+             20,  20,   0,   0,   0,   0,  20,  20,
+             20,  30,  10,   0,   0,  10,  30,  20
+    };
+    private static final int[] PAWN_ENDGAME_TABLE = {
+             0,   0,   0,   0,   0,   0,   0,   0,
+            80,  80,  80,  80,  80,  80,  80,  80,
+            50,  50,  50,  50,  50,  50,  50,  50,
+            30,  30,  30,  30,  30,  30,  30,  30,
+            15,  15,  15,  15,  15,  15,  15,  15,
+             5,   5,   5,   5,   5,   5,   5,   5,
+             0,   0,   0,   0,   0,   0,   0,   0,
+             0,   0,   0,   0,   0,   0,   0,   0
+    };
+    private static final int[] KING_ENDGAME_TABLE = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10,   0,   0, -10, -20, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -30,   0,   0,   0,   0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50
+    };
+
+    // Material plus table value indexed by color * 6 + piece type, then square
+    private static final int[][] MIDDLEGAME = new int[12][64];
+    private static final int[][] ENDGAME = new int[12][64];
+
+    static {
+        int[][] middlegameTables = {PAWN_MIDDLEGAME_TABLE, KNIGHT_TABLE, BISHOP_TABLE, ROOK_TABLE, QUEEN_TABLE,
+                KING_MIDDLEGAME_TABLE};
+        int[][] endgameTables = {PAWN_ENDGAME_TABLE, KNIGHT_TABLE, BISHOP_TABLE, ROOK_TABLE, QUEEN_TABLE,
+                KING_ENDGAME_TABLE};
+        for (int type = 0; type < 6; type++) {
+            for (int square = 0; square < 64; square++) {
+                // The tables are written with row 8 first, so white squares are flipped vertically
+                MIDDLEGAME[type][square] = MIDDLEGAME_VALUES[type] + middlegameTables[type][square ^ 56];
+                ENDGAME[type][square] = ENDGAME_VALUES[type] + endgameTables[type][square ^ 56];
+                MIDDLEGAME[6 + type][square] = MIDDLEGAME_VALUES[type] + middlegameTables[type][square];
+                ENDGAME[6 + type][square] = ENDGAME_VALUES[type] + endgameTables[type][square];
+            }
+        }
+    }
+
+    private PieceSquareTables() {
+        // Static tables only
+    }
+
+    /**
+     * Gets the middlegame material plus piece-square value of a piece on a square.
+     *
+     * @param color  The color of the piece.
+     * @param type   The type of the piece.
+     * @param square The square index (row * 8 + column).
+     * @return The value in centipawns, always from the piece owner's point of view.
+     */
+    public static int middlegameValue(Color color, PieceType type, int square) {
+        return MIDDLEGAME[color.ordinal() * 6 + type.ordinal()][square];
+    }
+
+    /**
+     * Gets the endgame material plus piece-square value of a piece on a square.
+     *
+     * @param color  The color of the piece.
+     * @param type   The type of the piece.
+     * @param square The square index (row * 8 + column).
+     * @return The value in centipawns, always from the piece owner's point of view.
+     */
+    public static int endgameValue(Color color, PieceType type, int square) {
+        return ENDGAME[color.ordinal() * 6 + type.ordinal()][square];
+    }
+}
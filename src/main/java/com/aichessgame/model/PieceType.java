@@ -0,0 +1,14 @@
+package com.aichessgame.model;
+
+/**
+ * Enum representing the kind of a chess piece.
+ * The ordinal is used as an index into per-type tables such as bitboards.
+ */
+public enum PieceType {
+    PAWN,
+    KNIGHT,
+    BISHOP,
+    ROOK,
+    QUEEN,
+    KING
+}
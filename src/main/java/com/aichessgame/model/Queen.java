@@ -11,6 +11,10 @@ import java.util.List;
  */
 public class Queen extends Piece {
 
+    // Directions the queen can move: rook directions + bishop directions
+    private static final int[] ROW_DIRECTIONS = {-1, -1, -1, 0, 0, 1, 1, 1};
+    private static final int[] COLUMN_DIRECTIONS = {-1, 0, 1, -1, 1, -1, 0, 1};
+
     /**
      * Constructor for the Queen class.
      *
@@ -22,26 +26,22 @@ public class Queen extends Piece {
     }
 
     @Override
-    public List<Position> getPossibleMoves(Board board) {
+    public List<Position> getPossibleMoves(AbstractBoard board) {
         List<Position> possibleMoves = new ArrayList<>();
 
         int currentRow = position.getRow();
         int currentColumn = position.getColumn();
 
-        // Directions the queen can move: rook directions + bishop directions
-        int[] rowDirections = {-1, -1, -1, 0, 0, 1, 1, 1};
-        int[] columnDirections = {-1, 0, 1, -1, 1, -1, 0, 1};
-
         // Iterate over each direction
-        for (int i = 0; i < 8; i++) {
-            int rowDirection = rowDirections[i];
-            int columnDirection = columnDirections[i];
+        for (int i = 0; i < ROW_DIRECTIONS.length; i++) {
+            int rowDirection = ROW_DIRECTIONS[i];
+            int columnDirection = COLUMN_DIRECTIONS[i];
             int newRow = currentRow + rowDirection;
             int newColumn = currentColumn + columnDirection;
 
             // Continue moving in the current direction until blocked
             while (Position.isValidCoordinate(newRow) && Position.isValidCoordinate(newColumn)) {
-                Position newPosition = new Position(newRow, newColumn);
+                Position newPosition = Position.of(newRow, newColumn);
 
                 if (board.isPositionEmpty(newPosition)) {
                     possibleMoves.add(newPosition);
@@ -60,8 +60,18 @@ public class Queen extends Piece {
         return possibleMoves;
     }
 
+    @Override
+    public void generateMoves(AbstractBoard board, MoveList moves) {
+        addSlidingMoves(board, moves, ROW_DIRECTIONS, COLUMN_DIRECTIONS);
+    }
+
     @Override
     public String getType() {
         return "Queen";
     }
+
+    @Override
+    public PieceType getPieceType() {
+        return PieceType.QUEEN;
+    }
 }
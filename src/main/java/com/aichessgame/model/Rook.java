@@ -9,6 +9,10 @@ import java.util.List;
  */
 public class Rook extends Piece {
 
+    // Directions the rook can move: up, down, left, right
+    private static final int[] ROW_DIRECTIONS = {-1, 1, 0, 0};
+    private static final int[] COLUMN_DIRECTIONS = {0, 0, -1, 1};
+
     /**
      * Constructor for the Rook class.
      *
@@ -20,26 +24,22 @@ public class Rook extends Piece {
     }
 
     @Override
-    public List<Position> getPossibleMoves(Board board) {
+    public List<Position> getPossibleMoves(AbstractBoard board) {
         List<Position> possibleMoves = new ArrayList<>();
 
         int currentRow = position.getRow();
         int currentColumn = position.getColumn();
 
-        // Directions the rook can move: up, down, left, right
-        int[] rowDirections = {-1, 1, 0, 0};
-        int[] columnDirections = {0, 0, -1, 1};
-
         // Iterate over each direction
-        for (int i = 0; i < 4; i++) {
-            int rowDirection = rowDirections[i];
-            int columnDirection = columnDirections[i];
+        for (int i = 0; i < ROW_DIRECTIONS.length; i++) {
+            int rowDirection = ROW_DIRECTIONS[i];
+            int columnDirection = COLUMN_DIRECTIONS[i];
             int newRow = currentRow + rowDirection;
             int newColumn = currentColumn + columnDirection;
 
             // Continue moving in the current direction until blocked
             while (Position.isValidCoordinate(newRow) && Position.isValidCoordinate(newColumn)) {
-                Position newPosition = new Position(newRow, newColumn);
+                Position newPosition = Position.of(newRow, newColumn);
 
                 if (board.isPositionEmpty(newPosition)) {
                     possibleMoves.add(newPosition);
@@ -58,8 +58,18 @@ public class Rook extends Piece {
         return possibleMoves;
     }
 
+    @Override
+    public void generateMoves(AbstractBoard board, MoveList moves) {
+        addSlidingMoves(board, moves, ROW_DIRECTIONS, COLUMN_DIRECTIONS);
+    }
+
     @Override
     public String getType() {
         return "Rook";
     }
+
+    @Override
+    public PieceType getPieceType() {
+        return PieceType.ROOK;
+    }
 }
@@ -0,0 +1,178 @@
+package com.aichessgame.model;
+
+import com.aichessgame.utils.Color;
+
+/**
+ * Standard Algebraic Notation, the move notation of PGN files (e.g., "Nf3", "exd5", "O-O", "e8=Q+").
+ */
+public final class San {
+    private static final String PIECE_LETTERS = "PNBRQK"; // Indexed by PieceType ordinal
+
+    private San() {
+        // Static helpers only
+    }
+
+    /**
+     * Writes a legal move in SAN, with the starting column or row added only where another piece
+     * of the same type could reach the same square, and "+" or "#" if it gives check or mate.
+     *
+     * @param board The position the move is played in; returned unchanged.
+     * @param move  The packed move.
+     * @return The move in SAN.
+     */
+    public static String format(AbstractBoard board, int move) {
+        int from = Move.getFrom(move);
+        int to = Move.getTo(move);
+        Piece piece = board.getPieceAt(from);
+        if (piece == null) {
+            throw new IllegalArgumentException("No piece on the starting square of " + Move.toString(move));
+        }
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(board.getSideToMove(), moves);
+
+        StringBuilder san = new StringBuilder(8);
+        if (Move.hasFlag(move, Move.FLAG_CASTLING)) {
+            san.append(to > from ? "O-O" : "O-O-O");
+        } else {
+            PieceType type = piece.getPieceType();
+            if (type == PieceType.PAWN) {
+                if (Move.isCapture(move)) {
+                    san.append((char) ('a' + (from & 7)));
+                }
+            } else {
+                san.append(PIECE_LETTERS.charAt(type.ordinal()));
+                // Disambiguate by column if that is enough, otherwise by row, otherwise by both
+                boolean ambiguous = false;
+                boolean sameColumn = false;
+                boolean sameRow = false;
+                for (int i = 0; i < moves.size(); i++) {
+                    int other = moves.get(i);
+                    int otherFrom = Move.getFrom(other);
+                    if (Move.getTo(other) == to && otherFrom != from
+                            && board.getPieceAt(otherFrom).getPieceType() == type) {
+                        ambiguous = true;
+                        sameColumn |= (otherFrom & 7) == (from & 7);
+                        sameRow |= (otherFrom >>> 3) == (from >>> 3);
+                    }
+                }
+                if (ambiguous && (!sameColumn || sameRow)) {
+                    san.append((char) ('a' + (from & 7)));
+                }
+                if (ambiguous && sameColumn) {
+                    san.append((char) ('1' + (from >>> 3)));
+                }
+            }
+            if (Move.isCapture(move)) {
+                san.append('x');
+            }
+            san.append((char) ('a' + (to & 7))).append((char) ('1' + (to >>> 3)));
+            PieceType promotion = Move.getPromotion(move);
+            if (promotion != null) {
+                san.append('=').append(PIECE_LETTERS.charAt(promotion.ordinal()));
+            }
+        }
+
+        board.makeMove(move);
+        Color opponent = board.getSideToMove();
+        if (board.isKingInCheck(opponent)) {
+            moves.clear();
+            board.generateLegalMoves(opponent, moves);
+            san.append(moves.isEmpty() ? '#' : '+');
+        }
+        board.unmakeMove();
+        return san.toString();
+    }
+
+    /**
+     * Finds the legal move a SAN string describes.
+     * Check, mate and annotation suffixes are ignored, as are the "x" of captures.
+     *
+     * @param board The position the move is played in.
+     * @param san   The move in SAN.
+     * @return The packed move.
+     * @throws IllegalArgumentException If no legal move, or more than one, matches.
+     */
+    public static int parse(AbstractBoard board, String san) {
+        String text = san;
+        int end = text.length();
+        while (end > 0 && "+#!?".indexOf(text.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        text = text.substring(0, end);
+
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(board.getSideToMove(), moves);
+
+        if (text.equals("O-O") || text.equals("0-0") || text.equals("O-O-O") || text.equals("0-0-0")) {
+            boolean kingside = text.length() == 3;
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
+                if (Move.hasFlag(move, Move.FLAG_CASTLING) && (Move.getTo(move) > Move.getFrom(move)) == kingside) {
+                    return move;
+                }
+            }
+            throw new IllegalArgumentException("Illegal castling: " + san);
+        }
+
+        // Promotion suffix, with or without "="
+        PieceType promotion = null;
+        if (text.length() > 2 && "NBRQ".indexOf(text.charAt(text.length() - 1)) >= 0) {
+            promotion = PieceType.values()[PIECE_LETTERS.indexOf(text.charAt(text.length() - 1))];
+            text = text.substring(0, text.length() - (text.charAt(text.length() - 2) == '=' ? 2 : 1));
+        }
+        if (text.length() < 2) {
+            throw new IllegalArgumentException("Invalid SAN: " + san);
+        }
+
+        PieceType type = PieceType.PAWN;
+        int start = 0;
+        if (Character.isUpperCase(text.charAt(0))) {
+            int letter = PIECE_LETTERS.indexOf(text.charAt(0));
+            if (letter <= 0) {
+                throw new IllegalArgumentException("Invalid piece in SAN: " + san);
+            }
+            type = PieceType.values()[letter];
+            start = 1;
+        }
+        int toColumn = text.charAt(text.length() - 2) - 'a';
+        int toRow = text.charAt(text.length() - 1) - '1';
+        if (toColumn < 0 || toColumn > 7 || toRow < 0 || toRow > 7) {
+            throw new IllegalArgumentException("Invalid destination in SAN: " + san);
+        }
+        int to = toRow * 8 + toColumn;
+
+        // Whatever is left between the piece and the destination narrows down the starting square
+        int fromColumn = -1;
+        int fromRow = -1;
+        for (int i = start; i < text.length() - 2; i++) {
+            char c = text.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromColumn = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRow = c - '1';
+            } else if (c != 'x' && c != '-' && c != ':') {
+                throw new IllegalArgumentException("Invalid SAN: " + san);
+            }
+        }
+
+        int found = Move.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int from = Move.getFrom(move);
+            Piece piece = board.getPieceAt(from);
+            if (Move.getTo(move) != to || piece.getPieceType() != type || Move.getPromotion(move) != promotion
+                    || Move.hasFlag(move, Move.FLAG_CASTLING)
+                    || (fromColumn >= 0 && (from & 7) != fromColumn) || (fromRow >= 0 && (from >>> 3) != fromRow)) {
+                continue;
+            }
+            if (found != Move.NONE) {
+                throw new IllegalArgumentException("Ambiguous SAN: " + san);
+            }
+            found = move;
+        }
+        if (found == Move.NONE) {
+            throw new IllegalArgumentException("Illegal move: " + san);
+        }
+        return found;
+    }
+}
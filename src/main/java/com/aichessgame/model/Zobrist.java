@@ -0,0 +1,142 @@
+package com.aichessgame.model;
+import com.aichessgame.utils.Color;
+
+/**
+ * Random keys for Zobrist hashing of positions.
+ * A position's key is the XOR of one key per piece on its square, plus keys for
+ * the side to move, the castling rights and the en passant column, so two
+ * positions with the same pieces and rights get the same 64-bit key.
+ */
+public final class Zobrist {
+    private static final long[][] PIECE_KEYS = new long[12][64]; // Indexed by color * 6 + piece type, then square
+    private static final long[] CASTLING_KEYS = new long[16];    // Indexed by the castling rights bitmask
+    private static final long[] EN_PASSANT_KEYS = new long[8];   // Indexed by the en passant column
+    private static final long BLACK_TO_MOVE_KEY;
+
+    static {
+        // Fixed seed so keys are the same on every run
+        long seed = 0x9E3779B97F4A7C15L;
+        for (long[] keys : PIECE_KEYS) {
+            for (int square = 0; square < 64; square++) {
+                seed = nextRandom(seed);
+                keys[square] = mix(seed);
+            }
+        }
+        for (int i = 0; i < CASTLING_KEYS.length; i++) {
+            seed = nextRandom(seed);
+            CASTLING_KEYS[i] = mix(seed);
+        }
+        for (int i = 0; i < EN_PASSANT_KEYS.length; i++) {
+            seed = nextRandom(seed);
+            EN_PASSANT_KEYS[i] = mix(seed);
+        }
+        seed = nextRandom(seed);
+        BLACK_TO_MOVE_KEY = mix(seed);
+    }
+
+    private Zobrist() {
+        // Static keys only
+    }
+
+    /**
+     * Gets the key of a piece standing on a square.
+     *
+     * @param color  The color of the piece.
+     * @param type   The type of the piece.
+     * @param square The square index (row * 8 + column).
+     * @return The piece-square key.
+     */
+    public static long pieceKey(Color color, PieceType type, int square) {
+        return PIECE_KEYS[color.ordinal() * 6 + type.ordinal()][square];
+    }
+
+    /**
+     * Gets the key of a set of castling rights.
+     *
+     * @param castlingRights A bitmask of the AbstractBoard castling flags.
+     * @return The castling key.
+     */
+    public static long castlingKey(int castlingRights) {
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    /**
+     * Gets the key of an en passant target column.
+     *
+     * @param column The column of the en passant target square.
+     * @return The en passant key.
+     */
+    public static long enPassantKey(int column) {
+        return EN_PASSANT_KEYS[column];
+    }
+
+    /**
+     * Gets the key that is toggled when black is to move.
+     *
+     * @return The side to move key.
+     */
+    public static long blackToMoveKey() {
+        return BLACK_TO_MOVE_KEY;
+    }
+
+    /**
+     * Computes the key of a board from scratch by visiting every square.
+     *
+     * @param board The board to hash.
+     * @return The Zobrist key of the position.
+     */
+    public static long computeKey(AbstractBoard board) {
+        long key = 0;
+        for (int square = 0; square < 64; square++) {
+            Piece piece = board.getPieceAt(square);
+            if (piece != null) {
+                key ^= pieceKey(piece.getColor(), piece.getPieceType(), square);
+            }
+        }
+        key ^= castlingKey(board.getCastlingRights());
+        if (board.enPassantTarget != null) {
+            key ^= enPassantKey(board.enPassantTarget.getColumn());
+        }
+        if (board.getSideToMove() == Color.BLACK) {
+            key ^= BLACK_TO_MOVE_KEY;
+        }
+        return key;
+    }
+
+    /**
+     * Computes the key of a board's pawn placement from scratch.
+     * Uses the same pawn keys as computeKey, so it is the XOR of the pawn terms of the full key.
+     *
+     * @param board The board to hash.
+     * @return The 64-bit pawn key.
+     */
+    public static long computePawnKey(AbstractBoard board) {
+        long key = 0;
+        for (int square = 0; square < 64; square++) {
+            Piece piece = board.getPieceAt(square);
+            if (piece != null && piece.getPieceType() == PieceType.PAWN) {
+                key ^= pieceKey(piece.getColor(), PieceType.PAWN, square);
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Advances a xorshift64 state.
+     */
+    private static long nextRandom(long seed) {
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        return seed;
+    }
+
+    /**
+     * Scrambles a generator state into a well distributed key (SplitMix64 finalizer).
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,116 @@
+package com.aichessgame.pgn;
+
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.BitBoard;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One game of a PGN file: its tags, its moves resolved to packed moves and its result.
+ */
+public class PgnGame {
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private final Map<String, String> tags; // Tag pairs in file order
+    private final int[] moves;              // Packed moves of the main line
+    private final String result;            // "1-0", "0-1", "1/2-1/2" or "*"
+    private final String error;             // Why reading the moves stopped early, or null
+
+    /**
+     * Constructor for the PgnGame class.
+     *
+     * @param tags   The tag pairs, in the order to write them; copied.
+     * @param moves  The packed moves of the game, played from the FEN tag's position or the standard start; copied.
+     * @param result The result: "1-0", "0-1", "1/2-1/2" or "*".
+     */
+    public PgnGame(Map<String, String> tags, int[] moves, String result) {
+        this(tags, moves, result, null);
+    }
+
+    PgnGame(Map<String, String> tags, int[] moves, String result, String error) {
+        if (!result.equals("1-0") && !result.equals("0-1") && !result.equals("1/2-1/2") && !result.equals("*")) {
+            throw new IllegalArgumentException("Invalid PGN result: " + result);
+        }
+        this.tags = Collections.unmodifiableMap(new LinkedHashMap<>(tags));
+        this.moves = moves.clone();
+        this.result = result;
+        this.error = error;
+    }
+
+    /**
+     * Gets the tag pairs.
+     *
+     * @return The tags by name, in file order; unmodifiable.
+     */
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    /**
+     * Gets the value of a tag.
+     *
+     * @param name The tag name, for example "White".
+     * @return The value, or null if the game does not have the tag.
+     */
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    /**
+     * Gets the position the game starts from: the FEN tag, or the standard starting position.
+     *
+     * @return The starting position as FEN.
+     */
+    public String getStartFen() {
+        String fen = tags.get("FEN");
+        return fen != null ? fen : START_FEN;
+    }
+
+    /**
+     * Sets up a new board in the game's starting position.
+     *
+     * @return The board.
+     */
+    public AbstractBoard createStartBoard() {
+        return new BitBoard(getStartFen());
+    }
+
+    /**
+     * Gets the moves of the game's main line.
+     *
+     * @return The packed moves, in the order they were played.
+     */
+    public int[] getMoves() {
+        return moves.clone();
+    }
+
+    /**
+     * Gets the number of moves (plies) of the game's main line.
+     *
+     * @return The move count.
+     */
+    public int getMoveCount() {
+        return moves.length;
+    }
+
+    /**
+     * Gets the result of the game: the game termination marker, or the Result tag if the moves had none.
+     *
+     * @return "1-0", "0-1", "1/2-1/2" or "*".
+     */
+    public String getResult() {
+        return result;
+    }
+
+    /**
+     * Gets why the moves could not all be read, for example an illegal or ambiguous move.
+     * The moves before it are still available.
+     *
+     * @return The error message, or null if every move was read.
+     */
+    public String getError() {
+        return error;
+    }
+}
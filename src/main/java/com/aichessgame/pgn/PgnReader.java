@@ -0,0 +1,393 @@
+package com.aichessgame.pgn;
+
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.BitBoard;
+import com.aichessgame.model.MoveList;
+import com.aichessgame.model.San;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the games of a PGN file one at a time from a channel, so files of any size are read
+ * with the memory of one buffer and one game.
+ *
+ * Reading is split in two steps. Cutting the input into the text of each game only looks at
+ * line starts and comment braces, which is fast and has to be sequential; a game ends where a
+ * tag line follows its moves. Parsing a game's text, which resolves every SAN move against the
+ * legal moves of its position, is the expensive step, and games are independent, so stream()
+ * hands out batches of game texts that a parallel stream parses on all cores.
+ *
+ * Comments, variations, NAGs and escaped lines are skipped; only the main line is kept.
+ */
+public class PgnReader implements Iterator<PgnGame>, Closeable {
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final int BATCH_SIZE = 64; // Game texts handed to each split of a parallel stream
+
+    private final ReadableByteChannel channel;
+    private final Charset charset;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+    private byte[] game = new byte[4096]; // Bytes of the game being cut out
+    private int gameLength;
+    private boolean endOfInput;
+    private String pending;               // The next game's text, read ahead by hasNext, or null
+
+    // Cutting state, carried from one buffer to the next
+    private boolean lineStart = true;
+    private boolean skipLine;             // In a tag line, a ";" comment or a "%" escaped line
+    private int braceDepth;               // Inside {...} comments
+    private boolean hasMoves;             // The current game has text after its tags
+
+    /**
+     * Opens a PGN file in the ISO-8859-1 encoding the PGN standard uses.
+     *
+     * @param path The PGN file.
+     * @throws IOException If the file cannot be opened.
+     */
+    public PgnReader(Path path) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.READ), StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Constructor for the PgnReader class.
+     *
+     * @param channel The channel to read; closed by close.
+     * @param charset The encoding of tag values and comments, for example UTF-8 for many online archives.
+     */
+    public PgnReader(ReadableByteChannel channel, Charset charset) {
+        this.channel = channel;
+        this.charset = charset;
+        buffer.flip();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (pending == null) {
+            try {
+                pending = nextGameText();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return pending != null;
+    }
+
+    /**
+     * Reads and parses the next game.
+     *
+     * @return The game.
+     * @throws NoSuchElementException If there are no more games.
+     * @throws UncheckedIOException   If the channel cannot be read.
+     */
+    @Override
+    public PgnGame next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String text = pending;
+        pending = null;
+        return parse(text);
+    }
+
+    /**
+     * Gets the remaining games as a stream that reads lazily. Made parallel, it splits the input
+     * at game boundaries into batches parsed on separate threads; the order is kept unless the
+     * stream is made unordered. Closing the stream closes the reader.
+     *
+     * @return The games.
+     */
+    public Stream<PgnGame> stream() {
+        return StreamSupport.stream(new GameTextSpliterator(), false)
+                .map(PgnReader::parse)
+                .onClose(() -> {
+                    try {
+                        close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Parses the text of one game.
+     *
+     * @param text The tags and moves of one game.
+     * @return The game; if a move cannot be resolved, the moves before it and an error.
+     */
+    public static PgnGame parse(String text) {
+        Map<String, String> tags = new LinkedHashMap<>();
+        MoveList moves = new MoveList();
+        String termination = null;
+        String error = null;
+        AbstractBoard board = null;
+        int variationDepth = 0;
+
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '[' && board == null) {
+                i = parseTag(text, i + 1, tags);
+            } else if (c == '{') {
+                int end = text.indexOf('}', i);
+                i = end < 0 ? length : end + 1;
+            } else if (c == ';' || (c == '%' && (i == 0 || text.charAt(i - 1) == '\n'))) {
+                int end = text.indexOf('\n', i);
+                i = end < 0 ? length : end + 1;
+            } else if (c == '(') {
+                variationDepth++;
+                i++;
+            } else if (c == ')') {
+                variationDepth = Math.max(0, variationDepth - 1);
+                i++;
+            } else if (c == '$') {
+                i++;
+                while (i < length && Character.isDigit(text.charAt(i))) {
+                    i++;
+                }
+            } else {
+                int start = i;
+                while (i < length && !Character.isWhitespace(text.charAt(i)) && "{}();[".indexOf(text.charAt(i)) < 0) {
+                    i++;
+                }
+                if (start == i) {
+                    i++; // A stray bracket
+                    continue;
+                }
+                if (board == null) {
+                    try {
+                        board = new BitBoard(tags.getOrDefault("FEN", PgnGame.START_FEN));
+                    } catch (IllegalArgumentException e) {
+                        error = "Invalid FEN: " + e.getMessage();
+                        board = new BitBoard();
+                    }
+                }
+                if (variationDepth > 0) {
+                    continue;
+                }
+                String token = stripMoveNumber(text.substring(start, i));
+                if (token.equals("1-0") || token.equals("0-1") || token.equals("1/2-1/2") || token.equals("*")) {
+                    termination = token;
+                } else if (!token.isEmpty() && !isAnnotation(token) && error == null) {
+                    try {
+                        int move = San.parse(board, token);
+                        board.makeMove(move);
+                        moves.add(move);
+                    } catch (IllegalArgumentException e) {
+                        error = "Move " + (moves.size() + 1) + ": " + e.getMessage();
+                    }
+                }
+            }
+        }
+
+        String result = termination != null ? termination : tags.getOrDefault("Result", "*");
+        if (!result.equals("1-0") && !result.equals("0-1") && !result.equals("1/2-1/2")) {
+            result = "*";
+        }
+        int[] packed = new int[moves.size()];
+        for (int m = 0; m < packed.length; m++) {
+            packed[m] = moves.get(m);
+        }
+        return new PgnGame(tags, packed, result, error);
+    }
+
+    /**
+     * Parses a tag pair such as [White "Carlsen, Magnus"], starting after the "[".
+     *
+     * @return The index after the closing "]".
+     */
+    private static int parseTag(String text, int i, Map<String, String> tags) {
+        int length = text.length();
+        int nameStart = i;
+        while (i < length && !Character.isWhitespace(text.charAt(i)) && text.charAt(i) != '"' && text.charAt(i) != ']') {
+            i++;
+        }
+        String name = text.substring(nameStart, i);
+        while (i < length && text.charAt(i) != '"' && text.charAt(i) != ']') {
+            i++;
+        }
+        StringBuilder value = new StringBuilder();
+        if (i < length && text.charAt(i) == '"') {
+            i++;
+            while (i < length && text.charAt(i) != '"') {
+                if (text.charAt(i) == '\\' && i + 1 < length) {
+                    i++;
+                }
+                value.append(text.charAt(i++));
+            }
+        }
+        int end = text.indexOf(']', i);
+        if (!name.isEmpty()) {
+            tags.put(name, value.toString());
+        }
+        return end < 0 ? length : end + 1;
+    }
+
+    /**
+     * Removes a leading move number such as "12." or "12..." from a token.
+     */
+    private static String stripMoveNumber(String token) {
+        int i = 0;
+        while (i < token.length() && Character.isDigit(token.charAt(i))) {
+            i++;
+        }
+        if (i == 0 || i == token.length() || token.charAt(i) != '.') {
+            return token;
+        }
+        while (i < token.length() && token.charAt(i) == '.') {
+            i++;
+        }
+        return token.substring(i);
+    }
+
+    /**
+     * Checks if a token is only a move annotation such as "!" or "?!" written apart from its move.
+     */
+    private static boolean isAnnotation(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (token.charAt(i) != '!' && token.charAt(i) != '?') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Cuts the text of the next game out of the input.
+     *
+     * @return The game's text, or null at the end of the input.
+     */
+    private String nextGameText() throws IOException {
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                if (endOfInput || !fill()) {
+                    endOfInput = true;
+                    String text = hasText() ? takeGame() : null;
+                    gameLength = 0;
+                    return text;
+                }
+            }
+            byte b = buffer.get();
+
+            String finished = null;
+            if (lineStart && braceDepth == 0 && (b == '[' || b == '%')) {
+                if (b == '[' && hasMoves) {
+                    // A tag after the moves starts the next game
+                    finished = takeGame();
+                    gameLength = 0;
+                    hasMoves = false;
+                }
+                skipLine = true;
+            } else if (b == '\n') {
+                skipLine = false;
+            } else if (!skipLine) {
+                if (braceDepth > 0) {
+                    if (b == '}') {
+                        braceDepth--;
+                    }
+                } else if (b == '{') {
+                    braceDepth++;
+                    hasMoves = true;
+                } else if (b == ';') {
+                    skipLine = true;
+                } else if (b != ' ' && b != '\t' && b != '\r') {
+                    hasMoves = true;
+                }
+            }
+            lineStart = b == '\n';
+
+            if (gameLength == game.length) {
+                game = Arrays.copyOf(game, game.length * 2);
+            }
+            game[gameLength++] = b;
+            if (finished != null) {
+                return finished;
+            }
+        }
+    }
+
+    private boolean fill() throws IOException {
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+        buffer.flip();
+        return read > 0;
+    }
+
+    private boolean hasText() {
+        for (int i = 0; i < gameLength; i++) {
+            if (!Character.isWhitespace(game[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String takeGame() {
+        String text = new String(game, 0, gameLength, charset);
+        if (game.length > BUFFER_BYTES) {
+            game = new byte[4096]; // Let an unusually long game's array go
+        }
+        return text;
+    }
+
+    /**
+     * Hands out game texts one at a time, or in batches to parallel workers.
+     * Only the thread currently owning the spliterator reads the channel, as streams guarantee.
+     */
+    private class GameTextSpliterator extends Spliterators.AbstractSpliterator<String> {
+        GameTextSpliterator() {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action) {
+            if (!hasNext()) {
+                return false;
+            }
+            String text = pending;
+            pending = null;
+            action.accept(text);
+            return true;
+        }
+
+        @Override
+        public Spliterator<String> trySplit() {
+            String[] batch = new String[BATCH_SIZE];
+            int count = 0;
+            while (count < BATCH_SIZE && hasNext()) {
+                batch[count++] = pending;
+                pending = null;
+            }
+            return count == 0 ? null : Spliterators.spliterator(batch, 0, count,
+                    Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+        }
+    }
+}
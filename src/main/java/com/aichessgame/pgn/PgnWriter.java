@@ -0,0 +1,163 @@
+package com.aichessgame.pgn;
+
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.San;
+import com.aichessgame.utils.Color;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * Writes games in PGN export format: the seven standard tags first, then the other tags,
+ * then the moves in SAN wrapped at 80 columns, and a blank line after each game.
+ * Games are collected in a buffer and written to the channel when it fills up. Not thread safe.
+ */
+public class PgnWriter implements Closeable, Flushable {
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final int LINE_LENGTH = 80;
+    private static final String[] SEVEN_TAG_ROSTER = {"Event", "Site", "Date", "Round", "White", "Black", "Result"};
+    private static final String[] SEVEN_TAG_DEFAULTS = {"?", "?", "????.??.??", "?", "?", "?", "*"};
+
+    private final WritableByteChannel channel;
+    private final Charset charset;
+    private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+
+    /**
+     * Creates or replaces a PGN file, in the ISO-8859-1 encoding the PGN standard uses.
+     *
+     * @param path The PGN file.
+     * @throws IOException If the file cannot be created.
+     */
+    public PgnWriter(Path path) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING), StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Constructor for the PgnWriter class.
+     *
+     * @param channel The channel to write; closed by close.
+     * @param charset The encoding of tag values.
+     */
+    public PgnWriter(WritableByteChannel channel, Charset charset) {
+        this.channel = channel;
+        this.charset = charset;
+    }
+
+    /**
+     * Writes a game. The Result tag always matches the game's result.
+     *
+     * @param game The game.
+     * @throws IOException If the buffer had to be written and the write failed.
+     */
+    public void write(PgnGame game) throws IOException {
+        StringBuilder text = new StringBuilder(1024);
+        Map<String, String> tags = game.getTags();
+        for (int i = 0; i < SEVEN_TAG_ROSTER.length; i++) {
+            String value = i == SEVEN_TAG_ROSTER.length - 1 ? game.getResult()
+                    : tags.getOrDefault(SEVEN_TAG_ROSTER[i], SEVEN_TAG_DEFAULTS[i]);
+            appendTag(text, SEVEN_TAG_ROSTER[i], value);
+        }
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            boolean standard = false;
+            for (String name : SEVEN_TAG_ROSTER) {
+                standard |= name.equals(tag.getKey());
+            }
+            if (!standard) {
+                appendTag(text, tag.getKey(), tag.getValue());
+            }
+        }
+        text.append('\n');
+
+        AbstractBoard board = game.createStartBoard();
+        int lineStart = text.length();
+        boolean first = true;
+        for (int move : game.getMoves()) {
+            boolean white = board.getSideToMove() == Color.WHITE;
+            int moveNumber = board.getFullmoveNumber();
+            String token = white ? moveNumber + ". " + San.format(board, move)
+                    : first ? moveNumber + "... " + San.format(board, move) : San.format(board, move);
+            lineStart = appendToken(text, lineStart, token);
+            board.makeMove(move);
+            first = false;
+        }
+        appendToken(text, lineStart, game.getResult());
+        text.append("\n\n");
+
+        byte[] bytes = text.toString().getBytes(charset);
+        if (bytes.length > buffer.remaining()) {
+            writeBuffer();
+            if (bytes.length > buffer.capacity()) {
+                buffer = ByteBuffer.allocate(bytes.length);
+            }
+        }
+        buffer.put(bytes);
+    }
+
+    /**
+     * Writes the buffered games to the channel.
+     *
+     * @throws IOException If the write fails.
+     */
+    @Override
+    public void flush() throws IOException {
+        writeBuffer();
+    }
+
+    /**
+     * Writes the buffered games and closes the channel. Does nothing if it is already closed.
+     *
+     * @throws IOException If the write fails.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private static void appendTag(StringBuilder text, String name, String value) {
+        text.append('[').append(name).append(" \"")
+                .append(value.replace("\\", "\\\\").replace("\"", "\\\"")).append("\"]\n");
+    }
+
+    /**
+     * Appends a token to the movetext, starting a new line if it would pass the line length.
+     *
+     * @return The index where the current line starts.
+     */
+    private static int appendToken(StringBuilder text, int lineStart, String token) {
+        if (text.length() > lineStart) {
+            if (text.length() - lineStart + 1 + token.length() > LINE_LENGTH) {
+                text.append('\n');
+                lineStart = text.length();
+            } else {
+                text.append(' ');
+            }
+        }
+        text.append(token);
+        return lineStart;
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
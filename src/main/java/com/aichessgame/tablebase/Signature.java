@@ -0,0 +1,149 @@
+package com.aichessgame.tablebase;
+
+import com.aichessgame.model.PieceType;
+
+import java.util.Arrays;
+
+/**
+ * The material signatures covered by the tablebase, and the indexing of their positions.
+ *
+ * Positions are always stored with the strong side as white, and folded by symmetry:
+ * without pawns the board can be mirrored and turned, so the white king is moved into the
+ * ten-square triangle a1-d1-d4; with a pawn only the left-right mirror keeps the rules, so
+ * the pawn is moved to the a to d columns. The index of a position is then
+ *   without pawns: ((white king triangle index * 64 + black king) * 64 + piece 1) * 64 + piece 2 ...
+ *   with a pawn:   (pawn index * 64 + white king) * 64 + black king, pawn index = row * 4 + column.
+ * Every table has one entry per index for each side to move.
+ */
+public enum Signature {
+    KQK(PieceType.QUEEN),
+    KRK(PieceType.ROOK),
+    KPK(PieceType.PAWN),
+    KBNK(PieceType.BISHOP, PieceType.KNIGHT);
+
+    // Index of each square of the triangle a1, b1, c1, d1, b2, c2, d2, c3, d3, d4, or -1
+    private static final int[] TRIANGLE_INDEX = new int[64];
+    private static final int[] TRIANGLE_SQUARES = {0, 1, 2, 3, 9, 10, 11, 18, 19, 27};
+
+    static {
+        Arrays.fill(TRIANGLE_INDEX, -1);
+        for (int i = 0; i < TRIANGLE_SQUARES.length; i++) {
+            TRIANGLE_INDEX[TRIANGLE_SQUARES[i]] = i;
+        }
+    }
+
+    private final PieceType[] pieces; // The strong side's pieces besides the king
+    private final boolean hasPawn;
+    private final int size;           // Entries per side to move
+
+    Signature(PieceType... pieces) {
+        this.pieces = pieces;
+        this.hasPawn = pieces[0] == PieceType.PAWN;
+        int positions = hasPawn ? 32 * 64 * 64 : 10 * 64; // Ten white king squares
+        for (int i = hasPawn ? 1 : 0; i < pieces.length; i++) {
+            positions *= 64;
+        }
+        this.size = positions;
+    }
+
+    /**
+     * Gets the strong side's pieces besides the king, in index order.
+     *
+     * @return The piece types.
+     */
+    public PieceType[] getPieces() {
+        return pieces.clone();
+    }
+
+    /**
+     * Gets the number of entries per side to move.
+     *
+     * @return The table size.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the signature of a strong side's material.
+     *
+     * @param counts The number of pieces of each type indexed by PieceType ordinal, kings excluded.
+     * @return The signature, or null if the material is not covered.
+     */
+    public static Signature of(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        for (Signature signature : values()) {
+            if (signature.pieces.length == total) {
+                boolean matches = true;
+                for (PieceType piece : signature.pieces) {
+                    if (counts[piece.ordinal()] != 1) {
+                        matches = false;
+                    }
+                }
+                if (matches) {
+                    return signature;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Computes the index of a position, folding it by symmetry first.
+     *
+     * @param whiteKing   The strong king's square.
+     * @param blackKing   The weak king's square.
+     * @param pieceSquares The squares of the strong side's other pieces, in the order of getPieces(); not modified.
+     * @return The index.
+     */
+    public int index(int whiteKing, int blackKing, int[] pieceSquares) {
+        if (hasPawn) {
+            int flip = (pieceSquares[0] & 7) > 3 ? 7 : 0;
+            int pawn = pieceSquares[0] ^ flip;
+            return (((pawn >>> 3) * 4 + (pawn & 7)) * 64 + (whiteKing ^ flip)) * 64 + (blackKing ^ flip);
+        }
+
+        // Mirror left-right and top-bottom so the white king is in the a1-d4 quarter, then across the diagonal
+        int flip = ((whiteKing & 7) > 3 ? 7 : 0) | ((whiteKing >>> 3) > 3 ? 56 : 0);
+        int king = whiteKing ^ flip;
+        boolean transpose = (king >>> 3) > (king & 7);
+        int index = TRIANGLE_INDEX[transform(whiteKing, flip, transpose)];
+        index = index * 64 + transform(blackKing, flip, transpose);
+        for (int square : pieceSquares) {
+            index = index * 64 + transform(square, flip, transpose);
+        }
+        return index;
+    }
+
+    /**
+     * Recovers a position from its index.
+     *
+     * @param index        The index.
+     * @param pieceSquares Receives the squares of the strong side's other pieces.
+     * @return The strong king's square in the low 6 bits and the weak king's square in the next 6.
+     */
+    int decode(int index, int[] pieceSquares) {
+        if (hasPawn) {
+            int blackKing = index & 63;
+            int whiteKing = (index >>> 6) & 63;
+            int pawn = index >>> 12;
+            pieceSquares[0] = (pawn >>> 2) * 8 + (pawn & 3);
+            return whiteKing | blackKing << 6;
+        }
+        for (int i = pieces.length - 1; i >= 0; i--) {
+            pieceSquares[i] = index & 63;
+            index >>>= 6;
+        }
+        int blackKing = index & 63;
+        int whiteKing = TRIANGLE_SQUARES[index >>> 6];
+        return whiteKing | blackKing << 6;
+    }
+
+    private static int transform(int square, int flip, boolean transpose) {
+        square ^= flip;
+        return transpose ? (square & 7) << 3 | square >>> 3 : square;
+    }
+}
@@ -0,0 +1,169 @@
+package com.aichessgame.tablebase;
+
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.Piece;
+import com.aichessgame.model.PieceType;
+import com.aichessgame.utils.Color;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Endgame tables written by TablebaseGenerator, read through a read-only memory mapping.
+ * The file is big-endian:
+ *   magic (4 bytes) | version (4) | table count (4) |
+ *   per table: signature ordinal (4) | entries per side (4) | offset (8) |
+ *   per table at its offset: one byte per position with the strong side to move, then with the weak side to move.
+ * A byte holds the distance to mate in plies plus one, or 0 for a draw.
+ * Probes only read the mapping, so one tablebase can be shared by any number of threads.
+ */
+public class Tablebase implements Closeable {
+    public static final int NOT_FOUND = Integer.MIN_VALUE;
+    public static final int MAX_PIECES = 4; // The most pieces, kings included, of any covered position
+
+    static final int MAGIC = 0x41435442; // "ACTB"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 12;
+    static final int DIRECTORY_ENTRY_BYTES = 16;
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    private final FileChannel channel;
+    private final MappedByteBuffer data;
+    private final long[] offsets = new long[Signature.values().length]; // File offset per signature, -1 if absent
+
+    /**
+     * Opens a tablebase file.
+     *
+     * @param path The file written by TablebaseGenerator.
+     * @throws IOException If the file cannot be opened or mapped, or is not a tablebase.
+     */
+    public Tablebase(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Tablebase too large to map: " + path);
+            }
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            data.order(ByteOrder.BIG_ENDIAN);
+            if (size < HEADER_BYTES || data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+                throw new IOException("Not a tablebase file: " + path);
+            }
+            Arrays.fill(offsets, -1);
+            int count = data.getInt(8);
+            for (int i = 0; i < count; i++) {
+                int entry = HEADER_BYTES + i * DIRECTORY_ENTRY_BYTES;
+                int ordinal = data.getInt(entry);
+                long offset = data.getLong(entry + 8);
+                if (ordinal < 0 || ordinal >= offsets.length || data.getInt(entry + 4) != Signature.values()[ordinal].size()
+                        || offset + 2L * data.getInt(entry + 4) > size) {
+                    throw new IOException("Corrupt tablebase directory: " + path);
+                }
+                offsets[ordinal] = offset;
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param board The position.
+     * @return The distance to mate in plies, positive if the side to move mates and negative if it is mated,
+     *         0 for a draw, or NOT_FOUND if the material is not in the tablebase, castling is still possible
+     *         or the side to move is already checkmated, which move generation finds anyway.
+     */
+    public int probe(AbstractBoard board) {
+        int value = probeEntry(board);
+        if (value == NOT_FOUND || value == 0) {
+            return value;
+        }
+        int plies = (value & 0xFF) - 1;
+        if (plies == 0) {
+            return NOT_FOUND;
+        }
+        return value > 0xFF ? plies : -plies;
+    }
+
+    /**
+     * Looks up whether a position is won, drawn or lost.
+     *
+     * @param board The position.
+     * @return 1 if the side to move wins, 0 for a draw, -1 if it loses, or NOT_FOUND.
+     */
+    public int probeResult(AbstractBoard board) {
+        int value = probeEntry(board);
+        if (value == NOT_FOUND || value == 0) {
+            return value;
+        }
+        return value > 0xFF ? 1 : -1;
+    }
+
+    /**
+     * Finds a position's entry.
+     *
+     * @return The entry byte, with bit 8 set if the side to move is the strong side; 0 for a draw; or NOT_FOUND.
+     */
+    private int probeEntry(AbstractBoard board) {
+        if (board.getCastlingRights() != 0) {
+            return NOT_FOUND;
+        }
+        Color strong = null;
+        int[] counts = new int[PIECE_TYPES.length];
+        for (Color color : Color.values()) {
+            for (PieceType type : PIECE_TYPES) {
+                int count = type == PieceType.KING ? 0 : board.getPieceCount(color, type);
+                if (count > 0) {
+                    if (strong != null && strong != color) {
+                        return NOT_FOUND;
+                    }
+                    strong = color;
+                    counts[type.ordinal()] = count;
+                }
+            }
+        }
+        Signature signature = strong == null ? null : Signature.of(counts);
+        if (signature == null || offsets[signature.ordinal()] < 0) {
+            return NOT_FOUND;
+        }
+
+        // Stored with the strong side as white, so a black strong side is flipped top to bottom
+        int flip = strong == Color.WHITE ? 0 : 56;
+        PieceType[] pieces = signature.getPieces();
+        int[] squares = new int[pieces.length];
+        for (int square = 0; square < 64; square++) {
+            Piece piece = board.getPieceAt(square);
+            if (piece != null && piece.getColor() == strong && piece.getPieceType() != PieceType.KING) {
+                for (int i = 0; i < pieces.length; i++) {
+                    if (pieces[i] == piece.getPieceType()) {
+                        squares[i] = square ^ flip;
+                    }
+                }
+            }
+        }
+        int index = signature.index(board.getKingSquare(strong) ^ flip, board.getKingSquare(strong.opposite()) ^ flip,
+                squares);
+
+        boolean strongToMove = board.getSideToMove() == strong;
+        long offset = offsets[signature.ordinal()] + (strongToMove ? 0 : signature.size()) + index;
+        int value = data.get((int) offset) & 0xFF;
+        if (value == 0) {
+            return 0;
+        }
+        return strongToMove ? value | 0x100 : value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
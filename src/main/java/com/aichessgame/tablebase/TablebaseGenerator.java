@@ -0,0 +1,334 @@
+package com.aichessgame.tablebase;
+
+import com.aichessgame.model.Attacks;
+import com.aichessgame.model.PieceType;
+import com.aichessgame.utils.Color;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Generates the endgame tables by retrograde analysis, using the same attack tables as the
+ * move generator, and writes them to a tablebase file.
+ *
+ * Each table starts with the positions decided on the spot: illegal ones, mates, stalemates and
+ * positions where the lone king can take an undefended piece, which are draws. Then passes
+ * alternate between the sides: with the strong side to move a position is won in n plies if
+ * some move reaches a loss in n - 1, and with the weak side to move it is lost once every move
+ * reaches a win, in one ply more than the longest. When neither side gains a position the rest
+ * are draws. Passes go over all positions in parallel; each one only reads the other side's
+ * entries, so the threads never write where another reads.
+ *
+ * Entries hold the distance to mate in plies plus one, or 0 for a draw or an illegal position.
+ * The strong side is white.
+ */
+public final class TablebaseGenerator {
+    private static final int UNKNOWN = 0;
+    private static final int SETTLED = 0xFF;  // Illegal or drawn, only during generation
+    private static final int MAX_PLIES = 250; // Keeps distances within a byte
+
+    private TablebaseGenerator() {
+        // Static helpers only
+    }
+
+    /**
+     * Generates a table.
+     *
+     * @param signature The material to generate.
+     * @param generated The tables already generated; the pawn table needs the queen and rook tables for promotions.
+     * @return The entries with the strong side to move, then with the weak side to move.
+     */
+    public static byte[][] generate(Signature signature, Map<Signature, byte[][]> generated) {
+        byte[][] promotions = new byte[2][];
+        if (signature == Signature.KPK) {
+            if (!generated.containsKey(Signature.KQK) || !generated.containsKey(Signature.KRK)) {
+                throw new IllegalArgumentException("KPK needs the KQK and KRK tables for promotions");
+            }
+            promotions[0] = generated.get(Signature.KQK)[1];
+            promotions[1] = generated.get(Signature.KRK)[1];
+        }
+
+        byte[] strong = new byte[signature.size()];
+        byte[] weak = new byte[signature.size()];
+        PieceType[] pieces = signature.getPieces();
+
+        IntStream.range(0, signature.size()).parallel().forEach(index -> classify(signature, pieces, index, strong, weak));
+
+        int idlePasses = 0;
+        for (int pass = 1; pass <= MAX_PLIES && idlePasses < 2; pass++) {
+            int target = pass;
+            long changes;
+            if (pass % 2 == 1) {
+                changes = IntStream.range(0, signature.size()).parallel()
+                        .filter(index -> findWin(signature, pieces, index, target, strong, weak, promotions))
+                        .count();
+            } else {
+                changes = IntStream.range(0, signature.size()).parallel()
+                        .filter(index -> findLoss(signature, pieces, index, strong, weak))
+                        .count();
+            }
+            idlePasses = changes == 0 ? idlePasses + 1 : 0;
+        }
+
+        for (int i = 0; i < strong.length; i++) {
+            if ((strong[i] & 0xFF) == SETTLED) {
+                strong[i] = 0;
+            }
+            if ((weak[i] & 0xFF) == SETTLED) {
+                weak[i] = 0;
+            }
+        }
+        return new byte[][]{strong, weak};
+    }
+
+    /**
+     * Decides the positions of an index that need no search: illegal positions, mates,
+     * stalemates and positions where the lone king captures a piece.
+     */
+    private static void classify(Signature signature, PieceType[] pieces, int index, byte[] strong, byte[] weak) {
+        int[] squares = new int[pieces.length];
+        int kings = signature.decode(index, squares);
+        int whiteKing = kings & 63;
+        int blackKing = kings >>> 6;
+
+        long occupied = 1L << whiteKing | 1L << blackKing;
+        boolean legal = (Attacks.kingAttacks(whiteKing) & 1L << blackKing) == 0;
+        for (int i = 0; i < pieces.length; i++) {
+            long bit = 1L << squares[i];
+            int row = squares[i] >>> 3;
+            if ((occupied & bit) != 0 || (pieces[i] == PieceType.PAWN && (row == 0 || row == 7))) {
+                legal = false;
+            }
+            occupied |= bit;
+        }
+        if (!legal) {
+            strong[index] = (byte) SETTLED;
+            weak[index] = (byte) SETTLED;
+            return;
+        }
+
+        // The weak king cannot be in check with the strong side to move
+        if (isAttacked(pieces, squares, -1, blackKing, occupied)) {
+            strong[index] = (byte) SETTLED;
+        }
+
+        long occupiedWithoutKing = occupied & ~(1L << blackKing);
+        long targets = Attacks.kingAttacks(blackKing) & ~Attacks.kingAttacks(whiteKing);
+        boolean hasMove = false;
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            int captured = pieceOn(squares, to);
+            if (!isAttacked(pieces, squares, captured, to, occupiedWithoutKing)) {
+                if (captured >= 0) {
+                    // One minor piece or bare kings cannot mate
+                    weak[index] = (byte) SETTLED;
+                    return;
+                }
+                hasMove = true;
+            }
+        }
+        if (!hasMove) {
+            boolean inCheck = isAttacked(pieces, squares, -1, blackKing, occupied);
+            weak[index] = (byte) (inCheck ? 1 : SETTLED);
+        }
+    }
+
+    /**
+     * Marks a strong-to-move position won if one of its moves reaches a loss in pass - 1 plies.
+     *
+     * @return True if the position was marked.
+     */
+    private static boolean findWin(Signature signature, PieceType[] pieces, int index, int pass,
+                                   byte[] strong, byte[] weak, byte[][] promotions) {
+        if (strong[index] != UNKNOWN) {
+            return false;
+        }
+        int[] squares = new int[pieces.length];
+        int kings = signature.decode(index, squares);
+        int whiteKing = kings & 63;
+        int blackKing = kings >>> 6;
+        long occupied = 1L << whiteKing | 1L << blackKing;
+        for (int square : squares) {
+            occupied |= 1L << square;
+        }
+
+        // Stored values are distance + 1, so a child lost in pass - 1 plies holds pass
+        long kingTargets = Attacks.kingAttacks(whiteKing) & ~occupied & ~Attacks.kingAttacks(blackKing);
+        for (; kingTargets != 0; kingTargets &= kingTargets - 1) {
+            int to = Long.numberOfTrailingZeros(kingTargets);
+            if ((weak[signature.index(to, blackKing, squares)] & 0xFF) == pass) {
+                strong[index] = (byte) (pass + 1);
+                return true;
+            }
+        }
+
+        for (int i = 0; i < pieces.length; i++) {
+            int from = squares[i];
+            long targets;
+            if (pieces[i] == PieceType.PAWN) {
+                targets = 0;
+                int push = from + 8;
+                if ((occupied & 1L << push) == 0) {
+                    targets = 1L << push;
+                    if (from >>> 3 == 1 && (occupied & 1L << (push + 8)) == 0) {
+                        targets |= 1L << (push + 8);
+                    }
+                }
+            } else {
+                targets = attacks(pieces[i], from, occupied) & ~occupied;
+            }
+            for (; targets != 0; targets &= targets - 1) {
+                int to = Long.numberOfTrailingZeros(targets);
+                squares[i] = to;
+                int value;
+                if (pieces[i] == PieceType.PAWN && to >>> 3 == 7) {
+                    // Promotion: to a queen, or a rook where a queen would stalemate
+                    int queen = promotions[0][Signature.KQK.index(whiteKing, blackKing, squares)] & 0xFF;
+                    int rook = promotions[1][Signature.KRK.index(whiteKing, blackKing, squares)] & 0xFF;
+                    value = queen == pass || rook == pass ? pass : UNKNOWN;
+                } else {
+                    value = weak[signature.index(whiteKing, blackKing, squares)] & 0xFF;
+                }
+                squares[i] = from;
+                if (value == pass) {
+                    strong[index] = (byte) (pass + 1);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marks a weak-to-move position lost if every move reaches a won position.
+     *
+     * @return True if the position was marked.
+     */
+    private static boolean findLoss(Signature signature, PieceType[] pieces, int index, byte[] strong, byte[] weak) {
+        if (weak[index] != UNKNOWN) {
+            return false;
+        }
+        int[] squares = new int[pieces.length];
+        int kings = signature.decode(index, squares);
+        int whiteKing = kings & 63;
+        int blackKing = kings >>> 6;
+        long occupied = 1L << whiteKing;
+        for (int square : squares) {
+            occupied |= 1L << square;
+        }
+
+        // Captures were settled as draws by classify, so only quiet king moves remain
+        int longest = 0;
+        long targets = Attacks.kingAttacks(blackKing) & ~Attacks.kingAttacks(whiteKing) & ~occupied;
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            if (isAttacked(pieces, squares, -1, to, occupied)) {
+                continue;
+            }
+            int value = strong[signature.index(whiteKing, to, squares)] & 0xFF;
+            if (value == UNKNOWN || value == SETTLED) {
+                return false;
+            }
+            longest = Math.max(longest, value);
+        }
+        weak[index] = (byte) (longest + 1);
+        return true;
+    }
+
+    /**
+     * Checks if a square is attacked by the strong side's pieces other than the king.
+     *
+     * @param skip The index of a piece to leave out, for one being captured, or -1.
+     */
+    private static boolean isAttacked(PieceType[] pieces, int[] squares, int skip, int square, long occupied) {
+        for (int i = 0; i < pieces.length; i++) {
+            if (i != skip && (attacks(pieces[i], squares[i], occupied) & 1L << square) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long attacks(PieceType type, int square, long occupied) {
+        return switch (type) {
+            case PAWN -> Attacks.pawnAttacks(Color.WHITE, square);
+            case KNIGHT -> Attacks.knightAttacks(square);
+            case BISHOP -> Attacks.bishopAttacks(square, occupied);
+            case ROOK -> Attacks.rookAttacks(square, occupied);
+            case QUEEN -> Attacks.queenAttacks(square, occupied);
+            case KING -> Attacks.kingAttacks(square);
+        };
+    }
+
+    private static int pieceOn(int[] squares, int square) {
+        for (int i = 0; i < squares.length; i++) {
+            if (squares[i] == square) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Writes tables to a tablebase file in the layout Tablebase reads.
+     *
+     * @param path   The file to write.
+     * @param tables The tables by signature, as returned by generate.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(Path path, Map<Signature, byte[][]> tables) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(Tablebase.HEADER_BYTES + tables.size() * Tablebase.DIRECTORY_ENTRY_BYTES)
+                .order(ByteOrder.BIG_ENDIAN);
+        header.putInt(Tablebase.MAGIC).putInt(Tablebase.VERSION).putInt(tables.size());
+        long offset = header.capacity();
+        for (Map.Entry<Signature, byte[][]> table : tables.entrySet()) {
+            int size = table.getKey().size();
+            header.putInt(table.getKey().ordinal()).putInt(size).putLong(offset);
+            offset += 2L * size;
+        }
+        header.flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, header);
+            for (byte[][] table : tables.values()) {
+                writeFully(channel, ByteBuffer.wrap(table[0]));
+                writeFully(channel, ByteBuffer.wrap(table[1]));
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.out.println("Usage: TablebaseGenerator output.tb");
+            return;
+        }
+        // Ordered so the queen and rook tables exist before the pawn table needs them
+        Map<Signature, byte[][]> tables = new EnumMap<>(Signature.class);
+        for (Signature signature : Signature.values()) {
+            long start = System.currentTimeMillis();
+            tables.put(signature, generate(signature, tables));
+            int longest = 0;
+            for (byte value : tables.get(signature)[0]) {
+                longest = Math.max(longest, value & 0xFF);
+            }
+            System.out.println(signature + ": " + 2 * signature.size() + " positions, longest mate "
+                    + (longest - 1) + " plies, " + (System.currentTimeMillis() - start) + " ms");
+        }
+        write(Paths.get(args[0]), tables);
+    }
+}
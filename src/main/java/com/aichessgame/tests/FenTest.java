@@ -0,0 +1,161 @@
+package com.aichessgame.tests;
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.BitBoard;
+import com.aichessgame.model.Board;
+import com.aichessgame.model.Move;
+import com.aichessgame.model.MoveList;
+
+import java.util.Random;
+
+public class FenTest {
+    private static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    private static final String[] FENS = {
+            START_FEN,
+            "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1",
+            "rnbqkbnr/pp1ppppp/8/2pP4/8/8/PPP1PPPP/RNBQKBNR w KQkq c6 0 3",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R b Kq - 3 17",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "8/8/8/8/8/2k5/R7/4K3 b - - 49 112",
+            "4k3/P7/8/8/8/8/7p/4K3 w - - 0 60"
+    };
+    private static final String[] INVALID_FENS = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",        // Seven ranks
+            "rnbqkbnr/ppppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", // A rank of nine squares
+            "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", // Nine empty squares
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQQBNR w KQkq - 0 1", // No white king
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1", // Side to move
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkx - 0 1", // Castling rights
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e3 0 1", // En passant square for the wrong side
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - -1 1", // Halfmove clock
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 0"   // Fullmove number
+    };
+    private static final int GAMES = 100;      // Random games whose positions are round tripped
+    private static final int MAX_PLIES = 150;  // Length of each random game, unless it ends sooner
+
+    public static void main(String[] args) {
+        testFen();
+    }
+
+    public static void testFen() {
+        System.out.println("Testing FEN...");
+
+        testRoundTrip();
+        testClocks();
+        testGamePositions();
+        testInvalidFenKeepsBoard();
+
+        System.out.println("FEN tests completed.\n");
+    }
+
+    // 1. Writing a loaded FEN gives back the same text, clocks included
+    public static void testRoundTrip() {
+        System.out.println("Test FEN round trip:");
+
+        for (String fen : FENS) {
+            String bitBoardFen = new BitBoard(fen).toFen();
+            String mapBoardFen = new Board(fen).toFen();
+            if (bitBoardFen.equals(fen) && mapBoardFen.equals(fen)) {
+                System.out.println("PASS: " + fen);
+            } else {
+                System.out.println("FAIL: " + fen + " was written as " + bitBoardFen + " and " + mapBoardFen);
+            }
+        }
+    }
+
+    // 2. Moves reset, advance and restore the halfmove clock and fullmove number
+    public static void testClocks() {
+        System.out.println("\nTest move clocks:");
+
+        AbstractBoard board = new BitBoard(START_FEN);
+        String[] moves = {"g1f3", "e7e5", "f3e5", "b8c6"};
+        String[] expected = {
+                "rnbqkbnr/pppppppp/8/8/8/5N2/PPPPPPPP/RNBQKB1R b KQkq - 1 1", // A knight move advances the clock
+                "rnbqkbnr/pppp1ppp/8/4p3/8/5N2/PPPPPPPP/RNBQKB1R w KQkq e6 0 2", // A pawn move resets it
+                "rnbqkbnr/pppp1ppp/8/4N3/8/8/PPPPPPPP/RNBQKB1R b KQkq - 0 2",  // So does a capture
+                "r1bqkbnr/pppp1ppp/2n5/4N3/8/8/PPPPPPPP/RNBQKB1R w KQkq - 1 3"
+        };
+        boolean correct = true;
+        for (int i = 0; i < moves.length; i++) {
+            board.makeMove(findMove(board, moves[i]));
+            if (!board.toFen().equals(expected[i])) {
+                System.out.println("FAIL: After " + moves[i] + " expected " + expected[i] + " but got " + board.toFen());
+                correct = false;
+            }
+        }
+        if (correct) {
+            System.out.println("PASS: The clocks follow the moves.");
+        }
+
+        for (int i = 0; i < moves.length; i++) {
+            board.unmakeMove();
+        }
+        if (board.toFen().equals(START_FEN)) {
+            System.out.println("PASS: Taking the moves back restores the clocks.");
+        } else {
+            System.out.println("FAIL: Taking the moves back should restore " + START_FEN + " but got " + board.toFen());
+        }
+    }
+
+    // 3. Every position of random games survives a round trip, and the loaded board has the same key
+    public static void testGamePositions() {
+        System.out.println("\nTest positions from random games:");
+
+        Random random = new Random(24);
+        MoveList legalMoves = new MoveList();
+        int positions = 0;
+        int wrong = 0;
+        for (int game = 0; game < GAMES; game++) {
+            AbstractBoard board = new BitBoard(START_FEN);
+            for (int ply = 0; ply < MAX_PLIES; ply++) {
+                String fen = board.toFen();
+                AbstractBoard loaded = new BitBoard(fen);
+                positions++;
+                if (!loaded.toFen().equals(fen) || loaded.getZobristKey() != board.getZobristKey()) {
+                    wrong++;
+                }
+                legalMoves.clear();
+                board.generateLegalMoves(board.getSideToMove(), legalMoves);
+                if (legalMoves.isEmpty()) {
+                    break;
+                }
+                board.makeMove(legalMoves.get(random.nextInt(legalMoves.size())));
+            }
+        }
+        if (wrong == 0) {
+            System.out.println("PASS: All " + positions + " positions round trip.");
+        } else {
+            System.out.println("FAIL: " + wrong + " of " + positions + " positions did not round trip.");
+        }
+    }
+
+    // 4. An invalid FEN is rejected and the board keeps its position
+    public static void testInvalidFenKeepsBoard() {
+        System.out.println("\nTest invalid FEN:");
+
+        String before = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1";
+        for (String fen : INVALID_FENS) {
+            AbstractBoard board = new BitBoard(before);
+            try {
+                board.loadFen(fen);
+                System.out.println("FAIL: The invalid FEN was accepted: " + fen);
+            } catch (IllegalArgumentException e) {
+                if (board.toFen().equals(before)) {
+                    System.out.println("PASS: Rejected, board unchanged: " + e.getMessage());
+                } else {
+                    System.out.println("FAIL: Rejected, but the board changed to " + board.toFen());
+                }
+            }
+        }
+    }
+
+    private static int findMove(AbstractBoard board, String text) {
+        MoveList legalMoves = new MoveList();
+        board.generateLegalMoves(board.getSideToMove(), legalMoves);
+        for (int i = 0; i < legalMoves.size(); i++) {
+            if (Move.toString(legalMoves.get(i)).equals(text)) {
+                return legalMoves.get(i);
+            }
+        }
+        throw new IllegalArgumentException("Illegal move: " + text);
+    }
+}
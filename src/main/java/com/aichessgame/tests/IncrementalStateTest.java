@@ -0,0 +1,130 @@
+package com.aichessgame.tests;
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.BitBoard;
+import com.aichessgame.model.Board;
+import com.aichessgame.model.Move;
+import com.aichessgame.model.MoveList;
+import com.aichessgame.model.Piece;
+import com.aichessgame.model.PieceSquareTables;
+import com.aichessgame.model.Zobrist;
+import com.aichessgame.utils.Color;
+
+import java.util.function.Function;
+
+public class IncrementalStateTest {
+    private static final int DEPTH = 3; // Plies walked from each position
+
+    // The perft reference positions: castling, en passant, promotions and pins all occur within a few plies
+    private static final String[] FENS = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10"
+    };
+
+    public static void main(String[] args) {
+        testZobristKeys();
+        testEvaluationTerms();
+    }
+
+    public static void testZobristKeys() {
+        System.out.println("Testing incremental Zobrist keys...");
+
+        for (String fen : FENS) {
+            testInSync(new BitBoard(fen), "BitBoard keys", fen, IncrementalStateTest::compareKeys);
+            testInSync(new Board(fen), "Board keys", fen, IncrementalStateTest::compareKeys);
+        }
+
+        System.out.println("Incremental Zobrist key tests completed.\n");
+    }
+
+    public static void testEvaluationTerms() {
+        System.out.println("Testing incremental evaluation terms...");
+
+        for (String fen : FENS) {
+            testInSync(new BitBoard(fen), "BitBoard evaluation terms", fen, IncrementalStateTest::compareEvaluation);
+            testInSync(new Board(fen), "Board evaluation terms", fen, IncrementalStateTest::compareEvaluation);
+        }
+
+        System.out.println("Incremental evaluation term tests completed.\n");
+    }
+
+    // 1. The incremental values match a recomputation after every move made and taken back
+    public static void testInSync(AbstractBoard board, String values, String fen, Function<AbstractBoard, String> compare) {
+        String mismatch = walk(board, DEPTH, compare);
+        if (mismatch == null) {
+            System.out.println("PASS: " + values + " stay in sync from " + fen);
+        } else {
+            System.out.println("FAIL: " + values + " out of sync from " + fen + ": " + mismatch);
+        }
+    }
+
+    /**
+     * Makes and takes back every legal move down to the given depth, comparing the values after each.
+     *
+     * @param compare Describes the value that differs from its recomputation, or returns null if none does.
+     * @return A description of the first mismatch, or null if there was none.
+     */
+    private static String walk(AbstractBoard board, int depth, Function<AbstractBoard, String> compare) {
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(board.getSideToMove(), moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            board.makeMove(move);
+            String mismatch = describe(compare.apply(board), "after " + Move.toString(move), board);
+            if (mismatch == null && depth > 1) {
+                mismatch = walk(board, depth - 1, compare);
+            }
+            board.unmakeMove();
+            if (mismatch == null) {
+                mismatch = describe(compare.apply(board), "after taking back " + Move.toString(move), board);
+            }
+            if (mismatch != null) {
+                return mismatch;
+            }
+        }
+        return null;
+    }
+
+    private static String describe(String difference, String when, AbstractBoard board) {
+        return difference == null ? null : difference + " " + when + " in " + board.toFen();
+    }
+
+    private static String compareKeys(AbstractBoard board) {
+        if (board.getZobristKey() != board.computeZobristKey()) {
+            return "position key";
+        }
+        if (board.getPawnKey() != Zobrist.computePawnKey(board)) {
+            return "pawn key";
+        }
+        return null;
+    }
+
+    private static String compareEvaluation(AbstractBoard board) {
+        int middlegame = 0;
+        int endgame = 0;
+        int phase = 0;
+        for (int square = 0; square < 64; square++) {
+            Piece piece = board.getPieceAt(square);
+            if (piece == null) {
+                continue;
+            }
+            int sign = piece.getColor() == Color.WHITE ? 1 : -1;
+            middlegame += sign * PieceSquareTables.middlegameValue(piece.getColor(), piece.getPieceType(), square);
+            endgame += sign * PieceSquareTables.endgameValue(piece.getColor(), piece.getPieceType(), square);
+            phase += PieceSquareTables.PHASE_WEIGHTS[piece.getPieceType().ordinal()];
+        }
+        if (board.getMiddlegameScore() != middlegame) {
+            return "middlegame score " + board.getMiddlegameScore() + " instead of " + middlegame;
+        }
+        if (board.getEndgameScore() != endgame) {
+            return "endgame score " + board.getEndgameScore() + " instead of " + endgame;
+        }
+        if (board.getPhase() != phase) {
+            return "phase " + board.getPhase() + " instead of " + phase;
+        }
+        return null;
+    }
+}
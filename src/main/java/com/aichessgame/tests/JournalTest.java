@@ -0,0 +1,168 @@
+package com.aichessgame.tests;
+import com.aichessgame.controller.GameController;
+import com.aichessgame.journal.GameJournal;
+import com.aichessgame.journal.GameJournalWriter;
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.BitBoard;
+import com.aichessgame.model.MoveList;
+import com.aichessgame.utils.Position;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+public class JournalTest {
+    private static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    // After 1. f3 e5 2. g4, with Black to mate in one
+    private static final String FOOLS_MATE = "rnbqkbnr/pppp1ppp/8/4p3/6P1/5P2/PPPPP2P/RNBQKBNR b KQkq g3 0 2";
+    private static final int GAMES = 200;      // Games written by the round trip test
+    private static final int MAX_PLIES = 120;  // Length of each random game, unless it ends sooner
+
+    public static void main(String[] args) throws IOException {
+        testJournal();
+    }
+
+    public static void testJournal() throws IOException {
+        System.out.println("Testing game journal...");
+
+        testRoundTrip();
+        testReopenAppends();
+        testControllerStartPosition();
+
+        System.out.println("Game journal tests completed.\n");
+    }
+
+    // 1. Games appended to a journal read back and replay to the positions they reached
+    public static void testRoundTrip() throws IOException {
+        System.out.println("Test append and replay:");
+
+        Path path = Files.createTempFile("journal", ".bin");
+        try {
+            Random random = new Random(22);
+            String[] startFens = new String[GAMES];
+            int[] moveCounts = new int[GAMES];
+            String[] finalFens = new String[GAMES];
+            try (GameJournalWriter writer = new GameJournalWriter(path)) {
+                for (int game = 0; game < GAMES; game++) {
+                    startFens[game] = game % 5 == 0 ? KIWIPETE : START_FEN;
+                    AbstractBoard board = new BitBoard(startFens[game]);
+                    int[] moves = playRandomGame(board, random);
+                    moveCounts[game] = moves.length;
+                    finalFens[game] = board.toFen();
+                    // Standard games are appended without a FEN, as the writer allows
+                    writer.append(startFens[game].equals(START_FEN) ? null : startFens[game], moves, game % 4);
+                }
+            }
+
+            int wrong = 0;
+            try (GameJournal journal = new GameJournal(path)) {
+                if (journal.getGameCount() != GAMES) {
+                    System.out.println("FAIL: The journal should hold " + GAMES + " games but holds " + journal.getGameCount());
+                    return;
+                }
+                for (int game = 0; game < GAMES; game++) {
+                    if (journal.getResult(game) != game % 4 || !journal.getStartFen(game).equals(startFens[game])
+                            || journal.getMoveCount(game) != moveCounts[game]
+                            || !journal.replay(game).toFen().equals(finalFens[game])) {
+                        wrong++;
+                    }
+                }
+            }
+            if (wrong == 0) {
+                System.out.println("PASS: All " + GAMES + " games replay to the positions they reached.");
+            } else {
+                System.out.println("FAIL: " + wrong + " of " + GAMES + " games did not round trip.");
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    // 2. A journal opened again for writing keeps its games and adds the new ones after them
+    public static void testReopenAppends() throws IOException {
+        System.out.println("\nTest reopening a journal:");
+
+        Path path = Files.createTempFile("journal", ".bin");
+        try {
+            Random random = new Random(23);
+            String[] finalFens = new String[2];
+            for (int game = 0; game < 2; game++) {
+                AbstractBoard board = new BitBoard(START_FEN);
+                int[] moves = playRandomGame(board, random);
+                finalFens[game] = board.toFen();
+                try (GameJournalWriter writer = new GameJournalWriter(path)) {
+                    writer.append(null, moves, GameJournal.RESULT_DRAW);
+                }
+            }
+
+            try (GameJournal journal = new GameJournal(path)) {
+                if (journal.getGameCount() == 2 && journal.replay(0).toFen().equals(finalFens[0])
+                        && journal.replay(1).toFen().equals(finalFens[1])) {
+                    System.out.println("PASS: Both games are kept, in order.");
+                } else {
+                    System.out.println("FAIL: The journal should hold both games in order, it holds " + journal.getGameCount());
+                }
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    // 3. A controller set up from a FEN journals that position, so its game replays
+    public static void testControllerStartPosition() throws IOException {
+        System.out.println("\nTest controller game from a FEN:");
+
+        Path path = Files.createTempFile("journal", ".bin");
+        try {
+            GameController controller = new GameController(new BitBoard(FOOLS_MATE));
+            try (GameJournalWriter writer = new GameJournalWriter(path)) {
+                controller.setGameJournal(writer);
+                controller.processMove(Position.of(7, 3), Position.of(3, 7)); // Qd8-h4#
+            }
+
+            try (GameJournal journal = new GameJournal(path)) {
+                if (journal.getGameCount() != 1) {
+                    System.out.println("FAIL: The mate should be journaled, the journal holds " + journal.getGameCount() + " games");
+                    return;
+                }
+                if (journal.getStartFen(0).equals(FOOLS_MATE)) {
+                    System.out.println("PASS: The game is journaled from its FEN.");
+                } else {
+                    System.out.println("FAIL: The game should start from its FEN, got " + journal.getStartFen(0));
+                }
+                if (journal.getResult(0) == GameJournal.RESULT_BLACK_WINS
+                        && journal.replay(0).toFen().equals(controller.getBoard().toFen())) {
+                    System.out.println("PASS: The game replays to Black's mate.");
+                } else {
+                    System.out.println("FAIL: The game should replay to Black's mate, got result " + journal.getResult(0));
+                }
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Plays random legal moves until the game ends or MAX_PLIES moves are made.
+     *
+     * @return The moves played.
+     */
+    private static int[] playRandomGame(AbstractBoard board, Random random) {
+        MoveList legalMoves = new MoveList();
+        int[] moves = new int[MAX_PLIES];
+        int count = 0;
+        while (count < MAX_PLIES) {
+            legalMoves.clear();
+            board.generateLegalMoves(board.getSideToMove(), legalMoves);
+            if (legalMoves.isEmpty()) {
+                break;
+            }
+            moves[count] = legalMoves.get(random.nextInt(legalMoves.size()));
+            board.makeMove(moves[count++]);
+        }
+        return Arrays.copyOf(moves, count);
+    }
+}
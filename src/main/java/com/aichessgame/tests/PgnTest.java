@@ -0,0 +1,133 @@
+package com.aichessgame.tests;
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.BitBoard;
+import com.aichessgame.model.MoveList;
+import com.aichessgame.pgn.PgnGame;
+import com.aichessgame.pgn.PgnReader;
+import com.aichessgame.pgn.PgnWriter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class PgnTest {
+    // Kiwipete with Black to move late in a game, so the movetext starts with "17..."
+    private static final String SET_UP_FEN = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R b KQkq - 3 17";
+    private static final String[] RESULTS = {"1-0", "0-1", "1/2-1/2", "*"};
+    private static final int GAMES = 200;      // Games written by the round trip test
+    private static final int MAX_PLIES = 150;  // Length of each random game, unless it ends sooner
+
+    public static void main(String[] args) throws IOException {
+        testPgn();
+    }
+
+    public static void testPgn() throws IOException {
+        System.out.println("Testing PGN...");
+
+        testRoundTrip();
+        testAnnotatedGame();
+
+        System.out.println("PGN tests completed.\n");
+    }
+
+    // 1. Games written as PGN read back with the same tags, moves and result
+    public static void testRoundTrip() throws IOException {
+        System.out.println("Test write and read:");
+
+        Random random = new Random(23);
+        PgnGame[] games = new PgnGame[GAMES];
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (PgnWriter writer = new PgnWriter(Channels.newChannel(output), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < GAMES; i++) {
+                Map<String, String> tags = new LinkedHashMap<>();
+                tags.put("White", "M\u00fcller \"" + i + "\" \\"); // Quotes and backslashes are escaped
+                tags.put("Black", "Engine");
+                String startFen = PgnGame.START_FEN;
+                if (i % 7 == 0) {
+                    startFen = SET_UP_FEN;
+                    tags.put("SetUp", "1");
+                    tags.put("FEN", SET_UP_FEN);
+                }
+                games[i] = new PgnGame(tags, playRandomGame(new BitBoard(startFen), random), RESULTS[i % RESULTS.length]);
+                writer.write(games[i]);
+            }
+        }
+
+        int read = 0;
+        int wrong = 0;
+        try (PgnReader reader = new PgnReader(Channels.newChannel(new ByteArrayInputStream(output.toByteArray())),
+                StandardCharsets.UTF_8)) {
+            while (reader.hasNext()) {
+                PgnGame game = reader.next();
+                if (read >= GAMES || !isSameGame(games[read], game)) {
+                    wrong++;
+                }
+                read++;
+            }
+        }
+        if (read == GAMES && wrong == 0) {
+            System.out.println("PASS: All " + GAMES + " games read back unchanged.");
+        } else {
+            System.out.println("FAIL: " + read + " games read back, " + wrong + " of them changed.");
+        }
+    }
+
+    // 2. Comments, variations, annotations and move number indications are skipped over
+    public static void testAnnotatedGame() {
+        System.out.println("\nTest annotated game:");
+
+        PgnGame game = PgnReader.parse("[Event \"Annotated\"]\n[Result \"1-0\"]\n\n"
+                + "1. e4 {a comment with [brackets]} e5 (1... c5 2. Nf3 (2. c3) d6) 2. Nf3! $1 Nc6?!\n"
+                + "3. Bb5 ; the rest of the line 3. Bc4\n"
+                + "3...a6 4.Ba4 Nf6 5. O-O 1-0");
+        PgnGame plain = PgnReader.parse("1. e4 e5 2. Nf3 Nc6 3. Bb5 a6 4. Ba4 Nf6 5. O-O *");
+
+        if (game.getError() == null && Arrays.equals(game.getMoves(), plain.getMoves()) && game.getMoveCount() == 9) {
+            System.out.println("PASS: The main line is read: " + game.getMoveCount() + " moves.");
+        } else {
+            System.out.println("FAIL: The main line should have 9 moves, got " + game.getMoveCount() + ", error " + game.getError());
+        }
+        if ("1-0".equals(game.getResult()) && "Annotated".equals(game.getTag("Event"))) {
+            System.out.println("PASS: The tags and result are read.");
+        } else {
+            System.out.println("FAIL: The tags and result should be read, got " + game.getTags() + " " + game.getResult());
+        }
+    }
+
+    private static boolean isSameGame(PgnGame written, PgnGame read) {
+        for (Map.Entry<String, String> tag : written.getTags().entrySet()) {
+            if (!tag.getValue().equals(read.getTag(tag.getKey()))) {
+                return false;
+            }
+        }
+        return read.getError() == null && written.getResult().equals(read.getResult())
+                && Arrays.equals(written.getMoves(), read.getMoves());
+    }
+
+    /**
+     * Plays random legal moves until the game ends or MAX_PLIES moves are made.
+     *
+     * @return The moves played.
+     */
+    private static int[] playRandomGame(AbstractBoard board, Random random) {
+        MoveList legalMoves = new MoveList();
+        int[] moves = new int[MAX_PLIES];
+        int count = 0;
+        while (count < MAX_PLIES) {
+            legalMoves.clear();
+            board.generateLegalMoves(board.getSideToMove(), legalMoves);
+            if (legalMoves.isEmpty()) {
+                break;
+            }
+            moves[count] = legalMoves.get(random.nextInt(legalMoves.size()));
+            board.makeMove(moves[count++]);
+        }
+        return Arrays.copyOf(moves, count);
+    }
+}
@@ -0,0 +1,110 @@
+package com.aichessgame.tests;
+import com.aichessgame.book.PolyglotKeys;
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.BitBoard;
+import com.aichessgame.model.Move;
+import com.aichessgame.model.MoveList;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class PolyglotTest {
+    // The example lines and keys from the Polyglot book format description
+    private static final String[][] LINES = {
+            {"e2e4", "d7d5", "e4e5", "f7f5", "e1e2", "e8f7"},
+            {"a2a4", "b7b5", "h2h4", "b5b4", "c2c4", "b4c3", "a1a3"}
+    };
+    private static final long[][] KEYS = {
+            {0x823C9B50FD114196L, 0x0756B94461C50FB0L, 0x662FAFB965DB29D4L, 0x22A48B5A8E47FF78L,
+                    0x652A607CA3F242C1L, 0x00FDD303C946BDD9L},
+            {0, 0, 0, 0, 0x3C8123EA7B067637L, 0, 0x5C3F9B829B279560L}
+    };
+    private static final long START_KEY = 0x463B96181691FC9CL;
+
+    public static void main(String[] args) throws IOException {
+        testPolyglot();
+    }
+
+    public static void testPolyglot() throws IOException {
+        System.out.println("Testing Polyglot keys...");
+
+        testPublishedKeys();
+        testLoad();
+
+        System.out.println("Polyglot key tests completed.\n");
+    }
+
+    // 1. The default table gives the keys published with the book format, so other tools' books can be read
+    public static void testPublishedKeys() {
+        System.out.println("Test published keys:");
+
+        PolyglotKeys keys;
+        try {
+            keys = PolyglotKeys.defaults();
+        } catch (IOException e) {
+            System.out.println("FAIL: The default key table cannot be read: " + e.getMessage());
+            return;
+        }
+        checkKey(keys, new BitBoard(), "the start position", START_KEY);
+        for (int line = 0; line < LINES.length; line++) {
+            AbstractBoard board = new BitBoard();
+            StringBuilder moves = new StringBuilder();
+            for (int i = 0; i < LINES[line].length; i++) {
+                board.makeMove(findMove(board, LINES[line][i]));
+                moves.append(i == 0 ? "" : " ").append(LINES[line][i]);
+                // Only some positions of the second line have a published key
+                if (KEYS[line][i] != 0) {
+                    checkKey(keys, board, moves.toString(), KEYS[line][i]);
+                }
+            }
+        }
+    }
+
+    // 2. A table read from a file must have exactly 781 numbers
+    public static void testLoad() throws IOException {
+        System.out.println("\nTest loading a table:");
+
+        Path path = Files.createTempFile("random64", ".txt");
+        try {
+            StringBuilder text = new StringBuilder();
+            for (int i = 1; i <= PolyglotKeys.KEY_COUNT; i++) {
+                text.append(String.format("0x%016XULL,%n", (long) i));
+            }
+            Files.writeString(path, text);
+            PolyglotKeys.load(path);
+            System.out.println("PASS: A table of " + PolyglotKeys.KEY_COUNT + " numbers is read.");
+
+            Files.writeString(path, text.substring(0, text.lastIndexOf("0x")));
+            try {
+                PolyglotKeys.load(path);
+                System.out.println("FAIL: A table of " + (PolyglotKeys.KEY_COUNT - 1) + " numbers should be rejected.");
+            } catch (IOException e) {
+                System.out.println("PASS: A short table is rejected: " + e.getMessage());
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static void checkKey(PolyglotKeys keys, AbstractBoard board, String position, long expected) {
+        long actual = keys.computeKey(board);
+        if (actual == expected) {
+            System.out.println("PASS: The key of " + position + " is " + Long.toHexString(expected));
+        } else {
+            System.out.println("FAIL: The key of " + position + " should be " + Long.toHexString(expected)
+                    + " but is " + Long.toHexString(actual));
+        }
+    }
+
+    private static int findMove(AbstractBoard board, String text) {
+        MoveList legalMoves = new MoveList();
+        board.generateLegalMoves(board.getSideToMove(), legalMoves);
+        for (int i = 0; i < legalMoves.size(); i++) {
+            if (Move.toString(legalMoves.get(i)).equals(text)) {
+                return legalMoves.get(i);
+            }
+        }
+        throw new IllegalArgumentException("Illegal move: " + text);
+    }
+}
@@ -0,0 +1,176 @@
+package com.aichessgame.tests;
+import com.aichessgame.model.AbstractBoard;
+import com.aichessgame.model.BitBoard;
+import com.aichessgame.model.Move;
+import com.aichessgame.model.MoveList;
+import com.aichessgame.model.San;
+
+import java.util.Random;
+
+public class SanTest {
+    private static final int GAMES = 100;      // Random games whose moves are written and parsed
+    private static final int MAX_PLIES = 150;  // Length of each random game, unless it ends sooner
+
+    public static void main(String[] args) {
+        testSan();
+    }
+
+    public static void testSan() {
+        System.out.println("Testing SAN...");
+
+        testDisambiguation();
+        testPromotion();
+        testCastling();
+        testCheckSuffixes();
+        testGameMoves();
+
+        System.out.println("SAN tests completed.\n");
+    }
+
+    // 1. A starting column, row or square is added only when another piece of the same type reaches the square
+    public static void testDisambiguation() {
+        System.out.println("Test disambiguation:");
+
+        // Knights on b1 and f1 both reach d2
+        AbstractBoard knights = new BitBoard("4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1");
+        checkRoundTrip(knights, "b1d2", "Nbd2");
+        checkRoundTrip(knights, "f1d2", "Nfd2");
+        checkRoundTrip(knights, "b1c3", "Nc3");
+        checkAmbiguous(knights, "Nd2");
+
+        // Rooks on a1 and a5 both reach a3
+        AbstractBoard rooks = new BitBoard("4k3/8/8/R7/8/8/8/R3K3 w - - 0 1");
+        checkRoundTrip(rooks, "a1a3", "R1a3");
+        checkRoundTrip(rooks, "a5a3", "R5a3");
+
+        // Queens on a1, a3 and c1 all reach b2; a1 shares a column with a3 and a row with c1
+        AbstractBoard queens = new BitBoard("8/7k/8/8/8/Q7/8/Q1Q4K w - - 0 1");
+        checkRoundTrip(queens, "a1b2", "Qa1b2");
+        checkRoundTrip(queens, "a3b2", "Q3b2");
+        checkRoundTrip(queens, "c1b2", "Qcb2");
+    }
+
+    // 2. Promotions name the piece, and parse with or without "="
+    public static void testPromotion() {
+        System.out.println("\nTest promotion:");
+
+        // The rook on b8 blocks the new queen's check unless it is taken
+        AbstractBoard board = new BitBoard("1r2k3/P7/8/8/8/8/8/4K3 w - - 0 1");
+        checkRoundTrip(board, "a7a8q", "a8=Q");
+        checkRoundTrip(board, "a7a8n", "a8=N");
+        checkRoundTrip(board, "a7b8q", "axb8=Q+");
+        checkParse(board, "a8N", "a7a8n");
+        checkParse(board, "axb8R", "a7b8r");
+    }
+
+    // 3. Castling is written with letter O and parsed with letters or zeros
+    public static void testCastling() {
+        System.out.println("\nTest castling:");
+
+        AbstractBoard board = new BitBoard("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        checkRoundTrip(board, "e1g1", "O-O");
+        checkRoundTrip(board, "e1c1", "O-O-O");
+        checkParse(board, "0-0", "e1g1");
+        checkParse(board, "0-0-0", "e1c1");
+
+        AbstractBoard black = new BitBoard("r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 0 1");
+        checkRoundTrip(black, "e8g8", "O-O");
+        checkRoundTrip(black, "e8c8", "O-O-O");
+    }
+
+    // 4. Check and mate are marked, and the marks and annotations are ignored when parsing
+    public static void testCheckSuffixes() {
+        System.out.println("\nTest check and mate:");
+
+        // After 1. f3 e5 2. g4
+        AbstractBoard board = new BitBoard("rnbqkbnr/pppp1ppp/8/4p3/6P1/5P2/PPPPP2P/RNBQKBNR b KQkq g3 0 2");
+        checkRoundTrip(board, "d8h4", "Qh4#");
+        checkParse(board, "Qh4", "d8h4");
+        checkParse(board, "Qh4#!!", "d8h4");
+        checkRoundTrip(board, "f8b4", "Bb4");
+
+        AbstractBoard check = new BitBoard("4k3/8/8/8/8/8/8/R3K3 w - - 0 1");
+        checkRoundTrip(check, "a1a8", "Ra8+");
+    }
+
+    // 5. Every move of random games is written and parsed back to the same move
+    public static void testGameMoves() {
+        System.out.println("\nTest moves from random games:");
+
+        Random random = new Random(18);
+        MoveList legalMoves = new MoveList();
+        int moves = 0;
+        int wrong = 0;
+        for (int game = 0; game < GAMES; game++) {
+            AbstractBoard board = new BitBoard();
+            for (int ply = 0; ply < MAX_PLIES; ply++) {
+                legalMoves.clear();
+                board.generateLegalMoves(board.getSideToMove(), legalMoves);
+                if (legalMoves.isEmpty()) {
+                    break;
+                }
+                for (int i = 0; i < legalMoves.size(); i++) {
+                    moves++;
+                    if (San.parse(board, San.format(board, legalMoves.get(i))) != legalMoves.get(i)) {
+                        wrong++;
+                    }
+                }
+                board.makeMove(legalMoves.get(random.nextInt(legalMoves.size())));
+            }
+        }
+        if (wrong == 0) {
+            System.out.println("PASS: All " + moves + " legal moves parse back from their SAN.");
+        } else {
+            System.out.println("FAIL: " + wrong + " of " + moves + " legal moves did not parse back from their SAN.");
+        }
+    }
+
+    /**
+     * Checks that a move is written as the expected SAN and that the SAN parses back to it.
+     */
+    private static void checkRoundTrip(AbstractBoard board, String move, String expected) {
+        int legalMove = findMove(board, move);
+        String san = San.format(board, legalMove);
+        if (!san.equals(expected)) {
+            System.out.println("FAIL: " + move + " should be written " + expected + " but was written " + san);
+            return;
+        }
+        checkParse(board, expected, move);
+    }
+
+    private static void checkParse(AbstractBoard board, String san, String expected) {
+        try {
+            int move = San.parse(board, san);
+            if (move == findMove(board, expected)) {
+                System.out.println("PASS: " + san + " is " + expected);
+            } else {
+                System.out.println("FAIL: " + san + " should be " + expected + " but was " + Move.toString(move));
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("FAIL: " + san + " should be " + expected + " but was rejected: " + e.getMessage());
+        }
+    }
+
+    private static void checkAmbiguous(AbstractBoard board, String san) {
+        try {
+            San.parse(board, san);
+            System.out.println("FAIL: " + san + " should be rejected as ambiguous.");
+        } catch (IllegalArgumentException e) {
+            System.out.println("PASS: " + san + " is rejected: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Finds a legal move from its coordinate notation, with a promotion letter if there is one.
+     */
+    private static int findMove(AbstractBoard board, String text) {
+        MoveList legalMoves = new MoveList();
+        board.generateLegalMoves(board.getSideToMove(), legalMoves);
+        for (int i = 0; i < legalMoves.size(); i++) {
+            if (Move.toString(legalMoves.get(i)).equals(text)) {
+                return legalMoves.get(i);
+            }
+        }
+        throw new IllegalArgumentException("Illegal move: " + text);
+    }
+}
@@ -0,0 +1,90 @@
+package com.aichessgame.tests;
+import com.aichessgame.model.BitBoard;
+import com.aichessgame.tablebase.Signature;
+import com.aichessgame.tablebase.Tablebase;
+import com.aichessgame.tablebase.TablebaseGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+public class TablebaseTest {
+
+    public static void main(String[] args) throws IOException {
+        testTablebase();
+    }
+
+    public static void testTablebase() throws IOException {
+        System.out.println("Testing tablebase...");
+
+        Map<Signature, byte[][]> tables = new EnumMap<>(Signature.class);
+        tables.put(Signature.KQK, TablebaseGenerator.generate(Signature.KQK, tables));
+        tables.put(Signature.KRK, TablebaseGenerator.generate(Signature.KRK, tables));
+
+        testLongestMates(tables);
+        testProbes(tables);
+
+        System.out.println("Tablebase tests completed.\n");
+    }
+
+    // 1. The longest mates are the known ones: 10 moves with the queen, 16 with the rook
+    public static void testLongestMates(Map<Signature, byte[][]> tables) {
+        System.out.println("Test longest mates:");
+
+        checkLongestMate(tables, Signature.KQK, 19);
+        checkLongestMate(tables, Signature.KRK, 31);
+    }
+
+    // 2. Positions read from the file score as the generator found them
+    public static void testProbes(Map<Signature, byte[][]> tables) throws IOException {
+        System.out.println("\nTest probes:");
+
+        Path path = Files.createTempFile("tablebase", ".tb");
+        try {
+            TablebaseGenerator.write(path, tables);
+            try (Tablebase tablebase = new Tablebase(path)) {
+                // Qh8 mates
+                checkProbe(tablebase, "k7/8/1K6/8/8/8/7Q/8 w - - 0 1", 1);
+                // Black's only move is Ka7, after which Ra1 mates
+                checkProbe(tablebase, "k7/2K5/8/8/8/8/8/1R6 b - - 0 1", -2);
+                // The rook on b2 is next to the black king and undefended
+                checkProbe(tablebase, "8/8/8/8/8/2k5/1R6/4K3 b - - 0 1", 0);
+                // Black's queen mates with Qh1: the strong side may be either color
+                checkProbe(tablebase, "8/8/8/8/8/1k6/7q/K7 b - - 0 1", 1);
+                // Not covered: both sides have a queen, or castling is still possible
+                checkProbe(tablebase, "3qk3/8/8/8/8/8/8/3QK3 w - - 0 1", Tablebase.NOT_FOUND);
+                checkProbe(tablebase, "4k3/8/8/8/8/8/8/R3K3 w Q - 0 1", Tablebase.NOT_FOUND);
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static void checkLongestMate(Map<Signature, byte[][]> tables, Signature signature, int expected) {
+        // Entries hold the distance to mate in plies plus one; the strong side to move comes first
+        int longest = 0;
+        for (byte entry : tables.get(signature)[0]) {
+            longest = Math.max(longest, (entry & 0xFF) - 1);
+        }
+        if (longest == expected) {
+            System.out.println("PASS: The longest " + signature + " mate is " + expected + " plies.");
+        } else {
+            System.out.println("FAIL: The longest " + signature + " mate should be " + expected + " plies but is " + longest);
+        }
+    }
+
+    private static void checkProbe(Tablebase tablebase, String fen, int expected) {
+        int actual = tablebase.probe(new BitBoard(fen));
+        if (actual == expected) {
+            System.out.println("PASS: " + fen + " probes as " + describe(expected));
+        } else {
+            System.out.println("FAIL: " + fen + " should probe as " + describe(expected) + " but probes as " + describe(actual));
+        }
+    }
+
+    private static String describe(int score) {
+        return score == Tablebase.NOT_FOUND ? "not found" : String.valueOf(score);
+    }
+}
@@ -0,0 +1,157 @@
+package com.aichessgame.tests;
+import com.aichessgame.main.Uci;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+public class UciTest {
+    private static final long TIMEOUT_MILLIS = 30_000; // How long to wait for a bestmove
+
+    public static void main(String[] args) throws Exception {
+        testRepetition();
+        testInvalidPosition();
+    }
+
+    public static void testRepetition() throws Exception {
+        System.out.println("Testing UCI repetition handling...");
+
+        testRepetitionDraw();
+        testRepetitionBeforeGame();
+
+        System.out.println("UCI repetition tests completed.\n");
+    }
+
+    // 1. The side that is losing claims a draw by playing into a threefold repetition.
+    // Black has no queen; the knights have shuttled so that Nf6-g8 repeats the start position a third time.
+    public static void testRepetitionDraw() throws Exception {
+        System.out.println("Test repetition draw over position moves:");
+
+        String output = runSession(
+                "position fen rnb1kbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"
+                        + " moves g1f3 g8f6 f3g1 f6g8 g1f3 g8f6 f3g1",
+                "go depth 4");
+
+        if (output.contains("bestmove f6g8")) {
+            System.out.println("PASS: Black repeats the position with Nf6-g8.");
+        } else {
+            System.out.println("FAIL: Black should repeat the position with Nf6-g8, got: " + lastLine(output, "bestmove"));
+        }
+
+        String info = lastLine(output, "info depth");
+        if (info != null && info.contains(" score cp 0 ")) {
+            System.out.println("PASS: The repetition is scored as a draw.");
+        } else {
+            System.out.println("FAIL: The repetition should be scored as a draw, got: " + info);
+        }
+    }
+
+    // 2. The same position loaded from a FEN, without the moves that led to it, has no history to repeat.
+    public static void testRepetitionBeforeGame() throws Exception {
+        System.out.println("\nTest no repetition without history:");
+
+        String output = runSession(
+                "position fen rnb1kb1r/pppppppp/5n2/8/8/8/PPPPPPPP/RNBQKBNR b KQkq - 7 4",
+                "go depth 4");
+
+        String info = lastLine(output, "info depth");
+        if (info != null && !info.contains(" score cp 0 ")) {
+            System.out.println("PASS: Without history the position is not scored as a draw.");
+        } else {
+            System.out.println("FAIL: Without history the position should not be scored as a draw, got: " + info);
+        }
+    }
+
+    public static void testInvalidPosition() throws Exception {
+        System.out.println("Testing UCI invalid positions...");
+
+        testInvalidFenKeepsPosition();
+        testIllegalMoveKeepsPosition();
+
+        System.out.println("UCI invalid position tests completed.\n");
+    }
+
+    // 1. A malformed FEN is reported and the position before it is still searched.
+    public static void testInvalidFenKeepsPosition() throws Exception {
+        System.out.println("Test invalid FEN:");
+
+        String output = runSession(
+                "position startpos moves e2e4",
+                "position fen rnbqkbnr/pppppppp/8/8 w KQkq - 0 1",
+                "go depth 2");
+
+        if (output.contains("info string Invalid piece placement")) {
+            System.out.println("PASS: The invalid FEN is reported.");
+        } else {
+            System.out.println("FAIL: The invalid FEN should be reported.");
+        }
+        checkBlackMove(output);
+    }
+
+    // 2. An illegal move in the move list is reported and none of the list is applied.
+    public static void testIllegalMoveKeepsPosition() throws Exception {
+        System.out.println("\nTest illegal move:");
+
+        String output = runSession(
+                "position startpos moves e2e4",
+                "position startpos moves e2e4 e7e5 e4e5",
+                "go depth 2");
+
+        if (output.contains("info string Illegal move: e4e5")) {
+            System.out.println("PASS: The illegal move is reported.");
+        } else {
+            System.out.println("FAIL: The illegal move should be reported.");
+        }
+        checkBlackMove(output);
+    }
+
+    // The position after 1. e4 is kept, so the best move is one of Black's
+    private static void checkBlackMove(String output) {
+        String bestMove = lastLine(output, "bestmove");
+        if (bestMove != null && bestMove.length() >= 13 && "78".indexOf(bestMove.charAt(10)) >= 0) {
+            System.out.println("PASS: The previous position is searched: " + bestMove);
+        } else {
+            System.out.println("FAIL: The previous position should be searched, got: " + bestMove);
+        }
+    }
+
+    /**
+     * Sends commands to a new UCI session and waits for its best move.
+     *
+     * @return Everything the session wrote.
+     */
+    private static String runSession(String... commands) throws IOException, InterruptedException {
+        PipedOutputStream commandStream = new PipedOutputStream();
+        PipedInputStream input = new PipedInputStream(commandStream);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Thread reader = new Uci(input, new PrintStream(output, true, StandardCharsets.US_ASCII)).start();
+
+        for (String command : commands) {
+            commandStream.write((command + "\n").getBytes(StandardCharsets.US_ASCII));
+        }
+        commandStream.flush();
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!output.toString(StandardCharsets.US_ASCII).contains("bestmove")
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        commandStream.write("quit\n".getBytes(StandardCharsets.US_ASCII));
+        commandStream.close();
+        reader.join(TIMEOUT_MILLIS);
+        return output.toString(StandardCharsets.US_ASCII);
+    }
+
+    private static String lastLine(String output, String prefix) {
+        String found = null;
+        for (String line : output.split("\\R")) {
+            if (line.startsWith(prefix)) {
+                found = line;
+            }
+        }
+        return found;
+    }
+}
@@ -21,6 +21,7 @@ public class UtilsTest {
         testPositionEqualsAndHashCode();
         testPositionToString();
         testIsValidCoordinate();
+        testPositionOf();
 
         System.out.println("Position class tests completed.\n");
     }
@@ -123,6 +124,40 @@ public class UtilsTest {
         }
     }
 
+    // 5. Test Position.of() and index()
+    public static void testPositionOf() {
+        System.out.println("\nTest Position.of() and index():");
+
+        // Shared instances
+        if (Position.of(4, 3) == Position.of(4, 3) && Position.of(4, 3) == Position.of(35)) {
+            System.out.println("PASS: Position.of() returns the same instance for the same square.");
+        } else {
+            System.out.println("FAIL: Position.of() should return the same instance for the same square.");
+        }
+
+        // Equal to positions created with the constructor
+        if (Position.of(4, 3).equals(new Position(4, 3))) {
+            System.out.println("PASS: Position.of(4, 3) equals new Position(4, 3).");
+        } else {
+            System.out.println("FAIL: Position.of(4, 3) should equal new Position(4, 3).");
+        }
+
+        // Square index
+        if (Position.of(0, 0).index() == 0 && Position.of(7, 7).index() == 63 && Position.of(4, 3).index() == 35) {
+            System.out.println("PASS: index() returns row * 8 + column.");
+        } else {
+            System.out.println("FAIL: index() should return row * 8 + column.");
+        }
+
+        // Invalid index
+        try {
+            Position.of(64);
+            System.out.println("FAIL: Position.of(64) should have thrown an exception.");
+        } catch (IllegalArgumentException e) {
+            System.out.println("PASS: Exception correctly thrown for square index 64.");
+        }
+    }
+
     public static void testColorEnum() {
         System.out.println("Testing Color enum...");
 
@@ -1,18 +1,93 @@
 package com.aichessgame.utils;
 
+import com.aichessgame.model.Move;
+
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.FileHandler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.logging.SimpleFormatter;
 
+/**
+ * The game's log, written through java.util.logging to logs/ChessGame.log and the console.
+ *
+ * By default logging is asynchronous: callers only put an event into a bounded ring buffer
+ * and a background writer thread formats it and does the I/O, so no file or console write
+ * happens on the thread playing the game. Events are structured, an event type with a color
+ * and a packed move, so the text is only built on the writer thread, and an event whose level
+ * is not logged is dropped before it is queued.
+ *
+ * The buffer takes events from any number of threads without locks: a producer claims a
+ * sequence number, fills the slot and then publishes it, and the single writer takes slots
+ * in sequence order once they are published. When the buffer is full, producers wait for
+ * the writer to make room rather than lose events.
+ */
 public class ChessLogger {
+    private static final int BUFFER_SIZE = 4096;       // Events that can wait for the writer, a power of two
+    private static final long IDLE_PARK_NANOS = 1_000_000; // How long the writer sleeps when the buffer is empty
+
     private static final ChessLogger instance = new ChessLogger();
     private static final Logger logger = Logger.getLogger("ChessGameLogger");
 
+    /**
+     * The kinds of events the game logs, each with its level and message.
+     * In a message, the first %s is the color and the second the move or square.
+     */
+    public enum EventType {
+        MOVE(Level.INFO, "Move: %s moved %s"),
+        AI_MOVE(Level.INFO, "Move: %s (AI) moved %s"),
+        BOOK_MOVE(Level.INFO, "Move: %s (AI, book) moved %s"),
+        INVALID_MOVE(Level.SEVERE, "Error: Invalid move %2$s"),
+        NO_PIECE(Level.SEVERE, "Error: No piece at starting position: %2$s"),
+        OPPONENT_PIECE(Level.SEVERE, "Error: Attempted to move opponent's piece from: %2$s"),
+        AI_TURN(Level.SEVERE, "Error: Attempted to move for the AI playing %s: %2$s"),
+        CHECK(Level.FINE, "Event: %s is in check."),
+        CHECKMATE(Level.FINE, "Event: Checkmate! %s wins."),
+        STALEMATE(Level.FINE, "Event: Stalemate! The game is a draw."),
+        TABLEBASE_DRAW(Level.FINE, "Event: Draw! The endgame tables show neither side can win."),
+        MOVE_TEXT(Level.INFO, "Move: %3$s"),
+        ERROR_TEXT(Level.SEVERE, "Error: %3$s"),
+        EVENT_TEXT(Level.FINE, "Event: %3$s");
+
+        private final Level level;
+        private final String message;
+
+        EventType(Level level, String message) {
+            this.level = level;
+            this.message = message;
+        }
+
+        /**
+         * Gets the level the event is logged at.
+         *
+         * @return The level.
+         */
+        public Level getLevel() {
+            return level;
+        }
+    }
+
+    private static final EventType[] EVENT_TYPES = EventType.values();
+    private static final Color[] COLORS = Color.values();
+    private static final String SOURCE_CLASS = ChessLogger.class.getName(); // Reported as the source of every record
+
+    // The ring buffer, one slot per event; a slot is published once its sequence number + 1 is stored
+    private final int[] types = new int[BUFFER_SIZE];           // EventType ordinal per slot
+    private final int[] colors = new int[BUFFER_SIZE];          // Color ordinal per slot, -1 for none
+    private final int[] moves = new int[BUFFER_SIZE];           // Packed move per slot
+    private final String[] texts = new String[BUFFER_SIZE];     // Preformatted text of the *_TEXT events
+    private final AtomicLongArray published = new AtomicLongArray(BUFFER_SIZE);
+    private final AtomicLong claimed = new AtomicLong();        // Next sequence number to hand to a producer
+    private volatile long consumed;                             // Next sequence number the writer takes
+    private volatile boolean asynchronous = true;
+    private volatile Thread writer;                             // Started with the first asynchronous event
+
     // Static initialization block for handler setup
     static {
         setupLogger();
@@ -55,15 +130,130 @@ public class ChessLogger {
         }
     }
 
+    /**
+     * Chooses between asynchronous logging through the writer thread and synchronous logging
+     * on the calling thread. Events already queued are written before synchronous logging starts.
+     *
+     * @param asynchronous True to queue events for the writer thread.
+     */
+    public void setAsynchronous(boolean asynchronous) {
+        if (!asynchronous) {
+            flush();
+        }
+        this.asynchronous = asynchronous;
+    }
+
+    /**
+     * Checks if an event type would be logged, so callers can skip building its details.
+     *
+     * @param type The event type.
+     * @return True if the logger is enabled for the event's level.
+     */
+    public boolean isLoggable(EventType type) {
+        return logger.isLoggable(type.level);
+    }
+
+    /**
+     * Logs an event about a move or a square.
+     *
+     * @param type  The event type.
+     * @param color The color of the player concerned, or null.
+     * @param move  The packed move, or for events about one square a move from that square to itself; Move.NONE if none.
+     */
+    public void log(EventType type, Color color, int move) {
+        log(type, color, move, null);
+    }
+
     public void logMove(String move) {
-        logger.info("Move: " + move);
+        log(EventType.MOVE_TEXT, null, Move.NONE, move);
     }
 
     public void logError(String errorMessage) {
-        logger.severe("Error: " + errorMessage);
+        log(EventType.ERROR_TEXT, null, Move.NONE, errorMessage);
     }
 
     public void logEvent(String eventMessage) {
-        logger.fine("Event: " + eventMessage);
+        log(EventType.EVENT_TEXT, null, Move.NONE, eventMessage);
+    }
+
+    /**
+     * Waits until the writer thread has written every event queued so far.
+     */
+    public void flush() {
+        long target = claimed.get();
+        while (consumed < target && writer != null && writer.isAlive()) {
+            LockSupport.parkNanos(IDLE_PARK_NANOS / 10);
+        }
+    }
+
+    private void log(EventType type, Color color, int move, String text) {
+        if (!logger.isLoggable(type.level)) {
+            return;
+        }
+        if (!asynchronous) {
+            String message = format(type.ordinal(), color == null ? -1 : color.ordinal(), move, text);
+            logger.logp(type.level, SOURCE_CLASS, type.name(), message);
+            return;
+        }
+        if (writer == null) {
+            startWriter();
+        }
+
+        long sequence = claimed.getAndIncrement();
+        while (sequence - consumed >= BUFFER_SIZE) {
+            // Full: wait for the writer to free the slot
+            Thread.onSpinWait();
+            Thread.yield();
+        }
+        int slot = (int) (sequence & (BUFFER_SIZE - 1));
+        types[slot] = type.ordinal();
+        colors[slot] = color == null ? -1 : color.ordinal();
+        moves[slot] = move;
+        texts[slot] = text;
+        // The volatile write makes the slot's fields visible to the writer before it sees the slot published
+        published.set(slot, sequence + 1);
+    }
+
+    private synchronized void startWriter() {
+        if (writer != null) {
+            return;
+        }
+        Thread thread = new Thread(this::drain, "chess-logger");
+        thread.setDaemon(true);
+        thread.start();
+        // Write what is still queued when the program exits
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "chess-logger-flush"));
+        writer = thread;
+    }
+
+    /**
+     * The writer thread's loop: takes published events in order, formats and writes them.
+     */
+    private void drain() {
+        while (true) {
+            long sequence = consumed;
+            int slot = (int) (sequence & (BUFFER_SIZE - 1));
+            if (published.get(slot) != sequence + 1) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            int type = types[slot];
+            String message = format(type, colors[slot], moves[slot], texts[slot]);
+            texts[slot] = null;
+            logger.logp(EVENT_TYPES[type].level, SOURCE_CLASS, EVENT_TYPES[type].name(), message);
+            consumed = sequence + 1;
+        }
+    }
+
+    private static String format(int type, int color, int move, String text) {
+        String colorName = color < 0 ? "" : COLORS[color].toString();
+        String moveText = "";
+        if (move != Move.NONE || type == EventType.NO_PIECE.ordinal() || type == EventType.OPPONENT_PIECE.ordinal()
+                || type == EventType.AI_TURN.ordinal()) {
+            Position from = Position.of(Move.getFrom(move));
+            Position to = Position.of(Move.getTo(move));
+            moveText = from.equals(to) ? from.toString() : "from " + from + " to " + to;
+        }
+        return String.format(EVENT_TYPES[type].message, colorName, moveText, text);
     }
 }
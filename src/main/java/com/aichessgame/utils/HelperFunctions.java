@@ -31,7 +31,7 @@ public class HelperFunctions {
             throw new IllegalArgumentException("Notation out of bounds: " + notation);
         }
 
-        return new Position(x, y);
+        return Position.of(x, y);
     }
 
     // Converts a Position object to algebraic notation (e.g., "e4")
@@ -1,5 +1,4 @@
 package com.aichessgame.utils;
-import java.util.Objects;
 
 public class Position {
 
@@ -10,6 +9,15 @@ public class Position {
     public static final int MIN_POSITION = 0;
     public static final int MAX_POSITION = 7;
 
+    // One shared instance per square, indexed by row * 8 + column
+    private static final Position[] POSITIONS = new Position[64];
+
+    static {
+        for (int index = 0; index < 64; index++) {
+            POSITIONS[index] = new Position(index >>> 3, index & 7);
+        }
+    }
+
     // Constructor
     public Position(int row, int column) {
         if (!isValidCoordinate(row) || !isValidCoordinate(column)) {
@@ -19,6 +27,22 @@ public class Position {
         this.column = column;
     }
 
+    // Returns the shared instance for a square instead of allocating a new one
+    public static Position of(int row, int column) {
+        if (!isValidCoordinate(row) || !isValidCoordinate(column)) {
+            throw new IllegalArgumentException("Invalid board position: (" + row + ", " + column + ")");
+        }
+        return POSITIONS[row * 8 + column];
+    }
+
+    // Returns the shared instance for a square index (row * 8 + column, a1 = 0, h8 = 63)
+    public static Position of(int index) {
+        if (index < 0 || index >= 64) {
+            throw new IllegalArgumentException("Invalid square index: " + index);
+        }
+        return POSITIONS[index];
+    }
+
     // Getters
     public int getRow() {
         return row;
@@ -28,6 +52,11 @@ public class Position {
         return column;
     }
 
+    // Square index used by bitboards and packed moves
+    public int index() {
+        return row * 8 + column;
+    }
+
     // Validation methods
     public static boolean isValidCoordinate(int coord) {
         return coord >= MIN_POSITION && coord <= MAX_POSITION;
@@ -48,7 +77,7 @@ public class Position {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, column);
+        return index();
     }
 
     @Override